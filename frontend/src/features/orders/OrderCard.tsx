@@ -52,7 +52,7 @@ export const OrderCard: React.FC<OrderCardProps> = ({ order }) => {
                         <Table>
                             <TableHeader>
                                 <TableRow>
-                                    <TableHead>Product ID</TableHead>
+                                    <TableHead>Product</TableHead>
                                     <TableHead className="text-right">Qty</TableHead>
                                     <TableHead className="text-right">Price</TableHead>
                                     <TableHead className="text-right">Subtotal</TableHead>
@@ -61,9 +61,13 @@ export const OrderCard: React.FC<OrderCardProps> = ({ order }) => {
                             <TableBody>
                                 {order.items.map((item) => (
                                     <TableRow key={item.id}>
-                                        <TableCell className="font-mono text-xs">
-                                            {item.productId.slice(0, 8)}...
-                                        </TableCell>
+                                        {item.productName ? (
+                                            <TableCell>{item.productName}</TableCell>
+                                        ) : (
+                                            <TableCell className="font-mono text-xs">
+                                                {item.productId.slice(0, 8)}...
+                                            </TableCell>
+                                        )}
                                         <TableCell className="text-right">{item.quantity}</TableCell>
                                         <TableCell className="text-right">${item.price.toFixed(2)}</TableCell>
                                         <TableCell className="text-right font-semibold">
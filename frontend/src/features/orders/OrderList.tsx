@@ -11,7 +11,7 @@ export const OrderList: React.FC = () => {
     const { isAdmin } = useAuth();
 
     const { data: orders, loading, error, refetch } = useApi<Order[]>(
-        () => isAdmin ? orderService.getAllOrders() : orderService.getMyOrders(),
+        () => isAdmin ? orderService.getAllOrders() : orderService.getMyOrdersWithDetails(),
         [isAdmin]
     );
 
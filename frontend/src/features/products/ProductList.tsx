@@ -14,10 +14,26 @@ interface ProductListProps {
 
 export const ProductList: React.FC<ProductListProps> = ({ onAddToCart }) => {
     const { isAdmin } = useAuth();
-    const { data: products, loading, error, refetch } = useApi<Product[]>(
-        () => productService.getAll(),
+    const [morePages, setMorePages] = useState<Product[]>([]);
+    const [nextCursor, setNextCursor] = useState<string | undefined>();
+    const [total, setTotal] = useState<number | undefined>();
+    const { data: firstPage, loading, error, refetch } = useApi<Product[]>(
+        async () => {
+            const page = await productService.getPage();
+            setMorePages([]);
+            setNextCursor(page.nextCursor);
+            setTotal(page.total);
+            return page.products;
+        },
         []
     );
+    const products = firstPage ? [...firstPage, ...morePages] : null;
+
+    const handleLoadMore = async () => {
+        const page = await productService.getPage(nextCursor);
+        setMorePages((loaded) => [...loaded, ...page.products]);
+        setNextCursor(page.nextCursor);
+    };
 
     const [showForm, setShowForm] = useState(false);
     const [editingProduct, setEditingProduct] = useState<Product | undefined>();
@@ -93,7 +109,7 @@ export const ProductList: React.FC<ProductListProps> = ({ onAddToCart }) => {
                 <div>
                     <h2 className="text-3xl font-bold tracking-tight">Products</h2>
                     <p className="text-muted-foreground">
-                        {products?.length || 0} products available
+                        {total ?? products?.length ?? 0} products available
                     </p>
                 </div>
                 <div className="flex gap-2">
@@ -134,6 +150,14 @@ export const ProductList: React.FC<ProductListProps> = ({ onAddToCart }) => {
                     ))}
                 </div>
             )}
+
+            {nextCursor && (
+                <div className="flex justify-center">
+                    <Button variant="outline" onClick={handleLoadMore}>
+                        Load more
+                    </Button>
+                </div>
+            )}
         </div>
     );
 };
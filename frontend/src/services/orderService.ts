@@ -14,6 +14,12 @@ export const orderService = {
         return response.data;
     },
 
+    // Get current user's orders with product names, composed by the gateway
+    getMyOrdersWithDetails: async (): Promise<Order[]> => {
+        const response = await api.get<Order[]>('/api/order-details/my-orders');
+        return response.data;
+    },
+
     // Get all orders (ADMIN only)
     getAllOrders: async (): Promise<Order[]> => {
         const response = await api.get<Order[]>('/api/orders');
@@ -1,11 +1,19 @@
 import api from './api';
-import { Product, ProductRequest } from '../types';
+import { Product, ProductPage, ProductRequest } from '../types';
+
+const PAGE_SIZE = 50;
 
 export const productService = {
-    // Get all products
-    getAll: async (): Promise<Product[]> => {
-        const response = await api.get<Product[]>('/api/products');
-        return response.data;
+    // Get one page of products; pass the previous page's nextCursor to continue
+    getPage: async (cursor?: string): Promise<ProductPage> => {
+        const params = cursor ? { cursor, size: PAGE_SIZE } : { page: 0, size: PAGE_SIZE };
+        const response = await api.get<Product[]>('/api/products', { params });
+        const total = response.headers['x-total-count'];
+        return {
+            products: response.data,
+            total: total !== undefined ? Number(total) : undefined,
+            nextCursor: response.headers['x-next-cursor'],
+        };
     },
 
     // Get product by ID
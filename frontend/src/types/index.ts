@@ -7,6 +7,12 @@ export interface Product {
     quantity: number;
 }
 
+export interface ProductPage {
+    products: Product[];
+    total?: number;          // only on the first page
+    nextCursor?: string;     // absent on the last page
+}
+
 export interface ProductRequest {
     name: string;
     description?: string;
@@ -20,6 +26,9 @@ export interface OrderItem {
     productId: string;
     quantity: number;
     price: number;
+    // Present on orders from /api/order-details (unless product-service was unavailable)
+    productName?: string;
+    productDescription?: string;
 }
 
 export interface Order {
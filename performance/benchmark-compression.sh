@@ -0,0 +1,84 @@
+#!/bin/bash
+
+# ===================================================================
+# Gateway Compression & Streaming Benchmark
+# ===================================================================
+# Measures, through the running gateway:
+#   1. bytes on the wire for large JSON responses, identity vs gzip
+#   2. gateway heap growth per in-flight request while N slow clients
+#      download the product list concurrently (a buffering proxy grows
+#      by roughly the body size per request, a streaming one does not)
+#
+# Usage:
+#   TOKEN=<admin access token> ./performance/benchmark-compression.sh
+#
+# Optional environment:
+#   GATEWAY_URL   (default http://localhost:8080)
+#   CONCURRENCY   (default 50)  slow clients for the memory test
+#   RATE_LIMIT    (default 20k) per-client download rate for the memory test
+# Run once before and once after a change and compare the summary lines.
+# ===================================================================
+
+set -e
+
+GATEWAY_URL="${GATEWAY_URL:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-50}"
+RATE_LIMIT="${RATE_LIMIT:-20k}"
+
+if [ -z "$TOKEN" ]; then
+    echo "TOKEN must hold an ADMIN access token (token endpoint: see docs/API_INTEGRATION.md)"
+    exit 1
+fi
+
+AUTH="Authorization: Bearer $TOKEN"
+
+# ===================================================================
+# 1. Bytes on the wire
+# ===================================================================
+measure_size() {
+    local path="$1"
+    local encoding="$2"
+    curl -s -o /dev/null -H "$AUTH" -H "Accept-Encoding: $encoding" \
+        -w "%{size_download} %{time_total}" "$GATEWAY_URL$path"
+}
+
+echo "== Bytes on the wire =="
+printf "%-24s %14s %14s %8s\n" "endpoint" "identity(B)" "gzip(B)" "ratio"
+for path in /api/products /api/orders; do
+    read -r plain_bytes plain_time <<< "$(measure_size "$path" identity)"
+    read -r gzip_bytes gzip_time <<< "$(measure_size "$path" gzip)"
+    ratio=$(awk -v a="$plain_bytes" -v b="$gzip_bytes" 'BEGIN { if (b > 0) printf "%.2fx", a / b; else print "n/a" }')
+    printf "%-24s %14s %14s %8s\n" "$path" "$plain_bytes" "$gzip_bytes" "$ratio"
+done
+echo ""
+
+# ===================================================================
+# 2. Heap per in-flight request
+# ===================================================================
+heap_used() {
+    curl -s -H "$AUTH" "$GATEWAY_URL/actuator/metrics/jvm.memory.used?tag=area:heap" \
+        | sed -E 's/.*"value":([0-9.E+]+).*/\1/'
+}
+
+echo "== Gateway heap per in-flight request ($CONCURRENCY clients at $RATE_LIMIT/s) =="
+baseline=$(heap_used)
+
+pids=()
+for _ in $(seq 1 "$CONCURRENCY"); do
+    curl -s -o /dev/null -H "$AUTH" -H "Accept-Encoding: identity" \
+        --limit-rate "$RATE_LIMIT" "$GATEWAY_URL/api/products" &
+    pids+=($!)
+done
+
+sleep 3
+loaded=$(heap_used)
+for pid in "${pids[@]}"; do
+    wait "$pid" || true
+done
+
+awk -v base="$baseline" -v load="$loaded" -v n="$CONCURRENCY" 'BEGIN {
+    delta = load - base
+    printf "heap idle:    %.1f MiB\n", base / 1048576
+    printf "heap loaded:  %.1f MiB\n", load / 1048576
+    printf "per request:  %.1f KiB\n", (delta > 0 ? delta : 0) / n / 1024
+}'
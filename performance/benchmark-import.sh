@@ -0,0 +1,74 @@
+#!/bin/bash
+
+# ===================================================================
+# Product Bulk Import Benchmark
+# ===================================================================
+# Generates a synthetic catalog, uploads it to /api/products/import
+# through the running gateway and reports import throughput. Runs the
+# same file twice: the first pass inserts every row, the second updates
+# every row (the rows carry IDs), which exercises both sides of the upsert.
+#
+# Usage:
+#   TOKEN=<admin access token> ./performance/benchmark-import.sh
+#
+# Optional environment:
+#   GATEWAY_URL   (default http://localhost:8080)
+#   ROWS          (default 1000000) rows in the generated file
+#   FORMAT        (default csv) csv or ndjson
+# Run once before and once after a change and compare the summary lines.
+# ===================================================================
+
+set -e
+
+GATEWAY_URL="${GATEWAY_URL:-http://localhost:8080}"
+ROWS="${ROWS:-1000000}"
+FORMAT="${FORMAT:-csv}"
+
+if [ -z "$TOKEN" ]; then
+    echo "TOKEN must hold an ADMIN access token (token endpoint: see docs/API_INTEGRATION.md)"
+    exit 1
+fi
+
+AUTH="Authorization: Bearer $TOKEN"
+FILE=$(mktemp "/tmp/products-import.XXXXXX.$FORMAT")
+trap 'rm -f "$FILE"' EXIT
+
+# ===================================================================
+# 1. Generate the upload
+# ===================================================================
+echo "== Generating $ROWS $FORMAT rows =="
+if [ "$FORMAT" = "csv" ]; then
+    CONTENT_TYPE="text/csv"
+    awk -v n="$ROWS" 'BEGIN {
+        srand(42)
+        print "id,name,description,price,quantity"
+        for (i = 1; i <= n; i++)
+            printf "bench-%08d,Bench product %d,\"Synthetic item, batch %d\",%.2f,%d\n",
+                i, i, i % 97, 1 + rand() * 999, int(rand() * 500)
+    }' > "$FILE"
+else
+    CONTENT_TYPE="application/x-ndjson"
+    awk -v n="$ROWS" 'BEGIN {
+        srand(42)
+        for (i = 1; i <= n; i++)
+            printf "{\"id\":\"bench-%08d\",\"name\":\"Bench product %d\",\"description\":\"Synthetic item, batch %d\",\"price\":%.2f,\"quantity\":%d}\n",
+                i, i, i % 97, 1 + rand() * 999, int(rand() * 500)
+    }' > "$FILE"
+fi
+echo "file size: $(du -h "$FILE" | cut -f1)"
+echo ""
+
+# ===================================================================
+# 2. Upload and report
+# ===================================================================
+run_import() {
+    local label="$1"
+    local summary
+    summary=$(curl -s -N -H "$AUTH" -H "Content-Type: $CONTENT_TYPE" \
+        --data-binary "@$FILE" "$GATEWAY_URL/api/products/import" | grep '"type":"summary"')
+    echo "$label: $summary"
+}
+
+echo "== Import throughput =="
+run_import "insert pass"
+run_import "update pass"
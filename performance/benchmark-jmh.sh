@@ -0,0 +1,56 @@
+#!/bin/bash
+
+# ===================================================================
+# JMH Microbenchmarks
+# ===================================================================
+# Installs product-service and order-service as plain library jars,
+# builds server/benchmarks and runs it. Results are written as JSON to
+# performance/results/jmh-<commit>.json so two commits can be compared.
+#
+# Usage:
+#   ./performance/benchmark-jmh.sh [JMH options]
+#
+# Examples:
+#   ./performance/benchmark-jmh.sh                     # everything
+#   ./performance/benchmark-jmh.sh 'Json|OrderCreation'  # a subset
+#   ./performance/benchmark-jmh.sh -f 1 -wi 1 -i 1     # a quick pass
+#
+# Optional environment:
+#   BASELINE    JMH JSON file of an earlier run; the new results are
+#               compared against it and the script fails on a regression
+#   THRESHOLD   (default 10) regression threshold in percent
+#   SKIP_BUILD  (default false) reuse server/benchmarks/target/benchmarks.jar
+#   MVN         (default the product-service Maven wrapper) Maven command
+#
+# Results only compare between runs on the same machine.
+# ===================================================================
+
+set -e
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+# mvnw is not committed as executable
+MVN="${MVN:-sh $ROOT/server/product-service/mvnw}"
+THRESHOLD="${THRESHOLD:-10}"
+JAR="$ROOT/server/benchmarks/target/benchmarks.jar"
+
+if [ "$SKIP_BUILD" != "true" ]; then
+    echo "=== Building ==="
+    (cd "$ROOT/server/product-service" && $MVN -B -q -Plibrary install -DskipTests)
+    (cd "$ROOT/server/order-service" && $MVN -B -q -Plibrary install -DskipTests)
+    (cd "$ROOT/server/benchmarks" && $MVN -B -q package)
+fi
+
+COMMIT=$(git -C "$ROOT" rev-parse --short HEAD)
+if ! git -C "$ROOT" diff --quiet HEAD -- server; then
+    COMMIT="$COMMIT-dirty"
+fi
+mkdir -p "$ROOT/performance/results"
+RESULT="$ROOT/performance/results/jmh-$COMMIT.json"
+
+echo "=== Running (results: $RESULT) ==="
+java -jar "$JAR" -rf json -rff "$RESULT" "$@"
+
+if [ -n "$BASELINE" ]; then
+    echo "=== Compared with $BASELINE ==="
+    java -cp "$JAR" com.example.benchmarks.CompareResults "$BASELINE" "$RESULT" "$THRESHOLD"
+fi
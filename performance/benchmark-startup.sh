@@ -0,0 +1,55 @@
+#!/bin/bash
+
+# ===================================================================
+# Cold-Start Benchmark
+# ===================================================================
+# Builds the gateway, product and order services with the fast-startup
+# profile (Spring AOT processing) and server/loadtest, then measures each
+# service's time from launching its JVM to the first successful
+# authenticated request in three modes:
+#   standard   java -jar
+#   aot        java -Dspring.aot.enabled=true -jar
+#   aot+cds    the extracted jar with a CDS archive from a training run,
+#              as the Dockerfiles start it
+# Like the load test, it needs neither Docker nor Keycloak. Prints the
+# median, min and max per service and mode and writes them as JSON to
+# performance/results/startup-<commit>.json.
+#
+# Usage:
+#   ./performance/benchmark-startup.sh [options]
+#
+# Examples:
+#   ./performance/benchmark-startup.sh --startup-runs=5
+#   ./performance/benchmark-startup.sh --startup-services=product-service
+#   ./performance/benchmark-startup.sh --db-url=jdbc:postgresql://localhost:5433/product_db \
+#       --db-username=myuser --db-password=mypassword
+#
+# Optional environment:
+#   SKIP_BUILD  (default false) reuse the jars already in server/*/target
+#   MVN         (default the product-service Maven wrapper) Maven command
+#
+# Startup is mostly CPU-bound: compare runs made on the same machine only.
+# ===================================================================
+
+set -e
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+# mvnw is not committed as executable
+MVN="${MVN:-sh $ROOT/server/product-service/mvnw}"
+
+if [ "$SKIP_BUILD" != "true" ]; then
+    echo "=== Building ==="
+    for module in gateway-service product-service order-service; do
+        (cd "$ROOT/server/$module" && $MVN -B -q package -DskipTests -Pfast-startup)
+    done
+    (cd "$ROOT/server/loadtest" && $MVN -B -q package -DskipTests)
+fi
+
+COMMIT=$(git -C "$ROOT" rev-parse --short HEAD)
+if ! git -C "$ROOT" diff --quiet HEAD -- server; then
+    COMMIT="$COMMIT-dirty"
+fi
+
+cd "$ROOT"
+java -cp server/loadtest/target/loadtest.jar com.example.loadtest.StartupBenchmark \
+    --out="performance/results/startup-$COMMIT.json" "$@"
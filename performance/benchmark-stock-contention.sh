@@ -0,0 +1,77 @@
+#!/bin/bash
+
+# ===================================================================
+# Hot-Product Stock Contention Benchmark
+# ===================================================================
+# Many concurrent buyers reserve one unit each of the same product,
+# first with the stock in a single row, then split across stripes.
+# Reports reservations per second and latency percentiles per mode.
+#
+# Usage:
+#   TOKEN=<admin access token> ./performance/benchmark-stock-contention.sh
+#
+# Optional environment:
+#   GATEWAY_URL   (default http://localhost:8080)
+#   CONCURRENCY   (default 64)   concurrent buyers
+#   REQUESTS      (default 5000) reservations per mode
+#   STRIPES       (default 16)   stripes for the striped run
+# The benchmark product is deleted at the end.
+# ===================================================================
+
+set -e
+
+GATEWAY_URL="${GATEWAY_URL:-http://localhost:8080}"
+CONCURRENCY="${CONCURRENCY:-64}"
+REQUESTS="${REQUESTS:-5000}"
+STRIPES="${STRIPES:-16}"
+
+if [ -z "$TOKEN" ]; then
+    echo "TOKEN must hold an ADMIN access token (token endpoint: see docs/API_INTEGRATION.md)"
+    exit 1
+fi
+
+AUTH="Authorization: Bearer $TOKEN"
+TIMINGS=$(mktemp)
+trap 'rm -f "$TIMINGS"' EXIT
+
+# ===================================================================
+# 1. Benchmark product with plenty of stock
+# ===================================================================
+PRODUCT_ID=$(curl -s -H "$AUTH" -H "Content-Type: application/json" \
+    -d "{\"name\":\"Contention benchmark\",\"price\":1.0,\"quantity\":$((REQUESTS * 4))}" \
+    "$GATEWAY_URL/api/products" | sed -E 's/.*"id":"([^"]+)".*/\1/')
+echo "benchmark product: $PRODUCT_ID"
+trap 'curl -s -o /dev/null -X DELETE -H "$AUTH" "$GATEWAY_URL/api/products/$PRODUCT_ID"; rm -f "$TIMINGS"' EXIT
+
+# ===================================================================
+# 2. Reserve one unit per request, CONCURRENCY at a time
+# ===================================================================
+reserve_all() {
+    local label="$1"
+    : > "$TIMINGS"
+    local start end
+    start=$(date +%s.%N)
+    seq 1 "$REQUESTS" | xargs -P "$CONCURRENCY" -I{} \
+        curl -s -o /dev/null -w "%{http_code} %{time_total}\n" -X POST \
+            -H "$AUTH" -H "Content-Type: application/json" -d '{"quantity":1}' \
+            "$GATEWAY_URL/api/products/$PRODUCT_ID/stock/reserve" >> "$TIMINGS"
+    end=$(date +%s.%N)
+
+    sort -k2 -n "$TIMINGS" | awk -v label="$label" -v start="$start" -v end="$end" '
+        { t[NR] = $2; if ($1 != 204) failed++ }
+        END {
+            elapsed = end - start
+            printf "%-10s %6d req  %8.0f req/s  p50 %6.1f ms  p99 %7.1f ms  failed %d\n",
+                label, NR, NR / elapsed, t[int(NR * 0.50)] * 1000, t[int(NR * 0.99)] * 1000, failed
+        }'
+}
+
+echo "== $CONCURRENCY concurrent buyers, $REQUESTS reservations per mode =="
+reserve_all "single"
+
+curl -s -o /dev/null -X PUT -H "$AUTH" -H "Content-Type: application/json" \
+    -d "{\"stripes\":$STRIPES}" "$GATEWAY_URL/api/products/$PRODUCT_ID/stock/stripes"
+reserve_all "striped/$STRIPES"
+
+echo ""
+echo "stock left: $(curl -s -H "$AUTH" "$GATEWAY_URL/api/products/$PRODUCT_ID/stock")"
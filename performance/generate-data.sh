@@ -0,0 +1,64 @@
+#!/bin/bash
+
+# ===================================================================
+# Synthetic Data Generator
+# ===================================================================
+# Fills the product and order databases with production-sized synthetic
+# data: builds both services, then runs each jar with DATAGEN_ENABLED=true,
+# which writes the rows straight to its database and exits. Product IDs
+# and prices are derived from the seed, so the orders refer to the
+# generated products without either service being up.
+#
+# Usage:
+#   PRODUCT_DB_URL=jdbc:postgresql://localhost:5433/product_db \
+#   ORDER_DB_URL=jdbc:postgresql://localhost:5434/order_db \
+#   DB_USERNAME=myuser DB_PASSWORD=mypassword ./performance/generate-data.sh
+#
+# Optional environment:
+#   DATAGEN_SEED      (default 42) same seed, same data
+#   DATAGEN_PRODUCTS  (default 1000000)
+#   DATAGEN_USERS     (default 1000000) about 2.5 orders per user
+#   DATAGEN_THREADS   (default 4) parallel insert batches per service
+#   DATAGEN_RESTART   (default false) forget the progress of an earlier run
+#   SKIP_BUILD        (default false) reuse the jars already in server/*/target
+#   MVN               (default the product-service Maven wrapper) Maven command
+#
+# An interrupted run resumes where it stopped when started again with the
+# same settings. Other distribution settings: datagen.* in each service's
+# DataGeneratorProperties, passed as JAVA_OPTS=-Ddatagen.days=365 etc.
+# ===================================================================
+
+set -e
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+# mvnw is not committed as executable
+MVN="${MVN:-sh $ROOT/server/product-service/mvnw}"
+
+if [ -z "$PRODUCT_DB_URL" ] || [ -z "$ORDER_DB_URL" ]; then
+    echo "PRODUCT_DB_URL and ORDER_DB_URL must hold the JDBC URLs of the two databases"
+    exit 1
+fi
+
+if [ "$SKIP_BUILD" != "true" ]; then
+    echo "=== Building ==="
+    for module in product-service order-service; do
+        (cd "$ROOT/server/$module" && $MVN -B -q package -DskipTests)
+    done
+fi
+
+export DATAGEN_ENABLED=true
+export SPRING_DATASOURCE_USERNAME="${DB_USERNAME:-postgres}"
+export SPRING_DATASOURCE_PASSWORD="${DB_PASSWORD:-}"
+
+# The newest jar is the executable one, as in the load test
+for module in product-service order-service; do
+    if [ "$module" = "product-service" ]; then
+        export SPRING_DATASOURCE_URL="$PRODUCT_DB_URL"
+    else
+        export SPRING_DATASOURCE_URL="$ORDER_DB_URL"
+    fi
+    JAR=$(ls -t "$ROOT/server/$module"/target/"$module"-*.jar | head -1)
+    echo "=== Generating with $module ==="
+    # Port 0: the generator may run next to the real services
+    java $JAVA_OPTS -jar "$JAR" --server.port=0
+done
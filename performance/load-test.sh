@@ -0,0 +1,51 @@
+#!/bin/bash
+
+# ===================================================================
+# End-to-End Load Test
+# ===================================================================
+# Builds the gateway, product and order services and server/loadtest,
+# then runs the load test. It needs neither Docker nor Keycloak: tokens
+# come from a local JWK set and PostgreSQL is embedded (or given with
+# --db-url). Reports throughput and p50/p99/p999 latency per scenario
+# (browse, create-order, admin-list) and writes them as JSON to
+# performance/results/loadtest-<commit>.json.
+#
+# Usage:
+#   ./performance/load-test.sh [options]
+#
+# Examples:
+#   ./performance/load-test.sh --browse-rate=200 --order-rate=20
+#   ./performance/load-test.sh --slow-product=300ms      # fault mode
+#   ./performance/load-test.sh --db-url=jdbc:postgresql://localhost:5433/product_db \
+#       --db-username=myuser --db-password=mypassword
+#   ./performance/load-test.sh --help                    # all options
+#
+# Optional environment:
+#   SKIP_BUILD  (default false) reuse the jars already in server/*/target
+#   MVN         (default the product-service Maven wrapper) Maven command
+#
+# The services, the load generator and the database share the machine;
+# compare runs made on the same machine only.
+# ===================================================================
+
+set -e
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+# mvnw is not committed as executable
+MVN="${MVN:-sh $ROOT/server/product-service/mvnw}"
+
+if [ "$SKIP_BUILD" != "true" ]; then
+    echo "=== Building ==="
+    for module in gateway-service product-service order-service loadtest; do
+        (cd "$ROOT/server/$module" && $MVN -B -q package -DskipTests)
+    done
+fi
+
+COMMIT=$(git -C "$ROOT" rev-parse --short HEAD)
+if ! git -C "$ROOT" diff --quiet HEAD -- server; then
+    COMMIT="$COMMIT-dirty"
+fi
+
+cd "$ROOT"
+java -jar server/loadtest/target/loadtest.jar \
+    --out="performance/results/loadtest-$COMMIT.json" "$@"
@@ -0,0 +1,95 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (written with {@code -rf json}).
+ *
+ * <pre>
+ * java -cp benchmarks.jar com.example.benchmarks.CompareResults baseline.json current.json [threshold%]
+ * </pre>
+ *
+ * Prints the change in score for every benchmark and parameter set present in
+ * both files. A result is a regression when it is worse by more than the
+ * threshold (default 10%) and the two error intervals do not overlap. The
+ * exit status is 1 if there is any regression.
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults <baseline.json> <current.json> [threshold%]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Score> baseline = read(objectMapper.readTree(new File(args[0])));
+        Map<String, Score> current = read(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            Score after = entry.getValue();
+            double change = (after.value - before.value) / before.value;
+            // Lower is better for time per operation, higher for throughput
+            double worse = after.higherIsBetter() ? -change : change;
+            boolean overlap = after.higherIsBetter()
+                    ? after.value + after.error >= before.value - before.error
+                    : after.value - after.error <= before.value + before.error;
+            boolean regression = worse > threshold && !overlap;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", entry.getKey(), before, after, change * 100,
+                    regression ? "  REGRESSION" : "");
+        }
+        if (regressions > 0) {
+            System.out.printf("%d regression(s) above %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(JsonNode results) {
+        Map<String, Score> scores = new TreeMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.get("benchmark").asText()
+                    .replace("com.example.benchmarks.", ""));
+            JsonNode params = result.get("params");
+            if (params != null) {
+                for (Map.Entry<String, JsonNode> param : params.properties()) {
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            JsonNode metric = result.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble();
+            scores.put(key.toString(), new Score(metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.get("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private record Score(double value, double error, String unit) {
+
+        boolean higherIsBetter() {
+            return unit.startsWith("ops/");
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.3f %s", value, unit);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.entities.OrderItem;
+import com.example.orderservice.enums.OrderStatus;
+import com.example.productservice.entities.Product;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response body serialization: one {@link Order} with {@code size} items, as
+ * returned by the order endpoints, and a page of {@code size} products. The
+ * mapper is configured the way Spring Boot configures the services' one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Order order;
+    private List<Product> products;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        order = Order.builder()
+                .id(UUID.randomUUID().toString())
+                .userId(UUID.randomUUID().toString())
+                .orderDate(LocalDateTime.now())
+                .status(OrderStatus.VALIDATED)
+                .build();
+        double total = 0;
+        for (int i = 0; i < size; i++) {
+            OrderItem item = OrderItem.builder()
+                    .id(UUID.randomUUID().toString())
+                    .productId(UUID.randomUUID().toString())
+                    .quantity(1 + i % 5)
+                    .price(9.99 + i)
+                    .order(order)
+                    .build();
+            order.getItems().add(item);
+            total += item.getPrice() * item.getQuantity();
+        }
+        order.setTotalAmount(total);
+
+        products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            products.add(Product.builder()
+                    .id(UUID.randomUUID().toString())
+                    .name("Product " + i)
+                    .description("Description of product " + i + ", long enough to look like a real one")
+                    .price(9.99 + i)
+                    .quantity(100 + i)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public byte[] order() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] products() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+}
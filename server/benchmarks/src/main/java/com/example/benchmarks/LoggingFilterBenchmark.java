@@ -0,0 +1,86 @@
+package com.example.benchmarks;
+
+import com.example.productservice.config.SecurityConfig;
+import com.example.productservice.datasource.QueryInspectionProperties;
+import com.example.productservice.datasource.QueryInspector;
+import com.example.productservice.logging.AccessLogProperties;
+import com.example.productservice.logging.AccessLogWriter;
+import com.example.productservice.logging.LoggingFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What {@link LoggingFilter} adds to a request: user lookup, MDC, the query
+ * statistics scope and its metrics, and handing the access event to the
+ * background writer. {@code baseline} runs the same empty chain without the
+ * filter. The writer's output goes to a disabled logger, so only the
+ * request-thread cost is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingFilterBenchmark {
+
+    /** 0.1 is the configured default; 1.0 offers every event to the ring buffer. */
+    @Param({"0.1", "1.0"})
+    public double sampleRate;
+
+    private final FilterChain chain = (request, response) -> { };
+    private AccessLogWriter writer;
+    private LoggingFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        AccessLogProperties properties = new AccessLogProperties();
+        properties.setSampleRate(sampleRate);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        writer = new AccessLogWriter(properties, registry);
+        filter = new LoggingFilter(writer, new QueryInspector(new QueryInspectionProperties(), registry));
+        request = new MockHttpServletRequest("GET", "/api/products/6f1c2a34-8a4e-4f0e-9a55-2f0d1b7c9e10");
+        response = new MockHttpServletResponse();
+
+        Tokens tokens = new Tokens();
+        SecurityContextHolder.getContext().setAuthentication(new SecurityConfig().jwtAuthenticationConverter()
+                .convert(tokens.decoder().decode(tokens.mint("alice", "CLIENT"))));
+    }
+
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        SecurityContextHolder.clearContext();
+        writer.destroy();
+    }
+
+    @Benchmark
+    public void baseline() throws IOException, ServletException {
+        chain.doFilter(request, response);
+    }
+
+    @Benchmark
+    public void filter() throws IOException, ServletException {
+        filter.doFilter(request, response, chain);
+    }
+}
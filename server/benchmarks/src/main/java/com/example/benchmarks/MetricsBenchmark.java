@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One {@code http.server.requests} timer record, with the histogram, SLO and
+ * range settings from the services' {@code application.properties}. This is
+ * the operation the overhead budget in docs/OBSERVABILITY.md caps at 1 µs.
+ * {@code lookupAndRecord} adds the builder lookup done per request by
+ * instrumentation that resolves its tags first.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private static final Duration[] SLOS = {
+            Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+            Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofMillis(2500),
+            Duration.ofSeconds(5)
+    };
+
+    private PrometheusMeterRegistry registry;
+    private Timer timer;
+
+    @State(Scope.Thread)
+    public static class Durations {
+        private long next;
+
+        /** 0.5 to ~260 ms, so records land in different buckets. */
+        long nextNanos() {
+            next = next * 6364136223846793005L + 1442695040888963407L;
+            return 500_000L + ((next >>> 40) & 0xFFFFFF) * 15;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        timer = timer();
+    }
+
+    @Benchmark
+    public void record(Durations durations) {
+        timer.record(durations.nextNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void lookupAndRecord(Durations durations) {
+        timer().record(durations.nextNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer() {
+        return Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/api/products/{id}", "status", "200", "outcome", "SUCCESS",
+                        "exception", "none", "handler", "ProductController#getById")
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(SLOS)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+    }
+}
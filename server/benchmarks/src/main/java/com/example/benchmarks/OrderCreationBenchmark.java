@@ -0,0 +1,102 @@
+package com.example.benchmarks;
+
+import com.example.orderservice.client.ProductClient;
+import com.example.orderservice.dto.OrderRequestDTO;
+import com.example.orderservice.dto.ProductDTO;
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.partitioning.OrderArchive;
+import com.example.orderservice.repositories.OrderRepository;
+import com.example.orderservice.services.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The computation in {@link OrderService#createOrder}: stock checks, item
+ * building and totals. The product lookups are answered from a map and the
+ * repository returns what it is given, so neither HTTP nor the database is
+ * measured. The archive is never read and events go nowhere.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCreationBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private OrderService orderService;
+    private OrderRequestDTO request;
+
+    @Setup
+    public void setUp() throws IOException {
+        Map<String, ProductDTO> catalog = new HashMap<>();
+        List<OrderRequestDTO.ItemRequestDTO> requestItems = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            String id = UUID.randomUUID().toString();
+            catalog.put(id, new ProductDTO(id, "Product " + i, "Description " + i, 9.99 + i, 1_000));
+            OrderRequestDTO.ItemRequestDTO item = new OrderRequestDTO.ItemRequestDTO();
+            item.setProductId(id);
+            item.setQuantity(1 + i % 5);
+            requestItems.add(item);
+        }
+        request = new OrderRequestDTO();
+        request.setItems(requestItems);
+
+        ProductClient productClient = new ProductClient() {
+            @Override
+            public List<ProductDTO> getAll() {
+                return List.copyOf(catalog.values());
+            }
+
+            @Override
+            public ProductDTO getProductById(String id) {
+                return catalog.get(id);
+            }
+        };
+        ObjectMapper objectMapper = new ObjectMapper();
+        OrderArchive archive = new OrderArchive(Files.createTempDirectory("order-archive"), objectMapper);
+        orderService = new OrderService(savingRepository(), productClient, archive, objectMapper, event -> {
+        });
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(request, "alice");
+    }
+
+    /**
+     * Only {@code save} is called by {@code createOrder}.
+     */
+    private static OrderRepository savingRepository() {
+        return (OrderRepository) Proxy.newProxyInstance(OrderRepository.class.getClassLoader(),
+                new Class<?>[]{OrderRepository.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("save")) {
+                        return args[0];
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.benchmarks;
+
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.search.ProductSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Top-20 searches against a synthetic catalog. Words are drawn from a
+ * Zipf-distributed vocabulary, so common words have long posting lists and
+ * short prefixes expand to many terms. Each invocation picks the next query
+ * from a fixed list, so the score averages over frequent and rare words.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Thread)
+public class ProductSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 20_000;
+    private static final int QUERIES = 1024;
+    private static final int LIMIT = 20;
+
+    @Param({"1000000"})
+    public int catalogSize;
+
+    private ProductSearchIndex index;
+    private String[] vocabulary;
+    private double[] cumulative;
+    private String[] oneWord;
+    private String[] twoWords;
+    private String[] wordAndPrefix;
+    private String[] shortPrefix;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        vocabulary = new String[VOCABULARY_SIZE];
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary[i] = randomWord(random);
+        }
+        cumulative = new double[VOCABULARY_SIZE];
+        double sum = 0;
+        for (int rank = 1; rank <= VOCABULARY_SIZE; rank++) {
+            sum += 1.0 / rank;
+            cumulative[rank - 1] = sum;
+        }
+
+        index = new ProductSearchIndex();
+        for (int i = 0; i < catalogSize; i++) {
+            index.put("p" + i, words(random, 3), words(random, 12), 1.0 + random.nextInt(500));
+        }
+
+        oneWord = new String[QUERIES];
+        twoWords = new String[QUERIES];
+        wordAndPrefix = new String[QUERIES];
+        shortPrefix = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            oneWord[i] = word(random);
+            twoWords[i] = word(random) + " " + word(random);
+            String last = word(random);
+            wordAndPrefix[i] = word(random) + " " + last.substring(0, Math.min(4, last.length()));
+            shortPrefix[i] = word(random).substring(0, 3);
+        }
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> oneWord() {
+        return index.search(oneWord[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> twoWords() {
+        return index.search(twoWords[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> wordAndPrefix() {
+        return index.search(wordAndPrefix[nextQuery()], LIMIT);
+    }
+
+    @Benchmark
+    public List<ProductSearchHit> shortPrefix() {
+        return index.search(shortPrefix[nextQuery()], LIMIT);
+    }
+
+    private int nextQuery() {
+        return next++ & (QUERIES - 1);
+    }
+
+    private String words(SplittableRandom random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word(random));
+        }
+        return text.toString();
+    }
+
+    private String word(SplittableRandom random) {
+        double target = random.nextDouble() * cumulative[VOCABULARY_SIZE - 1];
+        int low = 0;
+        int high = VOCABULARY_SIZE - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] < target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return vocabulary[low];
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        char[] letters = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(letters);
+    }
+}
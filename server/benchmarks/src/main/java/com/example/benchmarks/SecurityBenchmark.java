@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.productservice.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication work in every service: verifying the bearer
+ * token, then turning its {@code realm_access.roles} into authorities with
+ * {@code KeycloakRoleConverter} (through the {@link JwtAuthenticationConverter}
+ * that wraps it, as Spring Security calls it).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SecurityBenchmark {
+
+    @Param({"CLIENT", "ADMIN"})
+    public String role;
+
+    private JwtDecoder decoder;
+    private String token;
+    private Jwt jwt;
+    private JwtAuthenticationConverter authenticationConverter;
+
+    @Setup
+    public void setUp() {
+        Tokens tokens = new Tokens();
+        decoder = tokens.decoder();
+        token = tokens.mint("alice", role);
+        jwt = decoder.decode(token);
+        authenticationConverter = new SecurityConfig().jwtAuthenticationConverter();
+    }
+
+    @Benchmark
+    public Jwt decodeAndVerify() {
+        return decoder.decode(token);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken convertRoles() {
+        return authenticationConverter.convert(jwt);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Mints RS256 access tokens shaped like the ones Keycloak issues for
+ * {@code eshop-realm}, and a decoder that verifies them the way the services do.
+ */
+final class Tokens {
+
+    static final String ISSUER = "http://localhost:9090/realms/eshop-realm";
+    private static final List<String> DEFAULT_ROLES =
+            List.of("offline_access", "uma_authorization", "default-roles-eshop-realm");
+
+    private final KeyPair keyPair;
+
+    Tokens() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            this.keyPair = generator.generateKeyPair();
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * @param role {@code CLIENT} or {@code ADMIN}, added to Keycloak's default realm roles
+     */
+    String mint(String username, String role) {
+        Instant now = Instant.now();
+        List<String> roles = new ArrayList<>(DEFAULT_ROLES);
+        roles.add(role);
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(UUID.randomUUID().toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plusSeconds(3600)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("typ", "Bearer")
+                .claim("azp", "eshop-frontend")
+                .claim("sid", UUID.randomUUID().toString())
+                .claim("acr", "1")
+                .claim("allowed-origins", List.of("http://localhost:3000"))
+                .claim("realm_access", Map.of("roles", roles))
+                .claim("resource_access", Map.of("account",
+                        Map.of("roles", List.of("manage-account", "manage-account-links", "view-profile"))))
+                .claim("scope", "openid profile email")
+                .claim("email_verified", true)
+                .claim("name", "Bench User")
+                .claim("preferred_username", username)
+                .claim("given_name", "Bench")
+                .claim("family_name", "User")
+                .claim("email", username + "@example.com")
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("bench").build(), claims);
+            jwt.sign(new RSASSASigner(keyPair.getPrivate()));
+            return jwt.serialize();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Signature, expiry and issuer checks, as configured through {@code issuer-uri}.
+     */
+    JwtDecoder decoder() {
+        NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey((RSAPublicKey) keyPair.getPublic()).build();
+        decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+        return decoder;
+    }
+}
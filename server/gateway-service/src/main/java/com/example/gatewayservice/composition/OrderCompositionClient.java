@@ -0,0 +1,107 @@
+package com.example.gatewayservice.composition;
+
+import com.example.gatewayservice.sharding.OrderShardRouter;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Backend calls made by {@link OrderDetailsHandler}. Requests go through the
+ * same instance pools (and outlier detection) as the proxied routes, or to the
+ * owning shard when orders are sharded, and carry the caller's token so each
+ * service enforces its own authorization rules.
+ */
+public class OrderCompositionClient {
+
+    static final String ORDER_SERVICE = "order-service";
+    static final String PRODUCT_SERVICE = "product-service";
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> JSON_LIST =
+            new ParameterizedTypeReference<>() {};
+
+    private final LoadBalancerClient loadBalancer;
+    private final OrderShardRouter shardRouter;
+    private final RestClient orderClient;
+    private final RestClient productClient;
+
+    /**
+     * @param shardRouter shard router, or {@code null} when orders are not sharded
+     */
+    public OrderCompositionClient(LoadBalancerClient loadBalancer, OrderShardRouter shardRouter,
+                                  RestClient orderClient, RestClient productClient) {
+        this.loadBalancer = loadBalancer;
+        this.shardRouter = shardRouter;
+        this.orderClient = orderClient;
+        this.productClient = productClient;
+    }
+
+    public List<Map<String, Object>> myOrders(String userId, String authorization) {
+        if (shardRouter != null) {
+            return myOrders(shardRouter.shardFor(userId).getUri(), authorization);
+        }
+        return execute(ORDER_SERVICE, baseUri -> myOrders(baseUri, authorization));
+    }
+
+    public List<Map<String, Object>> productsByIds(Collection<String> ids, String authorization) {
+        return execute(PRODUCT_SERVICE, baseUri -> {
+            List<Map<String, Object>> products = productClient.get()
+                    .uri(baseUri + "/api/products/batch?ids={ids}", String.join(",", ids))
+                    .header(HttpHeaders.AUTHORIZATION, authorization)
+                    .retrieve()
+                    .body(JSON_LIST);
+            return products != null ? products : List.of();
+        });
+    }
+
+    private List<Map<String, Object>> myOrders(URI baseUri, String authorization) {
+        List<Map<String, Object>> orders = orderClient.get()
+                .uri(baseUri + "/api/orders/my-orders")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .body(JSON_LIST);
+        return orders != null ? orders : List.of();
+    }
+
+    /**
+     * Runs a call against one instance chosen by the load balancer, so the
+     * call is counted in the instance statistics like proxied traffic.
+     * A 4xx is the caller's fault, not the instance's: it is carried out of
+     * the load balancer as a result and only thrown afterwards, so it never
+     * counts towards outlier ejection.
+     */
+    private <T> T execute(String serviceId, Call<T> call) {
+        Outcome<T> outcome;
+        try {
+            outcome = loadBalancer.execute(serviceId, instance -> {
+                try {
+                    return new Outcome<>(call.apply(instance.getUri()), null);
+                } catch (HttpClientErrorException ex) {
+                    return new Outcome<>(null, ex);
+                }
+            });
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (outcome.clientError() != null) {
+            throw outcome.clientError();
+        }
+        return outcome.value();
+    }
+
+    private record Outcome<T>(T value, HttpClientErrorException clientError) {
+    }
+
+    @FunctionalInterface
+    private interface Call<T> {
+        T apply(URI baseUri);
+    }
+}
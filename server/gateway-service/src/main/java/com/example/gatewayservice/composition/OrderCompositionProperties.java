@@ -0,0 +1,60 @@
+package com.example.gatewayservice.composition;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the order-details composition endpoint, which joins a user's
+ * orders with product names and descriptions inside the gateway.
+ */
+@ConfigurationProperties(prefix = "gateway.composition")
+public class OrderCompositionProperties {
+
+    /** Deadline for the order-service call; the request fails when it is missed. */
+    private Duration orderTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Deadline for each product batch call. A missed deadline only leaves the
+     * affected items without product details.
+     */
+    private Duration productTimeout = Duration.ofSeconds(1);
+
+    /** Maximum product IDs per batch call to product-service. */
+    private int batchSize = 100;
+
+    /** Threads shared by all in-flight compositions. */
+    private int parallelism = 16;
+
+    public Duration getOrderTimeout() {
+        return orderTimeout;
+    }
+
+    public void setOrderTimeout(Duration orderTimeout) {
+        this.orderTimeout = orderTimeout;
+    }
+
+    public Duration getProductTimeout() {
+        return productTimeout;
+    }
+
+    public void setProductTimeout(Duration productTimeout) {
+        this.productTimeout = productTimeout;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+}
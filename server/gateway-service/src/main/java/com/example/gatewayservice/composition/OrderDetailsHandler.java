@@ -0,0 +1,151 @@
+package com.example.gatewayservice.composition;
+
+import io.micrometer.context.ContextExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Serves {@code GET /api/order-details/my-orders}: the caller's orders with
+ * {@code productName} and {@code productDescription} added to every item, so
+ * an order page needs one round trip instead of one per product.
+ * <p>
+ * Product IDs are deduplicated across all orders and resolved with batch calls
+ * to product-service, issued in parallel. Each backend call has its own
+ * deadline. If product details cannot be fetched, the orders are still
+ * returned without them and the response carries
+ * {@code X-Failed-Dependencies: product-service}.
+ */
+public class OrderDetailsHandler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderDetailsHandler.class);
+
+    static final String FAILED_DEPENDENCIES_HEADER = "X-Failed-Dependencies";
+
+    private final OrderCompositionClient client;
+    private final OrderCompositionProperties properties;
+    private final ExecutorService executor;
+
+    public OrderDetailsHandler(OrderCompositionClient client, OrderCompositionProperties properties) {
+        this.client = client;
+        this.properties = properties;
+        // Backend calls join the request's trace
+        this.executor = ContextExecutorService.wrap(Executors.newFixedThreadPool(properties.getParallelism()));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public ServerResponse myOrders(ServerRequest request) {
+        String userId = request.principal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> ((JwtAuthenticationToken) principal).getToken().getSubject())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing JWT subject"));
+        String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+
+        List<Map<String, Object>> orders = fetchOrders(userId, authorization);
+
+        Set<String> productIds = new LinkedHashSet<>();
+        for (Map<String, Object> order : orders) {
+            for (Map<String, Object> item : items(order)) {
+                Object productId = item.get("productId");
+                if (productId != null) {
+                    productIds.add(productId.toString());
+                }
+            }
+        }
+
+        Map<String, Map<String, Object>> products = new HashMap<>();
+        boolean productsComplete = fetchProducts(productIds, authorization, products);
+
+        for (Map<String, Object> order : orders) {
+            for (Map<String, Object> item : items(order)) {
+                Map<String, Object> product = products.get(String.valueOf(item.get("productId")));
+                if (product != null) {
+                    item.put("productName", product.get("name"));
+                    item.put("productDescription", product.get("description"));
+                }
+            }
+        }
+
+        ServerResponse.BodyBuilder response = ServerResponse.ok();
+        if (!productsComplete) {
+            response.header(FAILED_DEPENDENCIES_HEADER, OrderCompositionClient.PRODUCT_SERVICE);
+        }
+        return response.body(orders);
+    }
+
+    private List<Map<String, Object>> fetchOrders(String userId, String authorization) {
+        try {
+            return CompletableFuture.supplyAsync(() -> client.myOrders(userId, authorization), executor)
+                    .orTimeout(properties.getOrderTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof HttpClientErrorException clientError) {
+                throw new ResponseStatusException(clientError.getStatusCode(), clientError.getStatusText());
+            }
+            if (ex.getCause() instanceof TimeoutException) {
+                throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "order-service did not answer in time");
+            }
+            logger.error("Order lookup for composition failed: {}", ex.getCause().getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "order-service unavailable");
+        }
+    }
+
+    /**
+     * Resolves the IDs in parallel batches into {@code into}.
+     * @return {@code false} if any batch failed or missed its deadline
+     */
+    private boolean fetchProducts(Set<String> productIds, String authorization,
+                                  Map<String, Map<String, Object>> into) {
+        List<String> ids = new ArrayList<>(productIds);
+        int batchSize = Math.max(properties.getBatchSize(), 1);
+        List<CompletableFuture<List<Map<String, Object>>>> batches = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<String> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            batches.add(CompletableFuture.supplyAsync(() -> client.productsByIds(batch, authorization), executor)
+                    .orTimeout(properties.getProductTimeout().toMillis(), TimeUnit.MILLISECONDS));
+        }
+
+        boolean complete = true;
+        for (CompletableFuture<List<Map<String, Object>>> batch : batches) {
+            try {
+                for (Map<String, Object> product : batch.join()) {
+                    into.put(String.valueOf(product.get("id")), product);
+                }
+            } catch (CompletionException ex) {
+                logger.warn("Product batch for order composition failed: {}", ex.getCause().toString());
+                complete = false;
+            }
+        }
+        return complete;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> items(Map<String, Object> order) {
+        Object items = order.get("items");
+        return items instanceof List<?> list ? (List<Map<String, Object>>) list : List.of();
+    }
+}
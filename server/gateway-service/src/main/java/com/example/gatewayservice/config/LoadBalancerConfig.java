@@ -0,0 +1,16 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.loadbalancer.BackendLoadBalancerConfiguration;
+import com.example.gatewayservice.loadbalancer.BackendLoadBalancerProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies health-aware, load-based instance selection to every {@code lb://} route.
+ */
+@Configuration
+@EnableConfigurationProperties(BackendLoadBalancerProperties.class)
+@LoadBalancerClients(defaultConfiguration = BackendLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+}
@@ -0,0 +1,65 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.composition.OrderCompositionClient;
+import com.example.gatewayservice.composition.OrderCompositionProperties;
+import com.example.gatewayservice.composition.OrderDetailsHandler;
+import com.example.gatewayservice.sharding.OrderShardRouter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.http.client.ClientHttpRequestFactoryBuilder;
+import org.springframework.boot.http.client.ClientHttpRequestFactorySettings;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.Duration;
+
+import static org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctions.route;
+
+/**
+ * Composition endpoints served by the gateway itself rather than proxied:
+ * {@code GET /api/order-details/my-orders} joins the caller's orders with
+ * product details.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderCompositionProperties.class)
+public class OrderCompositionConfig {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofMillis(500);
+
+    @Bean
+    public OrderCompositionClient orderCompositionClient(LoadBalancerClient loadBalancerClient,
+                                                         ObjectProvider<OrderShardRouter> shardRouter,
+                                                         RestClient.Builder builder,
+                                                         OrderCompositionProperties properties) {
+        // Read timeouts match the call deadlines so an abandoned call frees its thread
+        return new OrderCompositionClient(loadBalancerClient, shardRouter.getIfAvailable(),
+                withReadTimeout(builder, properties.getOrderTimeout()),
+                withReadTimeout(builder, properties.getProductTimeout()));
+    }
+
+    @Bean
+    public OrderDetailsHandler orderDetailsHandler(OrderCompositionClient client,
+                                                   OrderCompositionProperties properties) {
+        return new OrderDetailsHandler(client, properties);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> orderCompositionRoutes(OrderDetailsHandler orderDetailsHandler) {
+        return route("order-details")
+                .GET("/api/order-details/my-orders", orderDetailsHandler::myOrders)
+                .build();
+    }
+
+    private static RestClient withReadTimeout(RestClient.Builder builder, Duration readTimeout) {
+        ClientHttpRequestFactorySettings settings = ClientHttpRequestFactorySettings.defaults()
+                .withConnectTimeout(CONNECT_TIMEOUT)
+                .withReadTimeout(readTimeout);
+        return builder.clone()
+                .requestFactory(ClientHttpRequestFactoryBuilder.detect().build(settings))
+                .build();
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.sharding.OrderScatterGatherHandler;
+import com.example.gatewayservice.sharding.OrderShardClient;
+import com.example.gatewayservice.sharding.OrderShardProperties;
+import com.example.gatewayservice.sharding.OrderShardRouter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import static org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctions.route;
+import static org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions.http;
+import static org.springframework.web.servlet.function.RequestPredicates.path;
+
+/**
+ * Routes {@code /api/orders/**} to the order-service shard owning the caller
+ * (consistent hash of the JWT subject) and serves the admin listing by
+ * scatter-gather across all shards. Takes precedence over the
+ * {@code order-service} route in application.yml while enabled.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderShardProperties.class)
+@ConditionalOnProperty(prefix = "gateway.order-shards", name = "enabled", havingValue = "true")
+public class OrderShardingConfig {
+
+    @Bean
+    public OrderShardRouter orderShardRouter(OrderShardProperties properties) {
+        return new OrderShardRouter(properties);
+    }
+
+    @Bean
+    public OrderShardClient orderShardClient(RestClient.Builder builder) {
+        return new OrderShardClient(builder.build());
+    }
+
+    @Bean
+    public OrderScatterGatherHandler orderScatterGatherHandler(OrderShardRouter router,
+                                                               OrderShardClient client,
+                                                               OrderShardProperties properties) {
+        return new OrderScatterGatherHandler(router, client, Math.max(properties.getShards().size(), 1) * 4);
+    }
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public RouterFunction<ServerResponse> orderShardRoutes(OrderShardRouter router,
+                                                           OrderScatterGatherHandler scatterGather) {
+        RouterFunction<ServerResponse> adminListing = route("order-shards-all")
+                .GET("/api/orders", scatterGather::listAll)
+                .build();
+        RouterFunction<ServerResponse> userRouted = route("order-shards")
+                .route(path("/api/orders/**"), http())
+                .before(router::routeToShard)
+                .build();
+        return adminListing.and(userRouted);
+    }
+}
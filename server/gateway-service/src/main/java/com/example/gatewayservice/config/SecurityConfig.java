@@ -30,7 +30,8 @@ public class SecurityConfig {
      * Configures the security filter chain for the API Gateway.
      * - Enables CORS for frontend communication
      * - Disables CSRF as we use stateless JWT authentication
-     * - Permits public access to Swagger documentation
+     * - Permits public access to Swagger documentation, health and the Prometheus scrape endpoint
+     * - Restricts configuration refresh (backend pool changes) and admin tooling to ADMIN users
      * - Requires authentication for all other endpoints
      * - Configures JWT validation with Keycloak role mapping
      */
@@ -44,8 +45,11 @@ public class SecurityConfig {
                                 "/swagger-ui.html",
                                 "/swagger-ui/**",
                                 "/v3/api-docs/**",
-                                "/*/v3/api-docs/**"
+                                "/*/v3/api-docs/**",
+                                "/actuator/health/**",
+                                "/actuator/prometheus"
                         ).permitAll()
+                        .requestMatchers("/actuator/refresh", "/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -63,7 +67,8 @@ public class SecurityConfig {
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
         configuration.setAllowCredentials(true);
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "X-Total-Count", "X-Next-Cursor",
+                "X-Failed-Shards", "X-Failed-Dependencies"));
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
@@ -0,0 +1,28 @@
+package com.example.gatewayservice.config;
+
+import com.example.gatewayservice.tracing.FileSpanExporter;
+import com.example.gatewayservice.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Traces start here: the server observation of a client request becomes the
+ * root span, and the sampling decision made for it is carried downstream in
+ * the {@code traceparent} header of proxied and composed calls. Calls that
+ * already carry one, such as order-service's product lookups, stay in their
+ * caller's trace.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tracing.file", name = "enabled", havingValue = "true")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties) throws IOException {
+        return new FileSpanExporter(properties.getFile().getPath());
+    }
+}
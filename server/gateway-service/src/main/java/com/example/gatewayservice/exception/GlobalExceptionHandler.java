@@ -4,10 +4,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
@@ -18,19 +20,40 @@ public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    /**
+     * Keeps the status chosen by the handler (e.g. 502 or 504 from the
+     * composition handler), which would otherwise become a 500 below.
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<Object> handleResponseStatusException(ResponseStatusException ex, WebRequest request) {
+        String userId = MDC.get("userId");
+        HttpStatusCode status = ex.getStatusCode();
+        if (status.is5xxServerError()) {
+            logger.error("ERROR_LOG | User: {} | Status: {} | Message: {}", userId, status.value(), ex.getReason());
+        } else {
+            logger.warn("CLIENT_ERROR | User: {} | Status: {} | Message: {}", userId, status.value(), ex.getReason());
+        }
+        return body(status, ex.getReason(), request);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleAllExceptions(Exception ex, WebRequest request) {
         String userId = MDC.get("userId"); // Should have been set by LoggingFilter
         
         logger.error("ERROR_LOG | User: {} | Message: {}", userId, ex.getMessage(), ex);
 
+        return body(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage(), request);
+    }
+
+    private static ResponseEntity<Object> body(HttpStatusCode status, String message, WebRequest request) {
+        HttpStatus known = HttpStatus.resolve(status.value());
         Map<String, Object> body = new HashMap<>();
         body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.INTERNAL_SERVER_ERROR.value());
-        body.put("error", "Internal Server Error");
-        body.put("message", ex.getMessage());
+        body.put("status", status.value());
+        body.put("error", known != null ? known.getReasonPhrase() : String.valueOf(status.value()));
+        body.put("message", message);
         body.put("path", request.getDescription(false));
 
-        return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
+        return new ResponseEntity<>(body, status);
     }
 }
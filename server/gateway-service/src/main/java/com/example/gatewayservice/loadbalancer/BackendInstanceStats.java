@@ -0,0 +1,196 @@
+package com.example.gatewayservice.loadbalancer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Live per-instance load and health signals shared by all backend pools.
+ * Fed by {@link BackendStatsLifecycle} and read by {@link LeastLoadedLoadBalancer}.
+ * An instance that leaves its pool is forgotten, gauges included, once its
+ * last request in flight has finished.
+ */
+@Component
+public class BackendInstanceStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackendInstanceStats.class);
+
+    /** Weight of the newest sample in the latency moving average. */
+    private static final double EWMA_ALPHA = 0.2;
+
+    private final Map<String, InstanceState> states = new ConcurrentHashMap<>();
+    private final Map<String, List<ServiceInstance>> pools = new ConcurrentHashMap<>();
+    private final BackendLoadBalancerProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public BackendInstanceStats(BackendLoadBalancerProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public InstanceState get(ServiceInstance instance) {
+        InstanceState state = states.computeIfAbsent(key(instance), k -> register(instance));
+        if (state.retired) {
+            // Back in the pool before its last request finished
+            state.retired = false;
+        }
+        return state;
+    }
+
+    /**
+     * Remembers the latest healthy pool of a service so outlier detection can
+     * honour {@code max-ejection-percent}, and forgets the instances that
+     * left it.
+     */
+    public void updatePool(String serviceId, List<ServiceInstance> instances) {
+        List<ServiceInstance> previous = pools.put(serviceId, instances);
+        if (previous != null && !previous.equals(instances)) {
+            retireMissing(serviceId, instances);
+        }
+    }
+
+    private void retireMissing(String serviceId, List<ServiceInstance> instances) {
+        Set<String> current = new HashSet<>();
+        for (ServiceInstance instance : instances) {
+            current.add(key(instance));
+        }
+        states.forEach((key, state) -> {
+            if (state.serviceId.equals(serviceId) && !current.contains(key)) {
+                state.retired = true;
+                removeIfIdle(key, state);
+            }
+        });
+    }
+
+    private void removeIfIdle(String key, InstanceState state) {
+        if (state.retired && state.inFlight.get() == 0 && states.remove(key, state)) {
+            state.meters.forEach(meterRegistry::remove);
+            logger.info("Forgot backend {}, which left its pool", key);
+        }
+    }
+
+    public void requestStarted(ServiceInstance instance) {
+        get(instance).inFlight.incrementAndGet();
+    }
+
+    public void requestFinished(ServiceInstance instance, long durationNanos, boolean failed) {
+        String key = key(instance);
+        InstanceState state = states.get(key);
+        if (state == null) {
+            state = get(instance);
+        }
+        // Never below zero: the instance may have been forgotten and seen again meanwhile
+        state.inFlight.updateAndGet(inFlight -> Math.max(inFlight - 1, 0));
+        state.recordLatency(durationNanos / 1_000_000.0);
+        if (state.retired) {
+            removeIfIdle(key, state);
+            return;
+        }
+
+        if (!failed) {
+            state.consecutiveFailures.set(0);
+            return;
+        }
+
+        BackendLoadBalancerProperties.OutlierDetection outlier = properties.getOutlierDetection();
+        if (state.consecutiveFailures.incrementAndGet() >= outlier.getConsecutiveFailures()
+                && canEject(instance.getServiceId())) {
+            state.eject(outlier);
+            logger.warn("Ejected backend {} after {} consecutive failures (ejection #{})",
+                    key(instance), state.consecutiveFailures.get(), state.ejectionCount);
+            state.consecutiveFailures.set(0);
+        }
+    }
+
+    public boolean isEjected(ServiceInstance instance) {
+        return get(instance).isEjected();
+    }
+
+    private boolean canEject(String serviceId) {
+        List<ServiceInstance> pool = pools.get(serviceId);
+        if (pool == null || pool.isEmpty()) {
+            return false;
+        }
+        long ejected = pool.stream().filter(this::isEjected).count();
+        return (ejected + 1) * 100 <= (long) pool.size() * properties.getOutlierDetection().getMaxEjectionPercent();
+    }
+
+    private InstanceState register(ServiceInstance instance) {
+        InstanceState state = new InstanceState(instance.getServiceId());
+        String instanceTag = instance.getHost() + ":" + instance.getPort();
+        state.meters.add(Gauge.builder("gateway.backend.inflight", state.inFlight, AtomicInteger::get)
+                .description("Requests currently proxied to the backend instance")
+                .tag("serviceId", instance.getServiceId())
+                .tag("instance", instanceTag)
+                .register(meterRegistry));
+        state.meters.add(Gauge.builder("gateway.backend.latency.ewma", state, InstanceState::getLatencyEwmaMillis)
+                .description("Exponentially weighted moving average of backend latency")
+                .baseUnit("milliseconds")
+                .tag("serviceId", instance.getServiceId())
+                .tag("instance", instanceTag)
+                .register(meterRegistry));
+        state.meters.add(Gauge.builder("gateway.backend.ejected", state, s -> s.isEjected() ? 1 : 0)
+                .description("1 while the instance is ejected by outlier detection")
+                .tag("serviceId", instance.getServiceId())
+                .tag("instance", instanceTag)
+                .register(meterRegistry));
+        return state;
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getServiceId() + "@" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    public static class InstanceState {
+        private final String serviceId;
+        private final List<Meter> meters = new ArrayList<>(3);
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile double latencyEwmaMillis;
+        private volatile long ejectedUntilNanos;
+        private volatile int ejectionCount;
+        /** Left its pool; forgotten once idle. */
+        private volatile boolean retired;
+
+        private InstanceState(String serviceId) {
+            this.serviceId = serviceId;
+        }
+
+        public int getInFlight() {
+            return inFlight.get();
+        }
+
+        public double getLatencyEwmaMillis() {
+            return latencyEwmaMillis;
+        }
+
+        public boolean isEjected() {
+            return ejectedUntilNanos != 0 && System.nanoTime() - ejectedUntilNanos < 0;
+        }
+
+        private void recordLatency(double millis) {
+            double current = latencyEwmaMillis;
+            latencyEwmaMillis = current == 0 ? millis : current + EWMA_ALPHA * (millis - current);
+        }
+
+        private synchronized void eject(BackendLoadBalancerProperties.OutlierDetection outlier) {
+            ejectionCount++;
+            long base = outlier.getBaseEjectionTime().toNanos();
+            long max = outlier.getMaxEjectionTime().toNanos();
+            long ejectionNanos = Math.min(max, base << Math.min(ejectionCount - 1, 16));
+            ejectedUntilNanos = System.nanoTime() + ejectionNanos;
+        }
+    }
+}
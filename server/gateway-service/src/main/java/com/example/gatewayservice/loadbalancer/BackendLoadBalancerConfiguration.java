@@ -0,0 +1,41 @@
+package com.example.gatewayservice.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Per-pool load balancer beans, instantiated once per service id in the child
+ * context created by the {@link LoadBalancerClientFactory}.
+ * Deliberately not annotated with {@code @Configuration} so that component
+ * scanning does not register these beans in the main application context.
+ */
+public class BackendLoadBalancerConfiguration {
+
+    /**
+     * Instances come from the (refreshable) discovery configuration and are
+     * filtered through periodic active health checks against {@code /actuator/health}.
+     */
+    @Bean
+    public ServiceInstanceListSupplier serviceInstanceListSupplier(ConfigurableApplicationContext context) {
+        return ServiceInstanceListSupplier.builder()
+                .withBlockingDiscoveryClient()
+                .withBlockingHealthChecks(RestClient.create())
+                .build(context);
+    }
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> leastLoadedLoadBalancer(Environment environment,
+                                                                       ObjectProvider<ServiceInstanceListSupplier> suppliers,
+                                                                       BackendInstanceStats stats,
+                                                                       BackendLoadBalancerProperties properties) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LeastLoadedLoadBalancer(suppliers, serviceId, stats, properties);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.gatewayservice.loadbalancer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for choosing between the instances of a backend service pool.
+ * The pool members themselves come from
+ * {@code spring.cloud.discovery.client.simple.instances.<service-id>}.
+ */
+@ConfigurationProperties(prefix = "gateway.load-balancer")
+public class BackendLoadBalancerProperties {
+
+    /**
+     * Instance selection strategy applied to the healthy, non-ejected instances.
+     */
+    private Strategy strategy = Strategy.POWER_OF_TWO_CHOICES;
+
+    private final OutlierDetection outlierDetection = new OutlierDetection();
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public void setStrategy(Strategy strategy) {
+        this.strategy = strategy;
+    }
+
+    public OutlierDetection getOutlierDetection() {
+        return outlierDetection;
+    }
+
+    public enum Strategy {
+        /** Scan every instance and pick the one with the fewest in-flight requests. */
+        LEAST_OUTSTANDING_REQUESTS,
+        /** Sample two random instances and pick the less loaded one. */
+        POWER_OF_TWO_CHOICES
+    }
+
+    /**
+     * Passive health checking: instances that keep failing real traffic are
+     * taken out of rotation without waiting for the next active health check.
+     */
+    public static class OutlierDetection {
+
+        /** Consecutive failed or 5xx responses before an instance is ejected. */
+        private int consecutiveFailures = 5;
+
+        /** Ejection time for the first ejection; doubles on each repeat ejection. */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+        /** Upper bound for the doubled ejection time. */
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+        /** Never eject more than this share of a pool at once. */
+        private int maxEjectionPercent = 50;
+
+        public int getConsecutiveFailures() {
+            return consecutiveFailures;
+        }
+
+        public void setConsecutiveFailures(int consecutiveFailures) {
+            this.consecutiveFailures = consecutiveFailures;
+        }
+
+        public Duration getBaseEjectionTime() {
+            return baseEjectionTime;
+        }
+
+        public void setBaseEjectionTime(Duration baseEjectionTime) {
+            this.baseEjectionTime = baseEjectionTime;
+        }
+
+        public Duration getMaxEjectionTime() {
+            return maxEjectionTime;
+        }
+
+        public void setMaxEjectionTime(Duration maxEjectionTime) {
+            this.maxEjectionTime = maxEjectionTime;
+        }
+
+        public int getMaxEjectionPercent() {
+            return maxEjectionPercent;
+        }
+
+        public void setMaxEjectionPercent(int maxEjectionPercent) {
+            this.maxEjectionPercent = maxEjectionPercent;
+        }
+    }
+}
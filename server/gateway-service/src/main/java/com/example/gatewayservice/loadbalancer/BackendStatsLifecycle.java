@@ -0,0 +1,78 @@
+package com.example.gatewayservice.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.ServerResponse;
+
+/**
+ * Tracks in-flight requests, latency and failures for every proxied call so
+ * that {@link LeastLoadedLoadBalancer} can see current load and eject outliers.
+ * Picked up by every load-balanced route through the client factory's parent context.
+ */
+@Component
+public class BackendStatsLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final BackendInstanceStats stats;
+
+    public BackendStatsLifecycle(BackendInstanceStats stats) {
+        this.stats = stats;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+        // Nothing to do until an instance has been chosen
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        if (request != null && request.getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() == 0) {
+            timed.setRequestStartTime(System.nanoTime());
+        }
+        stats.requestStarted(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || completionContext.getLoadBalancerResponse() == null
+                || !completionContext.getLoadBalancerResponse().hasServer()) {
+            return;
+        }
+        ServiceInstance instance = completionContext.getLoadBalancerResponse().getServer();
+
+        long duration = 0;
+        Request<Object> lbRequest = completionContext.getLoadBalancerRequest();
+        if (lbRequest != null && lbRequest.getContext() instanceof TimedRequestContext timed
+                && timed.getRequestStartTime() != 0) {
+            duration = System.nanoTime() - timed.getRequestStartTime();
+        }
+
+        stats.requestFinished(instance, duration, isFailure(completionContext));
+    }
+
+    private static boolean isFailure(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            return true;
+        }
+        try {
+            return completionContext.getClientResponse() instanceof ServerResponse response
+                    && response.statusCode().is5xxServerError();
+        } catch (Exception ex) {
+            return false;
+        }
+    }
+}
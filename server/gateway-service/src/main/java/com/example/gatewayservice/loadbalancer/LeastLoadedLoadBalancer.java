@@ -0,0 +1,111 @@
+package com.example.gatewayservice.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses the least loaded instance of a backend pool, either by scanning all
+ * instances (least outstanding requests) or by comparing two random ones
+ * (power of two choices). Ties are broken on the latency moving average.
+ * Instances ejected by outlier detection are skipped unless nothing else is left.
+ */
+public class LeastLoadedLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeastLoadedLoadBalancer.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final BackendInstanceStats stats;
+    private final BackendLoadBalancerProperties properties;
+
+    public LeastLoadedLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider,
+                                   String serviceId,
+                                   BackendInstanceStats stats,
+                                   BackendLoadBalancerProperties properties) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.stats = stats;
+        this.properties = properties;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    private Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        stats.updatePool(serviceId, instances);
+        if (instances.isEmpty()) {
+            logger.warn("No healthy instances available for service: {}", serviceId);
+            return new EmptyResponse();
+        }
+
+        List<ServiceInstance> candidates = new ArrayList<>(instances.size());
+        for (ServiceInstance instance : instances) {
+            if (!stats.isEjected(instance)) {
+                candidates.add(instance);
+            }
+        }
+        if (candidates.isEmpty()) {
+            // Everything is ejected: fail open rather than reject all traffic
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.get(0));
+        }
+
+        ServiceInstance chosen = properties.getStrategy() == BackendLoadBalancerProperties.Strategy.LEAST_OUTSTANDING_REQUESTS
+                ? leastOutstanding(candidates)
+                : powerOfTwoChoices(candidates);
+        return new DefaultResponse(chosen);
+    }
+
+    private ServiceInstance leastOutstanding(List<ServiceInstance> candidates) {
+        // Start from a random offset so equally loaded instances share traffic
+        int offset = ThreadLocalRandom.current().nextInt(candidates.size());
+        ServiceInstance best = candidates.get(offset);
+        for (int i = 1; i < candidates.size(); i++) {
+            ServiceInstance next = candidates.get((offset + i) % candidates.size());
+            if (isLessLoaded(next, best)) {
+                best = next;
+            }
+        }
+        return best;
+    }
+
+    private ServiceInstance powerOfTwoChoices(List<ServiceInstance> candidates) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = candidates.get(first);
+        ServiceInstance b = candidates.get(second);
+        return isLessLoaded(b, a) ? b : a;
+    }
+
+    private boolean isLessLoaded(ServiceInstance candidate, ServiceInstance current) {
+        BackendInstanceStats.InstanceState c = stats.get(candidate);
+        BackendInstanceStats.InstanceState b = stats.get(current);
+        if (c.getInFlight() != b.getInFlight()) {
+            return c.getInFlight() < b.getInFlight();
+        }
+        return c.getLatencyEwmaMillis() < b.getLatencyEwmaMillis();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.gatewayservice.sharding;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Immutable consistent-hash ring with virtual nodes.
+ * Adding or removing one of N nodes only remaps about 1/N of the keys.
+ */
+public final class ConsistentHashRing<T> {
+
+    private final NavigableMap<Long, T> ring = new TreeMap<>();
+
+    public ConsistentHashRing(Collection<T> nodes, Function<T, String> nodeName, int virtualNodes) {
+        for (T node : nodes) {
+            String name = nodeName.apply(node);
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(name + "#" + i), node);
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return ring.isEmpty();
+    }
+
+    /**
+     * Returns the node owning the key: the first virtual node clockwise from the key's hash.
+     */
+    public T nodeFor(String key) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("Hash ring has no nodes");
+        }
+        Map.Entry<Long, T> entry = ring.ceilingEntry(hash(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * 64-bit FNV-1a followed by a murmur3 finalizer for better avalanche on short keys.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.gatewayservice.sharding;
+
+import io.micrometer.context.ContextExecutorService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves the admin {@code GET /api/orders} listing when orders are sharded:
+ * queries every shard in parallel and merges the results newest first.
+ * <p>
+ * For {@code page=p&size=s} each shard is asked for its first {@code (p+1)*s}
+ * orders, which is enough to build page {@code p} of the merged order.
+ */
+public class OrderScatterGatherHandler implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderScatterGatherHandler.class);
+
+    /** Same ordering as order-service: newest first, then by ID. */
+    private static final Comparator<Map<String, Object>> NEWEST_FIRST =
+            Comparator.comparing((Map<String, Object> order) -> orderDate(order), Comparator.reverseOrder())
+                    .thenComparing(order -> Objects.toString(order.get("id"), ""));
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_MERGE_WINDOW = 10_000;
+
+    private final OrderShardRouter router;
+    private final OrderShardClient client;
+    private final ExecutorService executor;
+
+    public OrderScatterGatherHandler(OrderShardRouter router, OrderShardClient client, int parallelism) {
+        this.router = router;
+        this.client = client;
+        // Backend calls join the request's trace
+        this.executor = ContextExecutorService.wrap(Executors.newFixedThreadPool(parallelism));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public ServerResponse listAll(ServerRequest request) {
+        String authorization = request.headers().firstHeader(HttpHeaders.AUTHORIZATION);
+        Integer page = intParam(request, "page").map(p -> Math.max(p, 0)).orElse(null);
+        Integer size = intParam(request, "size").map(s -> Math.min(Math.max(s, 1), MAX_PAGE_SIZE)).orElse(null);
+        boolean paged = page != null && size != null;
+
+        // In long: a large page would overflow int and slip past the check
+        if (paged && (page + 1L) * size > MAX_MERGE_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Page too deep for a cross-shard listing (max " + MAX_MERGE_WINDOW + " orders)");
+        }
+        Integer window = paged ? (page + 1) * size : null;
+
+        Map<String, CompletableFuture<OrderShardClient.ShardPage>> calls = new LinkedHashMap<>();
+        for (OrderShardProperties.Shard shard : router.shards()) {
+            calls.put(shard.getId(), CompletableFuture.supplyAsync(
+                    () -> client.listOrders(shard, paged ? 0 : null, window, authorization), executor));
+        }
+
+        List<Map<String, Object>> merged = new ArrayList<>();
+        List<String> failedShards = new ArrayList<>();
+        long total = 0;
+        for (Map.Entry<String, CompletableFuture<OrderShardClient.ShardPage>> call : calls.entrySet()) {
+            try {
+                OrderShardClient.ShardPage shardPage = call.getValue().join();
+                merged.addAll(shardPage.orders());
+                total += shardPage.total();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof HttpClientErrorException clientError) {
+                    // 401/403 are the same on every shard: report them as-is
+                    throw new ResponseStatusException(clientError.getStatusCode(), clientError.getStatusText());
+                }
+                logger.error("Order shard {} failed during scatter-gather: {}", call.getKey(), ex.getCause().getMessage());
+                failedShards.add(call.getKey());
+            }
+        }
+
+        merged.sort(NEWEST_FIRST);
+        if (paged) {
+            int from = Math.min(page * size, merged.size());
+            merged = merged.subList(from, Math.min(from + size, merged.size()));
+        }
+
+        ServerResponse.BodyBuilder response = ServerResponse.ok()
+                .header(OrderShardClient.TOTAL_COUNT_HEADER, String.valueOf(total));
+        if (!failedShards.isEmpty()) {
+            response.header("X-Failed-Shards", String.join(",", failedShards));
+        }
+        return response.body(merged);
+    }
+
+    private static Optional<Integer> intParam(ServerRequest request, String name) {
+        try {
+            return request.param(name).map(Integer::valueOf);
+        } catch (NumberFormatException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Parameter '" + name + "' must be an integer");
+        }
+    }
+
+    private static LocalDateTime orderDate(Map<String, Object> order) {
+        Object value = order.get("orderDate");
+        return value != null ? LocalDateTime.parse(value.toString()) : LocalDateTime.MIN;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.gatewayservice.sharding;
+
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Direct calls to individual order-service shards, forwarding the caller's token
+ * so that each shard enforces its own authorization rules.
+ * Orders are kept as generic JSON maps; the gateway never interprets them beyond sorting.
+ */
+public class OrderShardClient {
+
+    static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private static final ParameterizedTypeReference<List<Map<String, Object>>> ORDER_LIST =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<Map<String, Number>> COUNT_RESULT =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestClient restClient;
+
+    public OrderShardClient(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    public ShardPage listOrders(OrderShardProperties.Shard shard, Integer page, Integer size, String authorization) {
+        ResponseEntity<List<Map<String, Object>>> response = restClient.get()
+                .uri(shard.getUri() + "/api/orders" + (page != null && size != null
+                        ? "?page=" + page + "&size=" + size : ""))
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .toEntity(ORDER_LIST);
+        List<Map<String, Object>> orders = response.getBody() != null ? response.getBody() : List.of();
+        String total = response.getHeaders().getFirst(TOTAL_COUNT_HEADER);
+        return new ShardPage(orders, total != null ? Long.parseLong(total) : orders.size());
+    }
+
+    public List<Map<String, Object>> userOrders(OrderShardProperties.Shard shard, String userId, String authorization) {
+        List<Map<String, Object>> orders = restClient.get()
+                .uri(shard.getUri() + "/api/orders/users/{userId}", userId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .retrieve()
+                .body(ORDER_LIST);
+        return orders != null ? orders : List.of();
+    }
+
+    public int importOrders(OrderShardProperties.Shard shard, List<Map<String, Object>> orders, String authorization) {
+        Map<String, Number> result = restClient.post()
+                .uri(shard.getUri() + "/api/orders/import")
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .body(orders)
+                .retrieve()
+                .body(COUNT_RESULT);
+        return result != null && result.get("imported") != null ? result.get("imported").intValue() : 0;
+    }
+
+    public long deleteUserOrders(OrderShardProperties.Shard shard, String userId, List<String> orderIds,
+                                 String authorization) {
+        Map<String, Number> result = restClient.method(HttpMethod.DELETE)
+                .uri(shard.getUri() + "/api/orders/users/{userId}", userId)
+                .header(HttpHeaders.AUTHORIZATION, authorization)
+                .body(orderIds)
+                .retrieve()
+                .body(COUNT_RESULT);
+        return result != null && result.get("deleted") != null ? result.get("deleted").longValue() : 0;
+    }
+
+    public record ShardPage(List<Map<String, Object>> orders, long total) {
+    }
+}
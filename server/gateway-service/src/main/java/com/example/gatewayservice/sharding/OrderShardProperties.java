@@ -0,0 +1,75 @@
+package com.example.gatewayservice.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order-service shards. Each shard is a separate order-service deployment
+ * with its own database; users are assigned to shards by consistent hashing
+ * of their JWT subject.
+ */
+@ConfigurationProperties(prefix = "gateway.order-shards")
+public class OrderShardProperties {
+
+    /** Route /api/orders/** by user instead of through the order-service pool. */
+    private boolean enabled = false;
+
+    /** Points per shard on the hash ring; more points give a more even spread. */
+    private int virtualNodes = 160;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    public static class Shard {
+
+        /**
+         * Stable shard name. Ring positions derive from it, so renaming a
+         * shard moves its users; changing only the URI does not.
+         */
+        private String id;
+
+        private URI uri;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        public URI getUri() {
+            return uri;
+        }
+
+        public void setUri(URI uri) {
+            this.uri = uri;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.gatewayservice.sharding;
+
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.function.ServerRequest;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Maps users to order-service shards and points proxied requests at the owning shard.
+ * The ring is rebuilt lazily: each lookup compares the bound shard list with the
+ * one the ring was built from. Listening for the refresh event instead would race
+ * the properties rebinder, which handles the same event and may not have run yet.
+ */
+public class OrderShardRouter {
+
+    private final OrderShardProperties properties;
+    private volatile RingState state;
+
+    public OrderShardRouter(OrderShardProperties properties) {
+        this.properties = properties;
+        this.state = build(Layout.of(properties));
+    }
+
+    public OrderShardProperties.Shard shardFor(String userId) {
+        return currentRing().nodeFor(userId);
+    }
+
+    public List<OrderShardProperties.Shard> shards() {
+        return List.copyOf(properties.getShards());
+    }
+
+    /**
+     * Gateway "before" filter: sets the proxy target to the shard owning the caller.
+     */
+    public ServerRequest routeToShard(ServerRequest request) {
+        String userId = currentUserId();
+        if (userId == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Missing JWT subject for order routing");
+        }
+        MvcUtils.setRequestUrl(request, shardFor(userId).getUri());
+        return request;
+    }
+
+    private ConsistentHashRing<OrderShardProperties.Shard> currentRing() {
+        RingState current = state;
+        Layout layout = Layout.of(properties);
+        if (!current.layout().equals(layout)) {
+            current = build(layout);
+            state = current;
+        }
+        return current.ring();
+    }
+
+    private static RingState build(Layout layout) {
+        List<OrderShardProperties.Shard> shards = layout.shards().stream().map(ShardSnapshot::toShard).toList();
+        return new RingState(layout, new ConsistentHashRing<>(shards, OrderShardProperties.Shard::getId,
+                layout.virtualNodes()));
+    }
+
+    private static String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt.getSubject();
+        }
+        return null;
+    }
+
+    private record RingState(Layout layout, ConsistentHashRing<OrderShardProperties.Shard> ring) {
+    }
+
+    /**
+     * Value copy of the ring inputs, so in-place changes to the bound properties are detected too.
+     */
+    private record Layout(List<ShardSnapshot> shards, int virtualNodes) {
+
+        static Layout of(OrderShardProperties properties) {
+            return new Layout(properties.getShards().stream().map(ShardSnapshot::of).toList(),
+                    properties.getVirtualNodes());
+        }
+    }
+
+    private record ShardSnapshot(String id, URI uri) {
+
+        static ShardSnapshot of(OrderShardProperties.Shard shard) {
+            return new ShardSnapshot(shard.getId(), shard.getUri());
+        }
+
+        OrderShardProperties.Shard toShard() {
+            OrderShardProperties.Shard shard = new OrderShardProperties.Shard();
+            shard.setId(id);
+            shard.setUri(uri);
+            return shard;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.gatewayservice.sharding;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin tooling for order shards. After the shard list changes, each user
+ * whose ring position moved can be migrated to the shard that now owns them.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "gateway.order-shards", name = "enabled", havingValue = "true")
+@RequestMapping("/api/admin/order-shards")
+public class ShardRebalanceController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardRebalanceController.class);
+
+    private final OrderShardRouter router;
+    private final OrderShardClient client;
+
+    public ShardRebalanceController(OrderShardRouter router, OrderShardClient client) {
+        this.router = router;
+        this.client = client;
+    }
+
+    /**
+     * Shows which shard currently owns a user.
+     * @param userId JWT subject of the user
+     * @return Owning shard ID and URI
+     */
+    @GetMapping("/owner/{userId}")
+    public ResponseEntity<Map<String, Object>> owner(@PathVariable String userId) {
+        OrderShardProperties.Shard shard = router.shardFor(userId);
+        return ResponseEntity.ok(Map.of("userId", userId, "shard", shard.getId(), "uri", shard.getUri()));
+    }
+
+    /**
+     * Moves every order of a user from non-owning shards to the owning shard.
+     * Orders are imported before they are deleted, and imports skip existing IDs,
+     * so the call can safely be repeated after a partial failure. Only the
+     * orders read are deleted from the source; one written there meanwhile
+     * stays and is moved by the next call.
+     * @param userId JWT subject of the user
+     * @return Number of orders written to the target per source shard
+     */
+    @PostMapping("/rebalance/{userId}")
+    public ResponseEntity<Map<String, Object>> rebalance(@PathVariable String userId,
+                                                         @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        OrderShardProperties.Shard target = router.shardFor(userId);
+        Map<String, Integer> moved = new LinkedHashMap<>();
+
+        for (OrderShardProperties.Shard source : router.shards()) {
+            if (source.getId().equals(target.getId())) {
+                continue;
+            }
+            List<Map<String, Object>> orders = client.userOrders(source, userId, authorization);
+            if (orders.isEmpty()) {
+                continue;
+            }
+            int imported = client.importOrders(target, orders, authorization);
+            List<String> orderIds = orders.stream().map(order -> String.valueOf(order.get("id"))).toList();
+            client.deleteUserOrders(source, userId, orderIds, authorization);
+            moved.put(source.getId(), imported);
+            logger.info("Moved {} orders of user {} from shard {} to shard {} ({} already there)",
+                    orders.size(), userId, source.getId(), target.getId(), orders.size() - imported);
+        }
+
+        return ResponseEntity.ok(Map.of("userId", userId, "targetShard", target.getId(), "moved", moved));
+    }
+}
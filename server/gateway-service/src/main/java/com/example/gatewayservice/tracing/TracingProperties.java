@@ -0,0 +1,44 @@
+package com.example.gatewayservice.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Local span export. Sampling and OTLP export are configured with the
+ * standard {@code management.tracing.*} and {@code management.otlp.tracing.*}
+ * properties.
+ */
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+
+    private final File file = new File();
+
+    public File getFile() {
+        return file;
+    }
+
+    public static class File {
+
+        /** Append sampled spans as JSON lines to {@code path}. */
+        private boolean enabled = false;
+
+        private Path path = Path.of("traces/spans.jsonl");
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public void setPath(Path path) {
+            this.path = path;
+        }
+    }
+}
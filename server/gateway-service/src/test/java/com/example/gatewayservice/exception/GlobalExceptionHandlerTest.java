@@ -0,0 +1,105 @@
+package com.example.gatewayservice.exception;
+
+import com.example.gatewayservice.composition.OrderCompositionClient;
+import com.example.gatewayservice.composition.OrderCompositionProperties;
+import com.example.gatewayservice.composition.OrderDetailsHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class GlobalExceptionHandlerTest {
+
+    private final OrderCompositionClient client = mock(OrderCompositionClient.class);
+    private final OrderDetailsHandler handler = new OrderDetailsHandler(client, properties());
+    private final MockMvc mockMvc = MockMvcBuilders
+            .routerFunctions(RouterFunctions.route()
+                    .GET("/api/order-details/my-orders", handler::myOrders)
+                    .build())
+            .setHandlerExceptionResolvers(exceptionResolver())
+            .build();
+
+    @AfterEach
+    void shutDown() {
+        handler.destroy();
+    }
+
+    @Test
+    void backendFailureIsBadGateway() throws Exception {
+        when(client.myOrders(any(), any())).thenThrow(new IllegalStateException("connection refused"));
+
+        mockMvc.perform(myOrders())
+                .andExpect(status().isBadGateway())
+                .andExpect(jsonPath("$.status").value(502))
+                .andExpect(jsonPath("$.message").value("order-service unavailable"));
+    }
+
+    @Test
+    void slowBackendIsGatewayTimeout() throws Exception {
+        when(client.myOrders(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(1_000);
+            return List.of();
+        });
+
+        mockMvc.perform(myOrders()).andExpect(status().isGatewayTimeout());
+    }
+
+    @Test
+    void backendClientErrorIsPassedThrough() throws Exception {
+        when(client.myOrders(any(), any())).thenThrow(HttpClientErrorException.create(HttpStatus.FORBIDDEN,
+                "Forbidden", null, null, null));
+
+        mockMvc.perform(myOrders()).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void missingSubjectIsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/order-details/my-orders")).andExpect(status().isUnauthorized());
+    }
+
+    private static MockHttpServletRequestBuilder myOrders() {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("alice").build();
+        return get("/api/order-details/my-orders")
+                .principal(new JwtAuthenticationToken(jwt))
+                .header("Authorization", "Bearer token");
+    }
+
+    private static OrderCompositionProperties properties() {
+        OrderCompositionProperties properties = new OrderCompositionProperties();
+        properties.setOrderTimeout(Duration.ofMillis(200));
+        properties.setParallelism(2);
+        return properties;
+    }
+
+    private static ExceptionHandlerExceptionResolver exceptionResolver() {
+        StaticApplicationContext context = new StaticApplicationContext();
+        context.registerSingleton("globalExceptionHandler", GlobalExceptionHandler.class);
+        context.refresh();
+        ExceptionHandlerExceptionResolver resolver = new ExceptionHandlerExceptionResolver();
+        resolver.setApplicationContext(context);
+        resolver.getMessageConverters().add(
+                new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()));
+        resolver.afterPropertiesSet();
+        return resolver;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.gatewayservice.loadbalancer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeastLoadedLoadBalancerTest {
+
+    private static final String SERVICE = "order-service";
+
+    private final ServiceInstance a = instance(8081);
+    private final ServiceInstance b = instance(8082);
+    private final ServiceInstance c = instance(8083);
+    private final List<ServiceInstance> pool = List.of(a, b, c);
+
+    private final BackendLoadBalancerProperties properties = new BackendLoadBalancerProperties();
+    private final BackendInstanceStats stats = new BackendInstanceStats(properties, new SimpleMeterRegistry());
+
+    @Test
+    void leastOutstandingPicksFewestInFlight() {
+        properties.setStrategy(BackendLoadBalancerProperties.Strategy.LEAST_OUTSTANDING_REQUESTS);
+        busy(a, 3);
+        busy(b, 1);
+        busy(c, 2);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(choose()).isEqualTo(b);
+        }
+    }
+
+    @Test
+    void equalInFlightIsDecidedByLatency() {
+        properties.setStrategy(BackendLoadBalancerProperties.Strategy.LEAST_OUTSTANDING_REQUESTS);
+        finished(a, 50, false);
+        finished(b, 10, false);
+        finished(c, 30, false);
+
+        assertThat(choose()).isEqualTo(b);
+    }
+
+    @Test
+    void powerOfTwoChoicesNeverPicksTheBusiestAndSpreadsTheRest() {
+        busy(a, 10);
+        Set<ServiceInstance> chosen = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            chosen.add(choose());
+        }
+
+        // The busiest instance loses every comparison it takes part in
+        assertThat(chosen).containsExactlyInAnyOrder(b, c);
+    }
+
+    @Test
+    void ejectedInstanceIsSkippedEvenWhenIdle() {
+        properties.setStrategy(BackendLoadBalancerProperties.Strategy.LEAST_OUTSTANDING_REQUESTS);
+        stats.updatePool(SERVICE, pool);
+        for (int i = 0; i < properties.getOutlierDetection().getConsecutiveFailures(); i++) {
+            finished(a, 1, true);
+        }
+        busy(b, 2);
+        busy(c, 1);
+
+        assertThat(stats.isEjected(a)).isTrue();
+        assertThat(choose()).isEqualTo(c);
+    }
+
+    @Test
+    void failsOpenWhenEveryInstanceIsEjected() {
+        properties.getOutlierDetection().setMaxEjectionPercent(100);
+        stats.updatePool(SERVICE, List.of(a));
+        for (int i = 0; i < properties.getOutlierDetection().getConsecutiveFailures(); i++) {
+            finished(a, 1, true);
+        }
+
+        assertThat(stats.isEjected(a)).isTrue();
+        assertThat(choose(List.of(a))).isEqualTo(a);
+    }
+
+    @Test
+    void instanceThatLeftThePoolIsForgottenOnceIdle() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BackendInstanceStats stats = new BackendInstanceStats(properties, registry);
+        stats.updatePool(SERVICE, pool);
+        stats.requestStarted(a);
+        stats.requestStarted(c);
+        stats.requestFinished(c, 1_000_000, false);
+        assertThat(registry.find("gateway.backend.inflight").gauges()).hasSize(2);
+
+        // a and c are redeployed as d
+        ServiceInstance d = instance(8084);
+        stats.updatePool(SERVICE, List.of(b, d));
+        stats.get(b);
+        stats.get(d);
+        assertThat(instanceTags(registry)).containsExactlyInAnyOrder("127.0.0.1:8081", "127.0.0.1:8082", "127.0.0.1:8084");
+
+        stats.requestFinished(a, 1_000_000, false);
+        assertThat(instanceTags(registry)).containsExactlyInAnyOrder("127.0.0.1:8082", "127.0.0.1:8084");
+        assertThat(registry.find("gateway.backend.ejected").gauges()).hasSize(2);
+    }
+
+    private static List<String> instanceTags(SimpleMeterRegistry registry) {
+        return registry.find("gateway.backend.inflight").gauges().stream()
+                .map(gauge -> gauge.getId().getTag("instance"))
+                .toList();
+    }
+
+    private ServiceInstance choose() {
+        return choose(pool);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ServiceInstance choose(List<ServiceInstance> instances) {
+        ServiceInstanceListSupplier supplier =
+                ServiceInstanceListSuppliers.from(SERVICE, instances.toArray(ServiceInstance[]::new));
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        return new LeastLoadedLoadBalancer(provider, SERVICE, stats, properties)
+                .choose(new DefaultRequest<>())
+                .block()
+                .getServer();
+    }
+
+    private void busy(ServiceInstance instance, int requests) {
+        for (int i = 0; i < requests; i++) {
+            stats.requestStarted(instance);
+        }
+    }
+
+    private void finished(ServiceInstance instance, long millis, boolean failed) {
+        stats.requestStarted(instance);
+        stats.requestFinished(instance, millis * 1_000_000, failed);
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance(SERVICE + "-" + port, SERVICE, "127.0.0.1", port, false);
+    }
+}
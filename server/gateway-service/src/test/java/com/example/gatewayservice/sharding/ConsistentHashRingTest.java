@@ -0,0 +1,75 @@
+package com.example.gatewayservice.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+    private static final List<String> USERS = IntStream.range(0, KEYS)
+            .mapToObj(i -> UUID.nameUUIDFromBytes(("user-" + i).getBytes()).toString())
+            .toList();
+
+    @Test
+    void spreadsKeysEvenlyAcrossNodes() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c", "shard-d"),
+                Function.identity(), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        USERS.forEach(user -> counts.merge(ring.nodeFor(user), 1, Integer::sum));
+
+        assertThat(counts).hasSize(4);
+        // Each node should own its 25% share within a few percentage points.
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(KEYS / 5, KEYS * 3 / 10));
+    }
+
+    @Test
+    void addingNodeOnlyMovesKeysToTheNewNode() {
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c"),
+                Function.identity(), 160);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c", "shard-d"),
+                Function.identity(), 160);
+
+        int moved = 0;
+        for (String user : USERS) {
+            String owner = after.nodeFor(user);
+            if (!owner.equals(before.nodeFor(user))) {
+                assertThat(owner).isEqualTo("shard-d");
+                moved++;
+            }
+        }
+
+        // About 1/4 of the keys belong to the new node; a modulo scheme would move about 3/4.
+        assertThat(moved).isBetween(KEYS / 5, KEYS * 3 / 10);
+    }
+
+    @Test
+    void routerRebuildsRingWhenShardListIsRebound() {
+        OrderShardProperties properties = new OrderShardProperties();
+        properties.setShards(List.of(shard("shard-a", 8081)));
+        OrderShardRouter router = new OrderShardRouter(properties);
+        assertThat(router.shardFor(USERS.get(0)).getId()).isEqualTo("shard-a");
+
+        properties.setShards(List.of(shard("shard-b", 8082)));
+
+        OrderShardProperties.Shard owner = router.shardFor(USERS.get(0));
+        assertThat(owner.getId()).isEqualTo("shard-b");
+        assertThat(owner.getUri()).isEqualTo(URI.create("http://localhost:8082"));
+    }
+
+    private static OrderShardProperties.Shard shard(String id, int port) {
+        OrderShardProperties.Shard shard = new OrderShardProperties.Shard();
+        shard.setId(id);
+        shard.setUri(URI.create("http://localhost:" + port));
+        return shard;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.loadtest;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * The PostgreSQL server behind product-service and order-service: an
+ * embedded one by default, or an existing server given by {@code --db-url}.
+ * Either way each run gets freshly created databases, so results do not
+ * depend on what earlier runs left behind.
+ */
+final class Database implements AutoCloseable {
+
+    static final String PRODUCT_DB = "loadtest_product";
+    static final String ORDER_DB = "loadtest_order";
+
+    private final EmbeddedPostgres embedded;
+    private final String adminUrl;
+    private final String username;
+    private final String password;
+
+    private Database(EmbeddedPostgres embedded, String adminUrl, String username, String password) {
+        this.embedded = embedded;
+        this.adminUrl = adminUrl;
+        this.username = username;
+        this.password = password;
+    }
+
+    static Database start(LoadTestOptions options) throws IOException, SQLException {
+        Database database;
+        if (options.dbUrl().isBlank()) {
+            EmbeddedPostgres embedded = EmbeddedPostgres.builder()
+                    // The services' pools plus the load: the default of 100 is too few
+                    .setServerConfig("max_connections", "300")
+                    .start();
+            database = new Database(embedded, embedded.getJdbcUrl("postgres", "postgres"), "postgres", "");
+        } else {
+            database = new Database(null, options.dbUrl(), options.dbUsername(), options.dbPassword());
+        }
+        database.recreate(PRODUCT_DB);
+        database.recreate(ORDER_DB);
+        return database;
+    }
+
+    /**
+     * JDBC URL of {@code name} on the same server as the admin URL.
+     */
+    String jdbcUrl(String name) {
+        int query = adminUrl.indexOf('?');
+        String base = query < 0 ? adminUrl : adminUrl.substring(0, query);
+        String params = query < 0 ? "" : adminUrl.substring(query);
+        return base.substring(0, base.lastIndexOf('/') + 1) + name + params;
+    }
+
+    String username() {
+        return username;
+    }
+
+    String password() {
+        return password;
+    }
+
+    private void recreate(String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(adminUrl, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("DROP DATABASE IF EXISTS " + name + " WITH (FORCE)");
+            statement.execute("CREATE DATABASE " + name);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stands in for Keycloak's {@code eshop-realm}: serves the realm's JWK set
+ * and OpenID configuration over HTTP and mints RS256 access tokens with the
+ * same claims Keycloak puts in them, {@code realm_access.roles} included.
+ * The services only fetch the JWK set, from {@link #jwkSetUri()}, and check
+ * the issuer against {@link #issuer()}.
+ */
+final class KeycloakStub implements AutoCloseable {
+
+    private static final String REALM_PATH = "/realms/eshop-realm";
+    private static final List<String> DEFAULT_ROLES =
+            List.of("offline_access", "uma_authorization", "default-roles-eshop-realm");
+
+    private final RSAKey signingKey;
+    private final RSASSASigner signer;
+    private final HttpServer server;
+    private final String issuer;
+
+    KeycloakStub() throws IOException {
+        try {
+            signingKey = new RSAKeyGenerator(2048).keyUse(KeyUse.SIGNATURE).algorithm(JWSAlgorithm.RS256)
+                    .keyID(UUID.randomUUID().toString()).generate();
+            signer = new RSASSASigner(signingKey);
+        } catch (JOSEException ex) {
+            throw new IllegalStateException(ex);
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        issuer = "http://127.0.0.1:" + server.getAddress().getPort() + REALM_PATH;
+
+        String jwkSet = new JWKSet(signingKey.toPublicJWK()).toString();
+        String openIdConfiguration = "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + jwkSetUri() + "\"}";
+        server.createContext(REALM_PATH + "/protocol/openid-connect/certs", exchange -> respond(exchange, jwkSet));
+        server.createContext(REALM_PATH + "/.well-known/openid-configuration",
+                exchange -> respond(exchange, openIdConfiguration));
+        server.start();
+    }
+
+    String issuer() {
+        return issuer;
+    }
+
+    String jwkSetUri() {
+        return issuer + "/protocol/openid-connect/certs";
+    }
+
+    /**
+     * @param subject stable user ID; orders are stored under it
+     * @param role    {@code CLIENT} or {@code ADMIN}
+     */
+    String mint(String subject, String username, String role, Duration lifetime) {
+        Instant now = Instant.now();
+        List<String> roles = new ArrayList<>(DEFAULT_ROLES);
+        roles.add(role);
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(subject)
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(lifetime)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("typ", "Bearer")
+                .claim("azp", "react-frontend")
+                .claim("realm_access", Map.of("roles", roles))
+                .claim("resource_access", Map.of("account",
+                        Map.of("roles", List.of("manage-account", "manage-account-links", "view-profile"))))
+                .claim("scope", "openid profile email")
+                .claim("preferred_username", username)
+                .claim("email", username + "@example.com")
+                .build();
+        try {
+            SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+            jwt.sign(signer);
+            return jwt.serialize();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: each scenario's requests arrive as a Poisson process at
+ * the scenario's rate, whether or not earlier ones have completed. Latency is
+ * measured from the time a request was due, not from when it was sent, so a
+ * stalled generator or client shows up in the percentiles instead of hiding
+ * (no coordinated omission).
+ *
+ * <p>Requests due during the warm-up are sent but not recorded. When
+ * {@code maxInFlight} requests are outstanding, new arrivals are dropped and
+ * counted rather than queued.
+ */
+final class LoadDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(35);
+
+    private final HttpClient client;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    LoadDriver(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    List<Result> run(List<Scenario> scenarios, Duration warmup, Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        List<Result> results = new ArrayList<>();
+        List<Thread> arrivals = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            if (scenario.rate() <= 0) {
+                continue;
+            }
+            Result result = new Result(scenario.name(), scenario.rate(), duration);
+            results.add(result);
+            Thread thread = new Thread(() -> arrive(scenario, result, start, measureFrom, end),
+                    "arrivals-" + scenario.name());
+            thread.start();
+            arrivals.add(thread);
+        }
+        for (Thread thread : arrivals) {
+            thread.join();
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(50);
+        }
+        return results;
+    }
+
+    private void arrive(Scenario scenario, Result result, long start, long measureFrom, long end) {
+        SplittableRandom random = new SplittableRandom();
+        double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / scenario.rate();
+        long due = start;
+        while (true) {
+            due += (long) (-Math.log(1 - random.nextDouble()) * meanGapNanos);
+            if (due >= end) {
+                return;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            boolean measured = due >= measureFrom;
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    result.dropped.increment();
+                }
+                continue;
+            }
+            HttpRequest request = scenario.requests().get();
+            long dueAt = due;
+            if (measured) {
+                result.sent.increment();
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    result.record(System.nanoTime() - dueAt, response != null ? response.statusCode() : -1);
+                }
+            });
+        }
+    }
+
+    /**
+     * What one scenario did during the measured interval.
+     */
+    static final class Result {
+
+        private final String name;
+        private final double rate;
+        private final Duration duration;
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        /** Non-2xx responses by status; -1 for requests that got no response at all. */
+        private final Map<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+
+        private Result(String name, double rate, Duration duration) {
+            this.name = name;
+            this.rate = rate;
+            this.duration = duration;
+        }
+
+        private void record(long latencyNanos, int status) {
+            latencies.recordValue(latencyNanos);
+            if (status >= 200 && status < 300) {
+                ok.increment();
+            } else {
+                errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+
+        String name() {
+            return name;
+        }
+
+        double rate() {
+            return rate;
+        }
+
+        long sent() {
+            return sent.sum();
+        }
+
+        long ok() {
+            return ok.sum();
+        }
+
+        long dropped() {
+            return dropped.sum();
+        }
+
+        Map<Integer, Long> errors() {
+            Map<Integer, Long> counts = new TreeMap<>();
+            errors.forEach((status, count) -> counts.put(status, count.sum()));
+            return counts;
+        }
+
+        /** Successful responses per second of the measured interval. */
+        double throughput() {
+            return ok() / (duration.toNanos() / 1e9);
+        }
+
+        /** Latency at {@code percentile} (0-100), in milliseconds, over all responses. */
+        double latencyMillis(double percentile) {
+            return latencies.getTotalCount() == 0 ? 0 : latencies.getValueAtPercentile(percentile) / 1e6;
+        }
+
+        double maxLatencyMillis() {
+            return latencies.getMaxValue() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * End-to-end load test of gateway, product-service and order-service on one
+ * machine, without Keycloak or Docker.
+ *
+ * <ol>
+ *   <li>{@link KeycloakStub} serves a JWK set and mints the test tokens.</li>
+ *   <li>{@link Database} provides fresh databases, embedded by default.</li>
+ *   <li>The three services start from their executable jars, wired as in
+ *       docker-compose: order-service reaches product-service through the
+ *       gateway. With {@code --slow-product} a {@link SlowProxy} delays every
+ *       call to product-service.</li>
+ *   <li>The catalog is seeded through the bulk import endpoint.</li>
+ *   <li>{@link LoadDriver} runs the browse, create-order and admin-list
+ *       scenarios at their arrival rates, and the results are printed (and
+ *       written as JSON with {@code --out}).</li>
+ * </ol>
+ */
+public final class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+    private static final Duration TOKEN_LIFETIME = Duration.ofHours(12);
+    private static final List<String> ADJECTIVES = List.of("compact", "wireless", "ergonomic", "portable",
+            "premium", "silent", "rugged", "smart", "classic", "modular", "foldable", "solar");
+    private static final List<String> NOUNS = List.of("keyboard", "mouse", "monitor", "headset", "charger",
+            "speaker", "lamp", "backpack", "router", "camera", "tablet", "stand", "cable", "drive", "webcam");
+
+    private final LoadTestOptions options;
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newFixedThreadPool(Math.max(Runtime.getRuntime().availableProcessors(), 4)))
+            .build();
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.usage());
+            return;
+        }
+        LoadTest loadTest = new LoadTest(LoadTestOptions.parse(args));
+        Runtime.getRuntime().addShutdownHook(new Thread(loadTest::closeResources, "loadtest-shutdown"));
+        int status = 0;
+        try {
+            loadTest.run();
+        } catch (Exception ex) {
+            log.error("Load test failed", ex);
+            status = 1;
+        } finally {
+            loadTest.closeResources();
+        }
+        // The HTTP client's threads would keep the JVM alive
+        System.exit(status);
+    }
+
+    private void run() throws Exception {
+        KeycloakStub keycloak = register(new KeycloakStub());
+        log.info("Starting the database");
+        Database database = register(Database.start(options));
+
+        int productPort = freePort();
+        int orderPort = freePort();
+        int gatewayPort = freePort();
+        String productUrl = "http://127.0.0.1:" + productPort;
+        String gatewayUrl = "http://127.0.0.1:" + gatewayPort;
+        if (!options.slowProduct().isZero()) {
+            SlowProxy proxy = register(new SlowProxy(productUrl, options.slowProduct(), options.slowProductFraction()));
+            log.info("Slow-product fault: {} added to {} of product-service calls",
+                    options.slowProduct(), options.slowProductFraction());
+            productUrl = proxy.baseUrl();
+        }
+
+        Map<String, String> security = Map.of(
+                "SPRING_SECURITY_OAUTH2_RESOURCESERVER_JWT_ISSUER_URI", keycloak.issuer(),
+                "SPRING_SECURITY_OAUTH2_RESOURCESERVER_JWT_JWK_SET_URI", keycloak.jwkSetUri());
+
+        Map<String, String> productEnvironment = new LinkedHashMap<>(security);
+        productEnvironment.putAll(datasource(database, Database.PRODUCT_DB));
+        Map<String, String> orderEnvironment = new LinkedHashMap<>(security);
+        orderEnvironment.putAll(datasource(database, Database.ORDER_DB));
+        orderEnvironment.put("APPLICATION_CONFIG_PRODUCT_SERVICE_URL", gatewayUrl + "/api/products");
+        Map<String, String> gatewayEnvironment = new LinkedHashMap<>(security);
+        gatewayEnvironment.put("SPRING_APPLICATION_JSON", gatewayRoutes(productUrl, "http://127.0.0.1:" + orderPort));
+
+        log.info("Starting the services (logs in {})", options.logDir());
+        ServiceProcess gateway = register(ServiceProcess.start("gateway-service", gatewayPort, gatewayEnvironment,
+                options));
+        List<ServiceProcess> services = List.of(
+                register(ServiceProcess.start("product-service", productPort, productEnvironment, options)),
+                register(ServiceProcess.start("order-service", orderPort, orderEnvironment, options)),
+                gateway);
+        for (ServiceProcess service : services) {
+            service.awaitHealthy(client);
+        }
+
+        String adminToken = keycloak.mint(UUID.randomUUID().toString(), "admin", "ADMIN", TOKEN_LIFETIME);
+        // The gateway checks product-service's health from startup on and keeps
+        // a failed check for an interval, so being healthy is not enough
+        gateway.awaitSuccess(client, HttpRequest.newBuilder(URI.create(gatewayUrl + "/api/products"))
+                .header("Authorization", "Bearer " + adminToken)
+                .timeout(Duration.ofSeconds(30))
+                .build(), Duration.ofSeconds(1));
+        List<String> userTokens = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            userTokens.add(keycloak.mint(UUID.randomUUID().toString(), "user" + i, "CLIENT", TOKEN_LIFETIME));
+        }
+        log.info("Seeding {} products", options.products());
+        List<String> productIds = seedCatalog(gatewayUrl, adminToken);
+
+        Workload workload = new Workload(gatewayUrl, userTokens, adminToken, productIds, NOUNS);
+        List<Scenario> scenarios = List.of(
+                workload.browse(options.browseRate()),
+                workload.createOrder(options.orderRate()),
+                workload.adminList(options.adminRate()));
+        log.info("Running: {}s warm-up, then {}s measured", options.warmup().toSeconds(), options.duration().toSeconds());
+        List<LoadDriver.Result> results = new LoadDriver(client, options.maxInFlight())
+                .run(scenarios, options.warmup(), options.duration());
+
+        System.out.println(Report.table(results, options));
+        if (!options.out().isBlank()) {
+            Path out = Path.of(options.out());
+            if (out.getParent() != null) {
+                Files.createDirectories(out.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(out.toFile(), Report.json(results, options));
+            log.info("Report written to {}", out);
+        }
+    }
+
+    /**
+     * Imports the catalog as CSV and returns every product ID, the ten
+     * products product-service seeds on startup included.
+     */
+    private List<String> seedCatalog(String gatewayUrl, String adminToken) throws IOException, InterruptedException {
+        SplittableRandom random = new SplittableRandom(42);
+        StringBuilder csv = new StringBuilder("name,description,price,quantity\n");
+        for (int i = 0; i < options.products(); i++) {
+            String adjective = ADJECTIVES.get(random.nextInt(ADJECTIVES.size()));
+            String noun = NOUNS.get(random.nextInt(NOUNS.size()));
+            csv.append(capitalize(adjective)).append(' ').append(noun).append(' ').append(i).append(',')
+                    .append("A ").append(adjective).append(' ').append(noun).append(" for everyday use").append(',')
+                    .append(5 + random.nextInt(1000)).append(".99,")
+                    // Orders check stock but do not take it, so any large number lasts the run
+                    .append(1_000_000).append('\n');
+        }
+        HttpResponse<String> imported = client.send(HttpRequest.newBuilder(URI.create(gatewayUrl + "/api/products/import"))
+                .header("Authorization", "Bearer " + adminToken)
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (imported.statusCode() != 200) {
+            throw new IllegalStateException("Catalog import failed: " + imported.statusCode() + " " + imported.body());
+        }
+
+        HttpResponse<Stream<String>> exported = client.send(
+                HttpRequest.newBuilder(URI.create(gatewayUrl + "/api/products/export?format=ndjson"))
+                        .header("Authorization", "Bearer " + adminToken)
+                        .build(), HttpResponse.BodyHandlers.ofLines());
+        List<String> ids = new ArrayList<>();
+        try (var lines = exported.body()) {
+            lines.filter(line -> !line.isBlank()).forEach(line -> {
+                try {
+                    ids.add(objectMapper.readTree(line).get("id").asText());
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("The catalog export returned no products");
+        }
+        return ids;
+    }
+
+    static String gatewayRoutes(String productUrl, String orderUrl) throws IOException {
+        // The same routes docker-compose gives the gateway
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("spring.cloud.discovery.client.simple.instances", Map.of(
+                "product-service", List.of(Map.of("uri", productUrl)),
+                "order-service", List.of(Map.of("uri", orderUrl))));
+        settings.put("spring.cloud.gateway.server.webmvc.routes", List.of(
+                Map.of("id", "product-service", "uri", "lb://product-service",
+                        "predicates", List.of("Path=/api/products/**,/api/holds/**")),
+                Map.of("id", "order-service", "uri", "lb://order-service",
+                        "predicates", List.of("Path=/api/orders/**"))));
+        return new ObjectMapper().writeValueAsString(settings);
+    }
+
+    static Map<String, String> datasource(Database database, String name) {
+        return Map.of(
+                "SPRING_DATASOURCE_URL", database.jdbcUrl(name),
+                "SPRING_DATASOURCE_USERNAME", database.username(),
+                "SPRING_DATASOURCE_PASSWORD", database.password());
+    }
+
+    private <T extends AutoCloseable> T register(T resource) {
+        synchronized (resources) {
+            resources.push(resource);
+        }
+        return resource;
+    }
+
+    /**
+     * Stops the services before the database they use; safe to call twice.
+     */
+    private void closeResources() {
+        synchronized (resources) {
+            while (!resources.isEmpty()) {
+                try {
+                    resources.pop().close();
+                } catch (Exception ex) {
+                    log.warn("Cleanup failed", ex);
+                }
+            }
+        }
+    }
+
+    static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command-line options, given as {@code --name=value}. Durations take a
+ * {@code ms}, {@code s} or {@code m} suffix; rates are arrivals per second.
+ */
+final class LoadTestOptions {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("warmup", "20s");
+        DEFAULTS.put("browse-rate", "100");
+        DEFAULTS.put("order-rate", "10");
+        DEFAULTS.put("admin-rate", "1");
+        DEFAULTS.put("products", "1000");
+        DEFAULTS.put("users", "100");
+        DEFAULTS.put("slow-product", "0ms");
+        DEFAULTS.put("slow-product-fraction", "1.0");
+        DEFAULTS.put("max-in-flight", "2000");
+        DEFAULTS.put("db-url", "");
+        DEFAULTS.put("db-username", "postgres");
+        DEFAULTS.put("db-password", "");
+        DEFAULTS.put("server-dir", "server");
+        DEFAULTS.put("service-jvm-opts", "-Xmx512m");
+        DEFAULTS.put("log-dir", "performance/results/logs");
+        DEFAULTS.put("out", "");
+        DEFAULTS.put("startup-runs", "3");
+        DEFAULTS.put("startup-services", "product-service,order-service,gateway-service");
+    }
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (!arg.startsWith("--") || equals < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            String name = arg.substring(2, equals);
+            if (!DEFAULTS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option --" + name + "; known: " + DEFAULTS.keySet());
+            }
+            values.put(name, arg.substring(equals + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    static String usage() {
+        StringBuilder usage = new StringBuilder("Options (default):\n");
+        DEFAULTS.forEach((name, value) -> usage.append("  --").append(name).append('=').append(value).append('\n'));
+        return usage.toString();
+    }
+
+    Duration duration() {
+        return duration("duration");
+    }
+
+    Duration warmup() {
+        return duration("warmup");
+    }
+
+    double browseRate() {
+        return Double.parseDouble(values.get("browse-rate"));
+    }
+
+    double orderRate() {
+        return Double.parseDouble(values.get("order-rate"));
+    }
+
+    double adminRate() {
+        return Double.parseDouble(values.get("admin-rate"));
+    }
+
+    int products() {
+        return Integer.parseInt(values.get("products"));
+    }
+
+    int users() {
+        return Integer.parseInt(values.get("users"));
+    }
+
+    /**
+     * Delay added to every product-service response in the slow-product
+     * fault mode; zero runs without the delaying proxy.
+     */
+    Duration slowProduct() {
+        return duration("slow-product");
+    }
+
+    double slowProductFraction() {
+        return Double.parseDouble(values.get("slow-product-fraction"));
+    }
+
+    int maxInFlight() {
+        return Integer.parseInt(values.get("max-in-flight"));
+    }
+
+    /**
+     * JDBC URL of an existing PostgreSQL server (any database the user can
+     * create databases from); empty starts an embedded one.
+     */
+    String dbUrl() {
+        return values.get("db-url");
+    }
+
+    String dbUsername() {
+        return values.get("db-username");
+    }
+
+    String dbPassword() {
+        return values.get("db-password");
+    }
+
+    Path serverDir() {
+        return Path.of(values.get("server-dir"));
+    }
+
+    String serviceJvmOpts() {
+        return values.get("service-jvm-opts");
+    }
+
+    Path logDir() {
+        return Path.of(values.get("log-dir"));
+    }
+
+    /**
+     * File the JSON report is written to; empty only prints it.
+     */
+    String out() {
+        return values.get("out");
+    }
+
+    /**
+     * Launches per service and mode in the startup benchmark.
+     */
+    int startupRuns() {
+        return Integer.parseInt(values.get("startup-runs"));
+    }
+
+    /**
+     * Services the startup benchmark launches, comma-separated.
+     */
+    List<String> startupServices() {
+        return Arrays.stream(values.get("startup-services").split(",")).map(String::trim)
+                .filter(name -> !name.isEmpty()).toList();
+    }
+
+    private Duration duration(String name) {
+        String value = values.get(name).trim();
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("--" + name + " needs a ms, s or m suffix: " + value);
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-scenario summary, as a table for the console and as a map for the
+ * JSON report. Latencies are in milliseconds.
+ */
+final class Report {
+
+    private Report() {
+    }
+
+    static String table(List<LoadDriver.Result> results, LoadTestOptions options) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%nMeasured %s after %s warm-up%s%n", format(options.duration()),
+                format(options.warmup()),
+                options.slowProduct().isZero() ? "" : ", product-service slowed by " + format(options.slowProduct())));
+        table.append(String.format("%-14s %8s %8s %8s %8s %8s %10s %9s %9s %9s %9s%n", "scenario", "rate/s",
+                "sent", "ok", "errors", "dropped", "ok/s", "p50", "p99", "p999", "max"));
+        for (LoadDriver.Result result : results) {
+            long errors = result.errors().values().stream().mapToLong(Long::longValue).sum();
+            table.append(String.format("%-14s %8.1f %8d %8d %8d %8d %10.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    result.name(), result.rate(), result.sent(), result.ok(), errors, result.dropped(),
+                    result.throughput(), result.latencyMillis(50), result.latencyMillis(99),
+                    result.latencyMillis(99.9), result.maxLatencyMillis()));
+        }
+        for (LoadDriver.Result result : results) {
+            if (!result.errors().isEmpty()) {
+                table.append(String.format("%s errors by status (-1: no response): %s%n",
+                        result.name(), result.errors()));
+            }
+        }
+        return table.toString();
+    }
+
+    private static String format(Duration duration) {
+        return duration.toString().substring(2).toLowerCase();
+    }
+
+    static Map<String, Object> json(List<LoadDriver.Result> results, LoadTestOptions options) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("durationSeconds", options.duration().toSeconds());
+        report.put("warmupSeconds", options.warmup().toSeconds());
+        report.put("slowProductMillis", options.slowProduct().toMillis());
+        report.put("slowProductFraction", options.slowProductFraction());
+        List<Map<String, Object>> scenarios = new ArrayList<>();
+        for (LoadDriver.Result result : results) {
+            Map<String, Object> scenario = new LinkedHashMap<>();
+            scenario.put("name", result.name());
+            scenario.put("rate", result.rate());
+            scenario.put("sent", result.sent());
+            scenario.put("ok", result.ok());
+            scenario.put("errors", result.errors());
+            scenario.put("dropped", result.dropped());
+            scenario.put("throughput", result.throughput());
+            scenario.put("p50", result.latencyMillis(50));
+            scenario.put("p99", result.latencyMillis(99));
+            scenario.put("p999", result.latencyMillis(99.9));
+            scenario.put("max", result.maxLatencyMillis());
+            scenarios.add(scenario);
+        }
+        report.put("scenarios", scenarios);
+        return report;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.function.Supplier;
+
+/**
+ * A kind of user request, driven at its own arrival rate.
+ *
+ * @param name     label in the report
+ * @param rate     arrivals per second; 0 leaves the scenario out
+ * @param requests builds the next request; called from the scenario's arrival thread only
+ */
+record Scenario(String name, double rate, Supplier<HttpRequest> requests) {
+}
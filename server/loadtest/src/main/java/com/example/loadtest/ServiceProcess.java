@@ -0,0 +1,149 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One service started from its executable jar as a child JVM, with its
+ * output going to {@code <log-dir>/<name>.log}. Configuration is passed the
+ * way docker-compose passes it, through environment variables.
+ */
+final class ServiceProcess implements AutoCloseable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final String name;
+    private final int port;
+    private final Path log;
+    private final Process process;
+    private final long startedAt;
+
+    private ServiceProcess(String name, int port, Path log, Process process, long startedAt) {
+        this.name = name;
+        this.port = port;
+        this.log = log;
+        this.process = process;
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Starts {@code server/<name>/target/<name>-*.jar} on {@code port}.
+     */
+    static ServiceProcess start(String name, int port, Map<String, String> environment,
+                                LoadTestOptions options) throws IOException {
+        List<String> arguments = new ArrayList<>(Arrays.asList(options.serviceJvmOpts().trim().split("\\s+")));
+        arguments.add("-jar");
+        arguments.add(findJar(options.serverDir(), name).toString());
+        return start(name, port, environment, arguments, options.logDir());
+    }
+
+    /**
+     * Starts {@code java} with the given arguments, for launches other than a
+     * plain {@code -jar}.
+     */
+    static ServiceProcess start(String name, int port, Map<String, String> environment,
+                                List<String> javaArguments, Path logDir) throws IOException {
+        Files.createDirectories(logDir);
+        Path log = logDir.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(java());
+        command.addAll(javaArguments);
+        command.removeIf(String::isEmpty);
+
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().putAll(environment);
+        builder.environment().put("SERVER_PORT", String.valueOf(port));
+        // Statement logging would dominate both the logs and the CPU profile
+        builder.environment().put("SPRING_JPA_SHOW_SQL", "false");
+        long startedAt = System.nanoTime();
+        return new ServiceProcess(name, port, log, builder.start(), startedAt);
+    }
+
+    static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + port;
+    }
+
+    /**
+     * Waits until {@code /actuator/health} answers 200.
+     */
+    void awaitHealthy(HttpClient client) throws IOException, InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl() + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5)).build();
+        awaitSuccess(client, health, Duration.ofMillis(500));
+    }
+
+    /**
+     * Sends {@code request} every {@code interval} until it answers 200.
+     *
+     * @return time from launching the process to that first 200
+     */
+    Duration awaitSuccess(HttpClient client, HttpRequest request, Duration interval)
+            throws IOException, InterruptedException {
+        long deadline = startedAt + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited with " + process.exitValue() + ", see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - startedAt);
+                }
+            } catch (ConnectException ex) {
+                // Not listening yet
+            }
+            Thread.sleep(interval.toMillis());
+        }
+        throw new IllegalStateException(name + " did not answer " + request.uri() + " within " + STARTUP_TIMEOUT
+                + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    /**
+     * The executable jar of {@code server/<name>}.
+     */
+    static Path findJar(Path serverDir, String name) throws IOException {
+        Path target = serverDir.resolve(name).resolve("target");
+        if (Files.isDirectory(target)) {
+            try (var files = Files.list(target)) {
+                // The newest one is the executable jar: repackaging runs last, both in
+                // the default build and in the library profile ("-exec" classifier)
+                List<Path> jars = files
+                        .filter(path -> path.getFileName().toString().startsWith(name + "-"))
+                        .filter(path -> path.getFileName().toString().endsWith(".jar"))
+                        .sorted(Comparator.comparing(path -> path.toFile().lastModified(), Comparator.reverseOrder()))
+                        .toList();
+                if (!jars.isEmpty()) {
+                    return jars.get(0);
+                }
+            }
+        }
+        throw new IllegalStateException("No " + name + " jar in " + target + "; build it with: mvn package -DskipTests");
+    }
+}
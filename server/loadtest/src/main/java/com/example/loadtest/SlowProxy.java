@@ -0,0 +1,103 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * HTTP proxy in front of product-service for the slow-product fault mode.
+ * It holds each request for a fixed delay (or a random fraction of them)
+ * before forwarding it, so everything that calls product-service, the
+ * gateway and order-service's Feign client, sees a slow dependency.
+ */
+final class SlowProxy implements AutoCloseable {
+
+    /** Hop-by-hop headers, and the ones java.net.http sets itself. */
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "keep-alive", "transfer-encoding", "upgrade");
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String target;
+    private final long delayMillis;
+    private final double fraction;
+
+    SlowProxy(String target, Duration delay, double fraction) throws IOException {
+        this.target = target;
+        this.delayMillis = delay.toMillis();
+        this.fraction = fraction;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::forward);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void forward(HttpExchange exchange) {
+        try {
+            if (fraction >= 1.0 || ThreadLocalRandom.current().nextDouble() < fraction) {
+                Thread.sleep(delayMillis);
+            }
+            byte[] requestBody;
+            try (InputStream in = exchange.getRequestBody()) {
+                requestBody = in.readAllBytes();
+            }
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target + exchange.getRequestURI()))
+                    .method(exchange.getRequestMethod(), requestBody.length == 0
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+            for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+                if (!SKIPPED_HEADERS.contains(header.getKey().toLowerCase())) {
+                    header.getValue().forEach(value -> request.header(header.getKey(), value));
+                }
+            }
+
+            HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            response.headers().map().forEach((name, values) -> {
+                if (!SKIPPED_HEADERS.contains(name.toLowerCase()) && !name.startsWith(":")) {
+                    exchange.getResponseHeaders().put(name, values);
+                }
+            });
+            byte[] body = response.body();
+            exchange.sendResponseHeaders(response.statusCode(), body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (IOException ex) {
+            try {
+                exchange.sendResponseHeaders(502, -1);
+            } catch (IOException alreadySent) {
+                // The response had started; closing the exchange cuts it short
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold-start time of each service, from launching its JVM to the first
+ * successful authenticated request, in three modes:
+ *
+ * <ul>
+ *   <li>{@code standard}: {@code java -jar}, as before the fast-startup
+ *       profile;</li>
+ *   <li>{@code aot}: the same jar with the bean definitions generated by
+ *       Spring AOT processing ({@code -Dspring.aot.enabled=true});</li>
+ *   <li>{@code aot+cds}: the extracted jar with a class-data-sharing archive
+ *       recorded by a training run, as the Dockerfiles start it.</li>
+ * </ul>
+ *
+ * The jars must come from the {@code fast-startup} profile. The first
+ * request is {@code GET /api/products} for product-service (and through the
+ * gateway, to a product-service started once for the purpose) and
+ * {@code GET /api/orders/my-orders} for order-service, so it includes the
+ * JWT check and a query. Each service gets one untimed launch first, which
+ * creates the schema and warms the page cache for all modes alike.
+ */
+public final class StartupBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmark.class);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(20);
+    private static final Duration TRAINING_TIMEOUT = Duration.ofMinutes(5);
+    private static final List<String> AOT_ARGUMENTS =
+            List.of("-Dspring.aot.enabled=true", "-Dspring.cloud.refresh.enabled=false");
+
+    private final LoadTestOptions options;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private StartupBenchmark(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) {
+        if (Arrays.asList(args).contains("--help")) {
+            System.out.print(LoadTestOptions.usage());
+            return;
+        }
+        int status = 0;
+        try {
+            new StartupBenchmark(LoadTestOptions.parse(args)).run();
+        } catch (Exception ex) {
+            log.error("Startup benchmark failed", ex);
+            status = 1;
+        }
+        System.exit(status);
+    }
+
+    private void run() throws Exception {
+        Map<String, Map<String, List<Duration>>> results = new LinkedHashMap<>();
+        try (KeycloakStub keycloak = new KeycloakStub();
+             Database database = Database.start(options)) {
+            String token = keycloak.mint(UUID.randomUUID().toString(), "startup", "CLIENT", Duration.ofHours(1));
+            Map<String, String> security = Map.of(
+                    "SPRING_SECURITY_OAUTH2_RESOURCESERVER_JWT_ISSUER_URI", keycloak.issuer(),
+                    "SPRING_SECURITY_OAUTH2_RESOURCESERVER_JWT_JWK_SET_URI", keycloak.jwkSetUri());
+
+            ServiceProcess backend = null;
+            try {
+                for (String name : options.startupServices()) {
+                    Map<String, String> environment = new LinkedHashMap<>(security);
+                    String path;
+                    switch (name) {
+                        case "product-service" -> {
+                            environment.putAll(LoadTest.datasource(database, Database.PRODUCT_DB));
+                            path = "/api/products";
+                        }
+                        case "order-service" -> {
+                            environment.putAll(LoadTest.datasource(database, Database.ORDER_DB));
+                            path = "/api/orders/my-orders";
+                        }
+                        case "gateway-service" -> {
+                            if (backend == null) {
+                                backend = startBackend(security, database);
+                            }
+                            // order-service is not running; only the product route is used
+                            environment.put("SPRING_APPLICATION_JSON", LoadTest.gatewayRoutes(backend.baseUrl(),
+                                    "http://127.0.0.1:" + LoadTest.freePort()));
+                            path = "/api/products";
+                        }
+                        default -> throw new IllegalArgumentException("Unknown service " + name);
+                    }
+                    results.put(name, measure(name, environment, path, token));
+                }
+            } finally {
+                if (backend != null) {
+                    backend.close();
+                }
+            }
+        }
+
+        System.out.println(table(results));
+        if (!options.out().isBlank()) {
+            Path out = Path.of(options.out());
+            if (out.getParent() != null) {
+                Files.createDirectories(out.getParent());
+            }
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(out.toFile(), json(results));
+            log.info("Report written to {}", out);
+        }
+    }
+
+    private Map<String, List<Duration>> measure(String name, Map<String, String> environment, String path,
+                                                String token) throws Exception {
+        Path jar = ServiceProcess.findJar(options.serverDir(), name);
+        List<String> jvmOptions = Arrays.asList(options.serviceJvmOpts().trim().split("\\s+"));
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("standard", arguments(jvmOptions, List.of(), jar));
+        modes.put("aot", arguments(jvmOptions, AOT_ARGUMENTS, jar));
+        modes.put("aot+cds", cdsArguments(name, jar, jvmOptions, environment));
+
+        log.info("{}: untimed first launch", name);
+        launch(name, environment, modes.get("standard"), path, token);
+
+        Map<String, List<Duration>> times = new LinkedHashMap<>();
+        modes.keySet().forEach(mode -> times.put(mode, new ArrayList<>()));
+        // Modes take turns, so that drift on the machine affects them alike
+        for (int run = 1; run <= options.startupRuns(); run++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                Duration time = launch(name, environment, mode.getValue(), path, token);
+                log.info("{} {} run {}: {} ms", name, mode.getKey(), run, time.toMillis());
+                times.get(mode.getKey()).add(time);
+            }
+        }
+        return times;
+    }
+
+    private Duration launch(String name, Map<String, String> environment, List<String> arguments, String path,
+                            String token) throws Exception {
+        try (ServiceProcess service = ServiceProcess.start(name, LoadTest.freePort(), environment, arguments,
+                options.logDir())) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(service.baseUrl() + path))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(10))
+                    .build();
+            return service.awaitSuccess(client, request, POLL_INTERVAL);
+        }
+    }
+
+    /**
+     * Extracts the jar next to it and records the archive with a training
+     * run that stops once the context has refreshed, as the Dockerfiles do.
+     */
+    private List<String> cdsArguments(String name, Path jar, List<String> jvmOptions,
+                                      Map<String, String> environment) throws Exception {
+        Path directory = jar.getParent().resolve("cds");
+        Path archive = directory.resolve("application.jsa");
+        Path extracted = directory.resolve("application").resolve(jar.getFileName());
+
+        log.info("{}: extracting the jar and recording the CDS archive", name);
+        run(List.of(ServiceProcess.java(), "-Djarmode=tools", "-jar", jar.toString(),
+                "extract", "--destination", extracted.getParent().toString(), "--force"), Map.of(), directory);
+        Files.deleteIfExists(archive);
+        List<String> training = new ArrayList<>();
+        training.add(ServiceProcess.java());
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.add("-Dspring.context.exit=onRefresh");
+        training.addAll(AOT_ARGUMENTS);
+        training.add("-jar");
+        training.add(extracted.toString());
+        Map<String, String> trainingEnvironment = new LinkedHashMap<>(environment);
+        trainingEnvironment.put("SERVER_PORT", String.valueOf(LoadTest.freePort()));
+        run(training, trainingEnvironment, directory);
+        if (!Files.exists(archive)) {
+            throw new IllegalStateException("The training run of " + name + " wrote no archive, see "
+                    + directory.resolve("run.log"));
+        }
+        List<String> cds = new ArrayList<>(AOT_ARGUMENTS);
+        cds.add("-XX:SharedArchiveFile=" + archive);
+        return arguments(jvmOptions, cds, extracted);
+    }
+
+    private static void run(List<String> command, Map<String, String> environment, Path directory)
+            throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        Path log = directory.resolve("run.log");
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile());
+        builder.environment().putAll(environment);
+        Process process = builder.start();
+        if (!process.waitFor(TRAINING_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+            throw new IllegalStateException(String.join(" ", command) + " timed out, see " + log);
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " exited with " + process.exitValue()
+                    + ", see " + log);
+        }
+    }
+
+    private ServiceProcess startBackend(Map<String, String> security, Database database) throws Exception {
+        Map<String, String> environment = new LinkedHashMap<>(security);
+        environment.putAll(LoadTest.datasource(database, Database.PRODUCT_DB));
+        log.info("Starting product-service behind the gateway");
+        ServiceProcess backend = ServiceProcess.start("product-service", LoadTest.freePort(), environment, options);
+        try {
+            backend.awaitHealthy(client);
+        } catch (Exception ex) {
+            backend.close();
+            throw ex;
+        }
+        return backend;
+    }
+
+    private static List<String> arguments(List<String> jvmOptions, List<String> extra, Path jar) {
+        List<String> arguments = new ArrayList<>(jvmOptions);
+        arguments.addAll(extra);
+        arguments.add("-jar");
+        arguments.add(jar.toString());
+        return arguments;
+    }
+
+    private String table(Map<String, Map<String, List<Duration>>> results) {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%nTime to first successful request, %d run(s) per mode (ms)%n",
+                options.startupRuns()));
+        table.append(String.format("%-16s %-9s %8s %8s %8s%n", "service", "mode", "median", "min", "max"));
+        results.forEach((service, modes) -> modes.forEach((mode, times) -> {
+            long[] millis = times.stream().mapToLong(Duration::toMillis).sorted().toArray();
+            table.append(String.format("%-16s %-9s %8d %8d %8d%n", service, mode, median(millis), millis[0],
+                    millis[millis.length - 1]));
+        }));
+        return table.toString();
+    }
+
+    private Map<String, Object> json(Map<String, Map<String, List<Duration>>> results) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("runs", options.startupRuns());
+        report.put("serviceJvmOpts", options.serviceJvmOpts());
+        Map<String, Object> services = new LinkedHashMap<>();
+        results.forEach((service, modes) -> {
+            Map<String, Object> byMode = new LinkedHashMap<>();
+            modes.forEach((mode, times) -> {
+                long[] millis = times.stream().mapToLong(Duration::toMillis).sorted().toArray();
+                byMode.put(mode, Map.of("medianMillis", median(millis),
+                        "runsMillis", times.stream().map(Duration::toMillis).toList()));
+            });
+            services.put(service, byMode);
+        });
+        report.put("services", services);
+        return report;
+    }
+
+    private static long median(long[] sorted) {
+        return sorted[sorted.length / 2];
+    }
+}
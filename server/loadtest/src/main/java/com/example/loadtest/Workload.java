@@ -0,0 +1,95 @@
+package com.example.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * The requests each scenario sends through the gateway, spread over the
+ * seeded catalog and the test users:
+ * <ul>
+ *   <li>browse (a CLIENT): a catalog page (60%), one product (30%) or a
+ *       one-word search (10%);</li>
+ *   <li>create order (a CLIENT): one to three products, one unit each;</li>
+ *   <li>admin list (the ADMIN): the newest page of all orders.</li>
+ * </ul>
+ */
+final class Workload {
+
+    static final int PAGE_SIZE = 20;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String gatewayUrl;
+    private final List<String> userTokens;
+    private final String adminToken;
+    private final List<String> productIds;
+    private final List<String> searchWords;
+
+    Workload(String gatewayUrl, List<String> userTokens, String adminToken,
+             List<String> productIds, List<String> searchWords) {
+        this.gatewayUrl = gatewayUrl;
+        this.userTokens = userTokens;
+        this.adminToken = adminToken;
+        this.productIds = productIds;
+        this.searchWords = searchWords;
+    }
+
+    Scenario browse(double rate) {
+        SplittableRandom random = new SplittableRandom();
+        int pages = Math.max(productIds.size() / PAGE_SIZE, 1);
+        return new Scenario("browse", rate, () -> {
+            double kind = random.nextDouble();
+            String path;
+            if (kind < 0.6) {
+                path = "/api/products?page=" + random.nextInt(pages) + "&size=" + PAGE_SIZE;
+            } else if (kind < 0.9) {
+                path = "/api/products/" + pick(random, productIds);
+            } else {
+                path = "/api/products/search?q=" + URLEncoder.encode(pick(random, searchWords), StandardCharsets.UTF_8);
+            }
+            return get(path, pick(random, userTokens));
+        });
+    }
+
+    Scenario createOrder(double rate) {
+        SplittableRandom random = new SplittableRandom();
+        return new Scenario("create-order", rate, () -> {
+            StringBuilder body = new StringBuilder("{\"items\":[");
+            int items = 1 + random.nextInt(3);
+            for (int i = 0; i < items; i++) {
+                if (i > 0) {
+                    body.append(',');
+                }
+                body.append("{\"productId\":\"").append(pick(random, productIds)).append("\",\"quantity\":1}");
+            }
+            body.append("]}");
+            return HttpRequest.newBuilder(URI.create(gatewayUrl + "/api/orders"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Authorization", "Bearer " + pick(random, userTokens))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+        });
+    }
+
+    Scenario adminList(double rate) {
+        return new Scenario("admin-list", rate, () -> get("/api/orders?page=0&size=50", adminToken));
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(gatewayUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+    }
+
+    private static <T> T pick(SplittableRandom random, List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.orderservice.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Regions of the Hibernate second-level cache, by region name. Every region
+ * named in an {@code @Cache} annotation must be listed; startup fails otherwise.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "entity-cache")
+public class EntityCacheProperties {
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Region {
+
+        /** Maximum number of entries kept. */
+        private long maxEntries = 10_000;
+
+        /** Entries are dropped this long after they were stored. */
+        private Duration timeToLive = Duration.ofMinutes(10);
+    }
+}
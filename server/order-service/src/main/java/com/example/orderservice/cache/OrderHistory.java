@@ -0,0 +1,57 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.entities.Order;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A user's orders as the JSON response body, with its entity tag.
+ *
+ * @param body the serialized orders; shared, must not be modified
+ * @param etag strong entity tag derived from the body, quoted
+ */
+public record OrderHistory(byte[] body, String etag) {
+
+    public static OrderHistory of(ObjectMapper objectMapper, List<Order> orders) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(orders);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException("Could not serialize the order history", ex);
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new OrderHistory(body,
+                    "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Whether an {@code If-None-Match} header names this version, so that
+     * the client's copy can be reused.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            // Weak comparison, as RFC 9110 asks for If-None-Match
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
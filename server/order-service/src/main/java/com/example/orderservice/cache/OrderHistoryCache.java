@@ -0,0 +1,148 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.datasource.ReplicaLagMonitor;
+import com.example.orderservice.services.OrderHistoryChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * The serialized {@code my-orders} response per user, bounded by
+ * {@code order-history-cache.max-users}. A history only changes when its
+ * user places an order, so most requests are answered without a query.
+ * <p>
+ * Concurrent misses for the same user share one load. A user's entry is
+ * dropped after every committed change to their orders, before the writing
+ * request returns, and the change is passed to the
+ * {@link OrderHistoryInvalidationBroadcaster}. Caffeine removes a key only
+ * after a load of it in flight has finished, so that load's result goes too.
+ * Dropping every history at once does not wait for loads in flight, so each
+ * entry records the generation of all-users drops its load started in, and
+ * an entry from before the latest drop is discarded and loaded again.
+ * <p>
+ * With a read replica, a load just after a change announced by another
+ * instance may still read the old rows. Entries loaded within the replica's
+ * stale-read bound of the user's latest change therefore expire at the end
+ * of that bound.
+ */
+public class OrderHistoryCache {
+
+    private final boolean enabled;
+    private final Cache<String, Entry> histories;
+    private final OrderHistoryInvalidationBroadcaster broadcaster;
+    private final long maxUsers;
+    private final long timeToLiveNanos;
+    /** How long after a change reads may miss it; zero without a replica. */
+    private volatile long staleReadNanos;
+    /** When each user's history last changed, while reads may still miss it; only with a replica. */
+    private volatile Cache<String, Long> recentChanges;
+    private volatile long lastChangeOfAllNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    /** Incremented before every drop of all histories. */
+    private final AtomicLong allUsersGeneration = new AtomicLong();
+
+    public OrderHistoryCache(OrderHistoryCacheProperties properties, OrderHistoryInvalidationBroadcaster broadcaster,
+                             MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.broadcaster = broadcaster;
+        this.maxUsers = properties.getMaxUsers();
+        this.timeToLiveNanos = properties.getTimeToLive().toNanos();
+        this.histories = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxUsers())
+                .expireAfter(new Expiry<String, Entry>() {
+                    @Override
+                    public long expireAfterCreate(String userId, Entry entry, long currentTime) {
+                        return entry.lifetimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, Entry entry, long currentTime,
+                                                  long currentDuration) {
+                        return entry.lifetimeNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, Entry entry, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, histories, "order-histories");
+    }
+
+    @Autowired(required = false)
+    public void setReplicaLagMonitor(ReplicaLagMonitor lagMonitor) {
+        this.staleReadNanos = lagMonitor.getStaleReadBound().toNanos();
+        this.recentChanges = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(lagMonitor.getStaleReadBound())
+                .build();
+    }
+
+    /**
+     * @param loader reads the user's history from the database
+     */
+    public OrderHistory get(String userId, Function<String, OrderHistory> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        Entry entry = histories.get(userId, key -> load(key, loader));
+        while (entry.generation() != allUsersGeneration.get()) {
+            // Loaded before, and inserted after, the latest drop of all histories
+            histories.asMap().remove(userId, entry);
+            entry = histories.get(userId, key -> load(key, loader));
+        }
+        return entry.history();
+    }
+
+    private Entry load(String userId, Function<String, OrderHistory> loader) {
+        long generation = allUsersGeneration.get();
+        long sinceChange = System.nanoTime() - lastChange(userId);
+        OrderHistory history = loader.apply(userId);
+        long lifetime = sinceChange < staleReadNanos ? staleReadNanos - sinceChange : timeToLiveNanos;
+        return new Entry(history, lifetime, generation);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderHistoryChanged(OrderHistoryChangedEvent event) {
+        invalidateLocal(event.userId());
+        broadcaster.broadcast(event.userId());
+    }
+
+    /**
+     * Drops a user's history on this instance only.
+     * @param userId the user, or {@code null} to drop every history
+     */
+    public void invalidateLocal(String userId) {
+        long now = System.nanoTime();
+        Cache<String, Long> changes = recentChanges;
+        if (userId == null) {
+            lastChangeOfAllNanos = now;
+            allUsersGeneration.incrementAndGet();
+            histories.invalidateAll();
+        } else {
+            if (changes != null) {
+                changes.put(userId, now);
+            }
+            histories.invalidate(userId);
+        }
+    }
+
+    private long lastChange(String userId) {
+        Cache<String, Long> changes = recentChanges;
+        Long change = changes != null ? changes.getIfPresent(userId) : null;
+        return change != null ? Math.max(change, lastChangeOfAllNanos) : lastChangeOfAllNanos;
+    }
+
+    private record Entry(OrderHistory history, long lifetimeNanos, long generation) {
+    }
+}
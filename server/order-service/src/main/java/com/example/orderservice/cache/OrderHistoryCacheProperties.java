@@ -0,0 +1,28 @@
+package com.example.orderservice.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Size and lifetime of the {@link OrderHistoryCache}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order-history-cache")
+public class OrderHistoryCacheProperties {
+
+    /** When off, every request loads the history from the database. */
+    private boolean enabled = true;
+
+    /** Maximum number of users whose history is kept. */
+    private long maxUsers = 10_000;
+
+    /**
+     * Upper bound on staleness for changes this instance was not told about
+     * (e.g. written by another instance without a broadcaster).
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
@@ -0,0 +1,22 @@
+package com.example.orderservice.cache;
+
+/**
+ * Tells other order-service instances that a user's order history changed,
+ * so that they drop it from their caches. Implementations deliver the user
+ * ID to {@link OrderHistoryCache#invalidateLocal(String)} on every other
+ * instance (e.g. over Redis pub/sub, Postgres LISTEN/NOTIFY or a message
+ * broker).
+ * <p>
+ * The default does nothing, which is correct for a single instance; with
+ * several instances and no broadcaster, remote changes become visible after
+ * {@code order-history-cache.time-to-live}.
+ */
+@FunctionalInterface
+public interface OrderHistoryInvalidationBroadcaster {
+
+    /**
+     * @param userId the user whose history changed, or {@code null} if every
+     *               user's may have (orders were archived)
+     */
+    void broadcast(String userId);
+}
@@ -9,7 +9,6 @@ import java.util.List;
 
 @FeignClient(
         name = "product-service",
-        url = "${application.config.product-service-url}",
         configuration = FeignConfig.class
 )
 public interface ProductClient {
@@ -0,0 +1,121 @@
+package com.example.orderservice.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many requests are in progress at once, with a limit that
+ * follows measured latency (the gradient algorithm of Netflix's
+ * concurrency-limits library).
+ *
+ * <p>Two averages of request latency are kept: a short one over the last
+ * few requests and a long one over the last several hundred. While the
+ * short one stays within {@code rttTolerance} of the long one, the limit
+ * creeps up with every request. Once requests slow down, as they do when
+ * product-service does, it comes down in proportion to the slowdown. The
+ * limit is left alone while less than half of it is in use, so that it does
+ * not drift upwards while the service is idle.
+ *
+ * <p>Each {@link RequestPriority} may only fill its share of the limit.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final Map<RequestPriority, Double> shares;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry registry) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.shares = new EnumMap<>(properties.getShares());
+        this.limit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Requests allowed in progress at once")
+                .register(registry);
+        Gauge.builder("concurrency.in.flight", inFlight, AtomicInteger::get)
+                .description("Requests in progress")
+                .register(registry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, Counter.builder("concurrency.rejected")
+                    .description("Requests shed because their priority's share of the limit was in use")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(registry));
+        }
+    }
+
+    /**
+     * Takes a slot if fewer than the priority's share of the limit are in
+     * use. Every successful call must be followed by one {@link #release}.
+     */
+    public boolean tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * shares.getOrDefault(priority, 1.0)));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back and updates the limit with the request's latency.
+     */
+    public void release(long rttNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(rttNanos, inFlightBefore);
+    }
+
+    private synchronized void update(long rttNanos, int inFlightBefore) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / SHORT_WINDOW;
+        longRttNanos += (rttNanos - longRttNanos) / LONG_WINDOW;
+        // After a slow spell the long average would otherwise keep the limit
+        // high for minutes; let it follow a faster short average sooner
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+        double current = limit;
+        if (inFlightBefore < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double estimate = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + estimate * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.orderservice.concurrency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Admits API requests through the {@link AdaptiveConcurrencyLimiter} and
+ * answers the ones it has no room for at once with 503 and
+ * {@code Retry-After}, instead of letting them wait for a request thread.
+ * Runs ahead of authentication so that shedding costs next to nothing.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final boolean enabled;
+    private final String retryAfterSeconds;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter, ConcurrencyLimitProperties properties) {
+        this.limiter = limiter;
+        this.enabled = properties.isEnabled();
+        this.retryAfterSeconds = String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!limiter.tryAcquire(RequestPriority.of(request))) {
+            HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+            response.setStatus(status.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            // Same shape as GlobalExceptionHandler's error responses
+            response.getWriter().write("{\"timestamp\":\"" + LocalDateTime.now() + "\",\"status\":" + status.value()
+                    + ",\"error\":\"" + status.getReasonPhrase()
+                    + "\",\"message\":\"Too many requests in progress, retry later\"}");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+}
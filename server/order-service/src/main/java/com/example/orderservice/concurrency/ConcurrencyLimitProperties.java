@@ -0,0 +1,46 @@
+package com.example.orderservice.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Settings for {@link AdaptiveConcurrencyLimiter}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Limit to start from, before any latency has been measured. */
+    private int initialLimit = 20;
+
+    private int minLimit = 5;
+
+    /** Should stay below the number of request threads, so that some are always free. */
+    private int maxLimit = 150;
+
+    /**
+     * How much latency above the long-term average is tolerated before the
+     * limit comes down, e.g. 1.5 for 50% more.
+     */
+    private double rttTolerance = 1.5;
+
+    /** Weight of each new limit estimate, between 0 and 1. */
+    private double smoothing = 0.2;
+
+    /** Sent in {@code Retry-After} with shed requests. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    /** Fraction of the limit each priority may fill. */
+    private Map<RequestPriority, Double> shares = new EnumMap<>(Map.of(
+            RequestPriority.READ, 1.0,
+            RequestPriority.WRITE, 0.8,
+            RequestPriority.ADMIN, 0.5));
+}
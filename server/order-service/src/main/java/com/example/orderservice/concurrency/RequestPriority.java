@@ -0,0 +1,46 @@
+package com.example.orderservice.concurrency;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * How important a request is when the service is overloaded. A request may
+ * only take a slot while fewer than its share of the concurrency limit are
+ * in use, so lower priorities are turned away first and the rest of the
+ * limit stays free for the higher ones.
+ */
+public enum RequestPriority {
+
+    /** A user reading their own orders: cheap, and what the UI shows first. */
+    READ,
+
+    /** A user placing an order: waits on product-service for every item. */
+    WRITE,
+
+    /**
+     * Admin listing, shard migration, cleanup and archive lookups: can wait
+     * and be retried.
+     */
+    ADMIN;
+
+    private static final String BASE_PATH = "/api/orders";
+
+    /**
+     * Classifies by method and path alone, so requests can be shed before the
+     * token is decoded.
+     */
+    public static RequestPriority of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String rest = path.startsWith(BASE_PATH) ? path.substring(BASE_PATH.length()) : path;
+        if (rest.isEmpty() || rest.equals("/")) {
+            return "POST".equals(request.getMethod()) ? WRITE : ADMIN;
+        }
+        if (rest.startsWith("/users/") || rest.equals("/import")) {
+            return ADMIN;
+        }
+        if ("true".equals(request.getParameter("archived"))) {
+            // Scans the archive files
+            return ADMIN;
+        }
+        return "GET".equals(request.getMethod()) ? READ : WRITE;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.orderservice.configuration;
+
+import com.example.orderservice.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.orderservice.concurrency.ConcurrencyLimitFilter;
+import com.example.orderservice.concurrency.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Adaptive concurrency limit in front of the order API. Shed requests still
+ * go through the {@code http.server.requests} observation, which comes
+ * first, so they show up there as 503s.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter(ConcurrencyLimitProperties properties,
+                                                                 MeterRegistry registry) {
+        return new AdaptiveConcurrencyLimiter(properties, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter limiter,
+                                                                                ConcurrencyLimitProperties properties) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiter, properties));
+        registration.addUrlPatterns("/api/*");
+        // After the observation filter (HIGHEST_PRECEDENCE + 1), before security
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
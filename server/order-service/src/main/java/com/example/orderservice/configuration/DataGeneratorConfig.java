@@ -0,0 +1,30 @@
+package com.example.orderservice.configuration;
+
+import com.example.orderservice.partitioning.OrderPartitionSchema;
+import com.example.orderservice.seeder.DataGeneratorProperties;
+import com.example.orderservice.seeder.OrderDataGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Synthetic order histories at production volume, when
+ * {@code datagen.enabled} is set. Like the warm-up, the runner exists either
+ * way and checks the setting at startup, so that an AOT-processed jar can
+ * still run it.
+ */
+@Configuration
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGeneratorConfig {
+
+    @Bean
+    public OrderDataGenerator orderDataGenerator(DataGeneratorProperties properties, JdbcTemplate jdbcTemplate,
+                                                 TransactionTemplate transactionTemplate,
+                                                 OrderPartitionSchema orderPartitionSchema,
+                                                 ConfigurableApplicationContext context) {
+        return new OrderDataGenerator(properties, jdbcTemplate, transactionTemplate, orderPartitionSchema, context);
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.orderservice.configuration;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Adds the controller method that served the request as a {@code handler} tag
+     * on {@code http.server.requests} (e.g. {@code ProductController#getAll}).
+     */
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+                String handlerName = handler instanceof HandlerMethod method
+                        ? method.getBeanType().getSimpleName() + "#" + method.getMethod().getName()
+                        : "none";
+                return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", handlerName));
+            }
+        };
+    }
+}
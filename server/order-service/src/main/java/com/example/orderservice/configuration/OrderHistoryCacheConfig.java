@@ -0,0 +1,40 @@
+package com.example.orderservice.configuration;
+
+import com.example.orderservice.cache.OrderHistoryCache;
+import com.example.orderservice.cache.OrderHistoryCacheProperties;
+import com.example.orderservice.cache.OrderHistoryInvalidationBroadcaster;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-user cache of the {@code my-orders} response. The cache exists either
+ * way and checks {@code order-history-cache.enabled} at runtime, so that an
+ * AOT-processed jar can still switch it off.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(OrderHistoryCacheProperties.class)
+public class OrderHistoryCacheConfig {
+
+    @Bean
+    public OrderHistoryCache orderHistoryCache(OrderHistoryCacheProperties properties,
+                                               OrderHistoryInvalidationBroadcaster broadcaster,
+                                               MeterRegistry registry) {
+        return new OrderHistoryCache(properties, broadcaster, registry);
+    }
+
+    /**
+     * Single-instance default: nothing to notify. Declare another
+     * {@link OrderHistoryInvalidationBroadcaster} bean to fan invalidations out.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public OrderHistoryInvalidationBroadcaster orderHistoryInvalidationBroadcaster() {
+        return userId -> log.debug("No invalidation broadcaster configured; orders of {} changed",
+                userId != null ? userId : "all users");
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.orderservice.configuration;
+
+import com.example.orderservice.partitioning.OrderArchive;
+import com.example.orderservice.partitioning.OrderArchiver;
+import com.example.orderservice.partitioning.OrderPartitionProperties;
+import com.example.orderservice.partitioning.OrderPartitionSchema;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import javax.sql.DataSource;
+
+/**
+ * Monthly partitions of {@code orders} and {@code order_item}, and the
+ * archive that partitions older than {@code order-partitions.retention-months}
+ * move to. The connections they use are not read-only, so they come from
+ * the primary.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(OrderPartitionProperties.class)
+public class OrderPartitionConfig {
+
+    @Bean
+    public OrderPartitionSchema orderPartitionSchema(DataSource dataSource,
+                                                     OrderPartitionProperties properties, Environment environment) {
+        return new OrderPartitionSchema(dataSource, properties, environment);
+    }
+
+    @Bean
+    public OrderArchive orderArchive(OrderPartitionProperties properties, ObjectMapper objectMapper) {
+        return new OrderArchive(properties.getArchiveDir(), objectMapper);
+    }
+
+    @Bean
+    public OrderArchiver orderArchiver(DataSource dataSource,
+                                       OrderPartitionSchema schema, OrderArchive archive,
+                                       OrderPartitionProperties properties,
+                                       EntityManagerFactory entityManagerFactory,
+                                       ApplicationEventPublisher eventPublisher) {
+        return new OrderArchiver(dataSource, schema, archive, properties, entityManagerFactory, eventPublisher);
+    }
+
+    /**
+     * The partitioned tables must exist before Hibernate's schema update
+     * looks at them.
+     */
+    @Configuration(proxyBeanMethods = false)
+    static class SchemaBeforeHibernate extends EntityManagerFactoryDependsOnPostProcessor {
+        SchemaBeforeHibernate() {
+            super("orderPartitionSchema");
+        }
+    }
+}
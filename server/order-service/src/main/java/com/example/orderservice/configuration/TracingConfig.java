@@ -0,0 +1,26 @@
+package com.example.orderservice.configuration;
+
+import com.example.orderservice.tracing.FileSpanExporter;
+import com.example.orderservice.tracing.TracingProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Requests join the trace started at the gateway (W3C {@code traceparent})
+ * and keep its sampling decision. Feign calls to product-service pass the
+ * context on, and JDBC calls are recorded as child spans.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "tracing.file", name = "enabled", havingValue = "true")
+    public FileSpanExporter fileSpanExporter(TracingProperties properties) throws IOException {
+        return new FileSpanExporter(properties.getFile().getPath());
+    }
+}
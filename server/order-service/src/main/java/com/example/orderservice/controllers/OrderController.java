@@ -1,11 +1,18 @@
 package com.example.orderservice.controllers;
 
+import com.example.orderservice.cache.OrderHistory;
+import com.example.orderservice.cache.OrderHistoryCache;
 import com.example.orderservice.dto.OrderRequestDTO;
 import com.example.orderservice.entities.Order;
+import com.example.orderservice.services.OrderImportService;
 import com.example.orderservice.services.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -13,13 +20,19 @@ import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
 @RequiredArgsConstructor
 public class OrderController {
     
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final OrderService orderService;
+    private final OrderImportService orderImportService;
+    private final OrderHistoryCache orderHistoryCache;
 
     /**
      * Creates a new order for the authenticated user.
@@ -37,24 +50,91 @@ public class OrderController {
     }
 
     /**
-     * Retrieves all orders for the authenticated user.
+     * Retrieves all orders for the authenticated user, from the per-user
+     * cache. Answers {@code 304 Not Modified} when {@code If-None-Match}
+     * names the current version.
+     * @param archived Whether to include orders moved to the archive, which are listed last (not cached)
+     * @param ifNoneMatch Entity tag of the client's copy (optional)
      * @param jwt JWT token containing user identity
      * @return List of user's orders
      */
     @GetMapping("/my-orders")
     @PreAuthorize("hasAnyRole('CLIENT', 'ADMIN')")
-    public ResponseEntity<List<Order>> getMyOrders(@AuthenticationPrincipal Jwt jwt) {
+    public ResponseEntity<byte[]> getMyOrders(@RequestParam(defaultValue = "false") boolean archived,
+                                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                              String ifNoneMatch,
+                                              @AuthenticationPrincipal Jwt jwt) {
         String userId = jwt.getSubject();
-        return ResponseEntity.ok(orderService.findByUserId(userId));
+        OrderHistory history = archived
+                ? orderService.findHistoryIncludingArchived(userId)
+                : orderHistoryCache.get(userId, orderService::findHistory);
+        // The browser keeps the response but asks again every time
+        CacheControl revalidate = CacheControl.noCache().cachePrivate();
+        if (history.matches(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(history.etag()).cacheControl(revalidate).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(history.etag())
+                .cacheControl(revalidate)
+                .body(history.body());
     }
 
     /**
      * Retrieves all orders in the system. Only accessible by ADMIN users.
-     * @return List of all orders
+     * When {@code page} and {@code size} are given, returns that page (newest first)
+     * and the overall count in the {@code X-Total-Count} header.
+     * @param page Zero-based page index (optional)
+     * @param size Page size (optional)
+     * @return List of orders
      */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Order>> getAllOrders() {
-        return ResponseEntity.ok(orderService.findAll());
+    public ResponseEntity<List<Order>> getAllOrders(@RequestParam(required = false) Integer page,
+                                                    @RequestParam(required = false) Integer size) {
+        if (page == null || size == null) {
+            return ResponseEntity.ok(orderService.findAll());
+        }
+        Page<Order> result = orderService.findAll(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.getTotalElements()))
+                .body(result.getContent());
+    }
+
+    /**
+     * Retrieves every order of a given user. Only accessible by ADMIN users.
+     * Used when migrating a user's orders between shards.
+     * @param userId Owner of the orders
+     * @return List of the user's orders
+     */
+    @GetMapping("/users/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<Order>> getUserOrders(@PathVariable String userId) {
+        return ResponseEntity.ok(orderService.findByUserId(userId));
+    }
+
+    /**
+     * Imports orders with their original IDs. Only accessible by ADMIN users.
+     * Orders that already exist are skipped, so the call can be retried.
+     * @param orders Orders exported from another shard
+     * @return Number of orders written
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> importOrders(@RequestBody List<Order> orders) {
+        return ResponseEntity.ok(Map.of("imported", orderImportService.importOrders(orders)));
+    }
+
+    /**
+     * Deletes orders of a given user. Only accessible by ADMIN users.
+     * @param userId Owner of the orders
+     * @param ids IDs of the orders to delete; without a body, every order of the user
+     * @return Number of orders deleted
+     */
+    @DeleteMapping("/users/{userId}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Long>> deleteUserOrders(@PathVariable String userId,
+                                                              @RequestBody(required = false) List<String> ids) {
+        return ResponseEntity.ok(Map.of("deleted", orderService.deleteByUserId(userId, ids)));
     }
 }
@@ -0,0 +1,38 @@
+package com.example.orderservice.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Read replica used for read-only transactions. Routing is off unless
+ * {@code url} is set. Pool settings go under {@code datasource.replica.hikari}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.replica")
+public class ReplicaProperties {
+
+    /** JDBC URL of the replica. */
+    private String url;
+
+    /** Defaults to {@code spring.datasource.username}. */
+    private String username;
+
+    /** Defaults to {@code spring.datasource.password}. */
+    private String password;
+
+    /** Reads go to the primary while the replica is further behind than this. */
+    private Duration maxLag = Duration.ofSeconds(2);
+
+    /** How often the replica's lag is measured. */
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a user's reads stay on the primary after they committed a
+     * write. Should be at least {@code max-lag} plus {@code lag-check-interval}.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
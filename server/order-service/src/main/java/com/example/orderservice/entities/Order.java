@@ -3,6 +3,8 @@ package com.example.orderservice.entities;
 import com.example.orderservice.enums.OrderStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -15,8 +17,10 @@ import java.util.List;
 @NoArgsConstructor
 @Builder
 @Table(name = "orders")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "orders")
 public class Order {
     
+    /** Unique on its own; the table's key also holds the date, see OrderPartitionSchema. */
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
@@ -35,6 +39,7 @@ public class Order {
     private Double totalAmount;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order-item-ids")
     @Builder.Default
     private List<OrderItem> items = new ArrayList<>();
 }
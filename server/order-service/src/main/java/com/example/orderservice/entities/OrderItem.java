@@ -3,6 +3,10 @@ package com.example.orderservice.entities;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.time.LocalDateTime;
 
 @Entity
 @Getter
@@ -10,6 +14,7 @@ import lombok.*;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "order-items")
 public class OrderItem {
     
     @Id
@@ -20,8 +25,24 @@ public class OrderItem {
     private Integer quantity;
     private Double price;
 
+    /**
+     * The order's date, which places the item in the partition of its order.
+     * The foreign key to the order, on both columns, is created with the
+     * partitioned tables rather than by Hibernate.
+     */
+    @Column(nullable = false)
+    @JsonIgnore
+    private LocalDateTime orderDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "order_id")
+    @JoinColumn(name = "order_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private Order order;
+
+    @PrePersist
+    void copyOrderDate() {
+        if (orderDate == null && order != null) {
+            orderDate = order.getOrderDate();
+        }
+    }
 }
@@ -0,0 +1,253 @@
+package com.example.orderservice.logging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hands access events from request threads to a single background writer.
+ *
+ * <p>Request threads only sample, claim a slot in a fixed ring buffer and copy
+ * a few references into it; no formatting or I/O happens on the request path.
+ * When the buffer is full the event is dropped rather than blocking the
+ * request. The writer thread formats each event as one compact JSON line on the
+ * {@code ACCESS_LOG} logger.
+ *
+ * <p>Counted in {@code access.log.events} by {@code result}
+ * ({@code logged}, {@code dropped}, {@code sampled_out}).
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogWriter implements DisposableBean {
+
+    private static final Logger accessLog = LoggerFactory.getLogger("ACCESS_LOG");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    /** Next slot the writer reads; written by the writer thread only. */
+    private volatile long head;
+
+    private final Counter logged;
+    private final Counter dropped;
+    private final Counter sampledOut;
+
+    private final StringBuilder line = new StringBuilder(256);
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(AccessLogProperties properties, MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.sampleRate = properties.getSampleRate();
+        this.slowThresholdNanos = properties.getSlowThreshold().toNanos();
+
+        int capacity = Integer.highestOneBit(Math.max(2, properties.getBufferSize()) * 2 - 1);
+        this.slots = new Slot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot(i);
+        }
+        this.mask = capacity - 1;
+
+        this.logged = counter(registry, "logged");
+        this.dropped = counter(registry, "dropped");
+        this.sampledOut = counter(registry, "sampled_out");
+        Gauge.builder("access.log.backlog", this, w -> w.tail.get() - w.head)
+                .description("Access events waiting to be written")
+                .register(registry);
+
+        this.writer = new Thread(this::drainLoop, "access-log-writer");
+        this.writer.setDaemon(true);
+        if (enabled) {
+            this.writer.start();
+        }
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("access.log.events")
+                .description("Access events by what happened to them")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Records one finished request. Errors and slow requests bypass sampling.
+     */
+    public void record(String method, String uri, int status, String userId, String traceId,
+                       int dbStatements, long dbNanos, long durationNanos, boolean failed) {
+        if (!enabled) {
+            return;
+        }
+        boolean mustLog = failed || status >= 500 || durationNanos >= slowThresholdNanos;
+        if (!mustLog && sampleRate < 1.0 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            sampledOut.increment();
+            return;
+        }
+        if (!offer(System.currentTimeMillis(), method, uri, status, userId, traceId, dbStatements, dbNanos, durationNanos)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Bounded multi-producer ring (Vyukov): a slot is free for position
+     * {@code p} when its sequence equals {@code p}, and readable once the
+     * producer has published {@code p + 1}.
+     */
+    private boolean offer(long timestamp, String method, String uri, int status, String userId, String traceId,
+                          int dbStatements, long dbNanos, long durationNanos) {
+        long pos = tail.get();
+        while (true) {
+            Slot slot = slots[(int) (pos & mask)];
+            long diff = slot.sequence - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    slot.timestamp = timestamp;
+                    slot.method = method;
+                    slot.uri = uri;
+                    slot.status = status;
+                    slot.userId = userId;
+                    slot.traceId = traceId;
+                    slot.dbStatements = dbStatements;
+                    slot.dbNanos = dbNanos;
+                    slot.durationNanos = durationNanos;
+                    slot.sequence = pos + 1;
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    private void drainLoop() {
+        while (running) {
+            if (!drainOne()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+        while (drainOne()) {
+            // flush what was queued before shutdown
+        }
+    }
+
+    private boolean drainOne() {
+        long pos = head;
+        Slot slot = slots[(int) (pos & mask)];
+        if (slot.sequence != pos + 1) {
+            return false;
+        }
+        if (accessLog.isInfoEnabled()) {
+            accessLog.info(format(slot));
+        }
+        slot.method = null;
+        slot.uri = null;
+        slot.userId = null;
+        slot.traceId = null;
+        slot.sequence = pos + slots.length;
+        head = pos + 1;
+        logged.increment();
+        return true;
+    }
+
+    private String format(Slot slot) {
+        StringBuilder sb = line;
+        sb.setLength(0);
+        sb.append("{\"ts\":").append(slot.timestamp);
+        sb.append(",\"user\":");
+        appendString(sb, slot.userId);
+        sb.append(",\"traceId\":");
+        appendString(sb, slot.traceId);
+        sb.append(",\"method\":");
+        appendString(sb, slot.method);
+        sb.append(",\"uri\":");
+        appendString(sb, slot.uri);
+        sb.append(",\"status\":").append(slot.status);
+        sb.append(",\"durationMs\":");
+        appendMillis(sb, slot.durationNanos);
+        sb.append(",\"dbStatements\":").append(slot.dbStatements);
+        sb.append(",\"dbMs\":");
+        appendMillis(sb, slot.dbNanos);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    private static void appendMillis(StringBuilder sb, long nanos) {
+        long micros = nanos / 1_000;
+        long fraction = micros % 1_000;
+        sb.append(micros / 1_000).append('.');
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(2));
+    }
+
+    private static final class Slot {
+        volatile long sequence;
+        long timestamp;
+        String method;
+        String uri;
+        int status;
+        String userId;
+        String traceId;
+        int dbStatements;
+        long dbNanos;
+        long durationNanos;
+
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -1,13 +1,14 @@
 package com.example.orderservice.logging;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.example.orderservice.datasource.QueryInspector;
+import com.example.orderservice.datasource.QueryStats;
 import org.slf4j.MDC;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,46 +19,56 @@ import java.io.IOException;
 @Component
 public class LoggingFilter extends OncePerRequestFilter {
 
-    private static final Logger logger = LoggerFactory.getLogger(LoggingFilter.class);
+    private final AccessLogWriter accessLogWriter;
+    private final QueryInspector queryInspector;
+
+    public LoggingFilter(AccessLogWriter accessLogWriter, QueryInspector queryInspector) {
+        this.accessLogWriter = accessLogWriter;
+        this.queryInspector = queryInspector;
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         
-        long startTime = System.currentTimeMillis();
-        String method = request.getMethod();
-        String uri = request.getRequestURI();
-        
+        long startNanos = System.nanoTime();
+        String userId = resolveUserId();
+        // Set by the tracer for the server observation wrapping this filter
+        String traceId = MDC.get("traceId");
+        boolean completed = false;
+        // Counts the statements this request runs
+        QueryStats queries = QueryStats.start(request.getRequestURI());
+
+        // Put userId into MDC for all logs in this request
+        MDC.put("userId", userId);
         try {
-            // Extract User ID from Security Context (Keycloak JWT)
-            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-            String userId = "anonymous";
-            if (authentication != null && authentication.getPrincipal() instanceof Jwt) {
-                Jwt jwt = (Jwt) authentication.getPrincipal();
-                // Prefer 'sub' (Subject) or 'preferred_username'
-                userId = jwt.getClaimAsString("preferred_username");
-                if (userId == null) {
-                    userId = jwt.getSubject();
-                }
-            }
-            
-            // Put userId into MDC for all logs in this request
-            MDC.put("userId", userId);
-            
-            // Process the request
             filterChain.doFilter(request, response);
-            
+            completed = true;
         } finally {
-            long duration = System.currentTimeMillis() - startTime;
-            int status = response.getStatus();
-            String userId = MDC.get("userId");
-            
-            // Log the access event
-            logger.info("ACCESS_LOG | User: {} | Method: {} | URI: {} | Status: {} | Duration: {}ms", 
-                    userId, method, uri, status, duration);
-            
-            // Clean up MDC
+            queries.close();
+            // Hand the access event to the background writer; nothing is formatted here
+            accessLogWriter.record(request.getMethod(), request.getRequestURI(), response.getStatus(),
+                    userId, traceId, queries.count(), queries.nanos(), System.nanoTime() - startNanos, !completed);
+            queryInspector.requestCompleted(queries, uriTemplate(request));
             MDC.remove("userId");
         }
     }
+
+    private static String uriTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+
+    /**
+     * Extracts the user ID from the Security Context (Keycloak JWT), preferring
+     * 'preferred_username' over 'sub' (Subject).
+     */
+    private static String resolveUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof Jwt jwt) {
+            String username = jwt.getClaimAsString("preferred_username");
+            return username != null ? username : jwt.getSubject();
+        }
+        return "anonymous";
+    }
 }
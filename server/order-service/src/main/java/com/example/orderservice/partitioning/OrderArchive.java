@@ -0,0 +1,141 @@
+package com.example.orderservice.partitioning;
+
+import com.example.orderservice.entities.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Orders moved out of the database: one gzip-compressed NDJSON file per
+ * archived partition, {@code <partition>.ndjson.gz}, with one order and its
+ * items per line in the same JSON as the API returns. Lines are sorted by
+ * user. A partition archived twice, e.g. because orders were imported into
+ * an archived month, gets a second file; orders found in several files are
+ * returned once.
+ */
+public class OrderArchive {
+
+    private static final String SUFFIX = ".ndjson.gz";
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    public OrderArchive(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Starts the file of a partition. It only appears under its final name
+     * once {@link ArchiveWriter#commit()} has written it to disk.
+     */
+    public ArchiveWriter create(String partition) throws IOException {
+        Files.createDirectories(directory);
+        return new ArchiveWriter(partition);
+    }
+
+    /**
+     * Every archived order of the user. Reads all archive files, so it is
+     * meant for the occasional audit rather than regular traffic.
+     */
+    public List<Order> findByUserId(String userId) throws IOException {
+        Map<String, Order> orders = new LinkedHashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        // Only lines containing the user's ID are parsed
+        String needle = "\"userId\":" + objectMapper.writeValueAsString(userId);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), 64 * 1024), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.contains(needle)) {
+                        Order order = objectMapper.readValue(line, Order.class);
+                        if (userId.equals(order.getUserId())) {
+                            orders.putIfAbsent(order.getId(), order);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(orders.values());
+    }
+
+    /**
+     * Writes one archive file. Closing it without {@link #commit()} discards it.
+     */
+    public final class ArchiveWriter implements AutoCloseable {
+
+        private final String partition;
+        private final Path temporary;
+        private final Writer writer;
+        private long orders;
+        private boolean committed;
+
+        private ArchiveWriter(String partition) throws IOException {
+            this.partition = partition;
+            this.temporary = directory.resolve(partition + SUFFIX + ".tmp");
+            this.writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(
+                    Files.newOutputStream(temporary), 64 * 1024), StandardCharsets.UTF_8));
+        }
+
+        public void write(Order order) throws IOException {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+            orders++;
+        }
+
+        public long orders() {
+            return orders;
+        }
+
+        /**
+         * Flushes the file to disk and gives it its final name.
+         * @return the archive file
+         */
+        public Path commit() throws IOException {
+            writer.close();
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Path target = directory.resolve(partition + SUFFIX);
+            for (int copy = 1; Files.exists(target); copy++) {
+                target = directory.resolve(partition + "." + copy + SUFFIX);
+            }
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE);
+            committed = true;
+            return target;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                writer.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
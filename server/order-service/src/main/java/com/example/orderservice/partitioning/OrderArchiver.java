@@ -0,0 +1,292 @@
+package com.example.orderservice.partitioning;
+
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.entities.OrderItem;
+import com.example.orderservice.enums.OrderStatus;
+import com.example.orderservice.services.OrderHistoryChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves partitions older than {@code order-partitions.retention-months} to
+ * the {@link OrderArchive} and keeps partitions ready ahead of time.
+ * <p>
+ * A partition is archived in one transaction: its orders are streamed into
+ * a temporary file, the partitions are dropped, the file is moved into the
+ * archive and only then is the transaction committed. A failure before that
+ * leaves the orders in the database and no file behind; should the commit
+ * itself fail, the orders are archived a second time on the next run, which
+ * {@link OrderArchive#findByUserId} tolerates. Only one instance archives at
+ * a time.
+ * <p>
+ * The legacy partition of a converted database spans every month up to its
+ * conversion, so it cannot be dropped while some of its months are still
+ * retained. Its months are archived one at a time instead, oldest first:
+ * the month's orders are exported the same way and then deleted. Once its
+ * last month has passed the retention, the rest goes as a whole.
+ */
+@Slf4j
+public class OrderArchiver {
+
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(4187125036921806242)";
+    private static final int FETCH_SIZE = 1_000;
+
+    private final DataSource dataSource;
+    private final OrderPartitionSchema schema;
+    private final OrderArchive archive;
+    private final OrderPartitionProperties properties;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public OrderArchiver(DataSource dataSource, OrderPartitionSchema schema, OrderArchive archive,
+                         OrderPartitionProperties properties, EntityManagerFactory entityManagerFactory,
+                         ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.schema = schema;
+        this.archive = archive;
+        this.properties = properties;
+        this.entityManagerFactory = entityManagerFactory;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Scheduled(fixedDelayString = "${order-partitions.maintenance-interval:1h}",
+            initialDelayString = "${order-partitions.maintenance-interval:1h}")
+    public void maintain() {
+        YearMonth now = YearMonth.now();
+        schema.ensurePartitions(now, now.plusMonths(properties.getPremakeMonths()));
+        if (properties.getRetentionMonths() > 0) {
+            archiveBefore(now.minusMonths(properties.getRetentionMonths() - 1L));
+        }
+    }
+
+    /**
+     * Archives every partition that ends before the given month starts.
+     * @return the partitions archived
+     */
+    public List<String> archiveBefore(YearMonth month) {
+        LocalDateTime cutoff = month.atDay(1).atStartOfDay();
+        List<String> archived = new ArrayList<>();
+        for (OrderPartition partition : schema.partitions()) {
+            if (partition.to().isAfter(cutoff)) {
+                if (partition.from().isBefore(cutoff)) {
+                    archived.addAll(archiveMonths(partition, cutoff));
+                }
+                break;
+            }
+            try {
+                if (!archive(partition, null)) {
+                    break;
+                }
+            } catch (SQLException | IOException ex) {
+                log.warn("Archiving order partition {} failed, it stays in the database: {}",
+                        partition.name(), ex.getMessage());
+                break;
+            }
+            archived.add(partition.name());
+        }
+        if (!archived.isEmpty()) {
+            // Entities and item lists of the archived orders may still be cached
+            entityManagerFactory.getCache().evict(Order.class);
+            entityManagerFactory.getCache().evict(OrderItem.class);
+            eventPublisher.publishEvent(OrderHistoryChangedEvent.allUsers());
+        }
+        return archived;
+    }
+
+    /**
+     * Archives the months of a partition spanning several months that start
+     * before the cutoff, oldest first, skipping months without orders.
+     * @return the archive names of the months archived
+     */
+    private List<String> archiveMonths(OrderPartition partition, LocalDateTime cutoff) {
+        List<String> archived = new ArrayList<>();
+        try {
+            for (LocalDateTime oldest = oldest(partition); oldest != null && oldest.isBefore(cutoff);
+                 oldest = oldest(partition)) {
+                YearMonth month = YearMonth.from(oldest);
+                if (!archive(partition, month)) {
+                    break;
+                }
+                archived.add(OrderPartitionSchema.monthName(month));
+            }
+        } catch (SQLException | IOException ex) {
+            log.warn("Archiving a month of order partition {} failed, it stays in the database: {}",
+                    partition.name(), ex.getMessage());
+        }
+        return archived;
+    }
+
+    /**
+     * Archives a whole partition, or only one month of it and deletes that month's rows.
+     * @param month {@code null} for the whole partition
+     * @return {@code false} if another instance is archiving
+     */
+    private boolean archive(OrderPartition partition, YearMonth month) throws SQLException, IOException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                if (!tryLock(connection)) {
+                    connection.rollback();
+                    return false;
+                }
+                if (OrderPartitionSchema.partitions(connection).stream()
+                        .noneMatch(current -> current.name().equals(partition.name()))) {
+                    connection.rollback();
+                    return true;
+                }
+                // Orders written between the export and the delete or drop would be lost
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LOCK TABLE " + partition.name() + ", " + partition.itemPartition()
+                            + " IN EXCLUSIVE MODE");
+                }
+                Range range = month != null ? Range.of(month) : Range.ALL;
+                String name = month != null ? OrderPartitionSchema.monthName(month) : partition.name();
+                Path file;
+                long orders;
+                try (OrderArchive.ArchiveWriter writer = archive.create(name)) {
+                    export(connection, partition, range, writer);
+                    long expected = count(connection, partition, range);
+                    if (writer.orders() != expected) {
+                        throw new IllegalStateException("Wrote " + writer.orders() + " of " + expected + " orders");
+                    }
+                    orders = writer.orders();
+                    if (month != null) {
+                        delete(connection, partition, range);
+                    } else {
+                        OrderPartitionSchema.drop(connection, partition);
+                    }
+                    file = writer.commit();
+                }
+                connection.commit();
+                log.info("Archived {} of order partition {}: {} orders to {} in {} ms",
+                        month != null ? month : "all", partition.name(), orders, file,
+                        (System.nanoTime() - start) / 1_000_000);
+                return true;
+            } catch (SQLException | IOException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    /** Streams the partition's orders in the range with their items, grouped by user. */
+    private static void export(Connection connection, OrderPartition partition, Range range,
+                               OrderArchive.ArchiveWriter writer) throws SQLException, IOException {
+        String sql = "SELECT o.id, o.user_id, o.order_date, o.status, o.total_amount, "
+                + "i.id, i.product_id, i.quantity, i.price "
+                + "FROM " + partition.name() + " o LEFT JOIN " + partition.itemPartition() + " i ON i.order_id = o.id "
+                + range.where("o.") + " ORDER BY o.user_id, o.id";
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            range.bind(statement);
+            statement.setFetchSize(FETCH_SIZE);
+            try (ResultSet result = statement.executeQuery()) {
+                Order order = null;
+                while (result.next()) {
+                    String id = result.getString(1);
+                    if (order == null || !order.getId().equals(id)) {
+                        if (order != null) {
+                            writer.write(order);
+                        }
+                        order = Order.builder()
+                                .id(id)
+                                .userId(result.getString(2))
+                                .orderDate(result.getTimestamp(3).toLocalDateTime())
+                                .status(OrderStatus.valueOf(result.getString(4)))
+                                .totalAmount(result.getDouble(5))
+                                .build();
+                    }
+                    if (result.getString(6) != null) {
+                        order.getItems().add(OrderItem.builder()
+                                .id(result.getString(6))
+                                .productId(result.getString(7))
+                                .quantity(result.getInt(8))
+                                .price(result.getDouble(9))
+                                .build());
+                    }
+                }
+                if (order != null) {
+                    writer.write(order);
+                }
+            }
+        }
+    }
+
+    private static long count(Connection connection, OrderPartition partition, Range range) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT count(*) FROM " + partition.name() + range.where(""))) {
+            range.bind(statement);
+            try (ResultSet result = statement.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    /** Deletes the items, then the orders in the range; the orders' delete trigger releases their IDs. */
+    private static void delete(Connection connection, OrderPartition partition, Range range) throws SQLException {
+        for (String table : List.of(partition.itemPartition(), partition.name())) {
+            try (PreparedStatement statement = connection.prepareStatement("DELETE FROM " + table + range.where(""))) {
+                range.bind(statement);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private LocalDateTime oldest(OrderPartition partition) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT min(order_date) FROM " + partition.name())) {
+            result.next();
+            Timestamp oldest = result.getTimestamp(1);
+            return oldest != null ? oldest.toLocalDateTime() : null;
+        }
+    }
+
+    private static boolean tryLock(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(TRY_LOCK_SQL)) {
+            result.next();
+            return result.getBoolean(1);
+        }
+    }
+
+    /** Order dates {@code from <= order_date < to}, or every row when {@code from} is {@code null}. */
+    private record Range(LocalDateTime from, LocalDateTime to) {
+
+        static final Range ALL = new Range(null, null);
+
+        static Range of(YearMonth month) {
+            return new Range(month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay());
+        }
+
+        String where(String alias) {
+            return from == null ? "" : " WHERE " + alias + "order_date >= ? AND " + alias + "order_date < ?";
+        }
+
+        void bind(PreparedStatement statement) throws SQLException {
+            if (from != null) {
+                statement.setTimestamp(1, Timestamp.valueOf(from));
+                statement.setTimestamp(2, Timestamp.valueOf(to));
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.orderservice.partitioning;
+
+import java.time.LocalDateTime;
+
+/**
+ * One partition of {@code orders}, holding the orders with
+ * {@code from <= order_date < to}, and the {@code order_item} partition with
+ * the same bounds that holds their items.
+ * @param from {@link LocalDateTime#MIN} for a partition without lower bound
+ */
+public record OrderPartition(String name, LocalDateTime from, LocalDateTime to) {
+
+    public String itemPartition() {
+        return "order_item" + name.substring("orders".length());
+    }
+}
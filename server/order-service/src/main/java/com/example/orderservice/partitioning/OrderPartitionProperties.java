@@ -0,0 +1,32 @@
+package com.example.orderservice.partitioning;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for {@link OrderPartitionSchema} and {@link OrderArchiver}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "order-partitions")
+public class OrderPartitionProperties {
+
+    /** Monthly partitions kept ready beyond the current month. */
+    private int premakeMonths = 3;
+
+    /**
+     * Months of orders kept in the database, the current one included. Older
+     * partitions are moved to the archive; 0 keeps everything.
+     */
+    private int retentionMonths = 24;
+
+    /** Must be shared by all instances that use the same database. */
+    private Path archiveDir = Path.of("order-archive");
+
+    /** How often partitions are created ahead and cold ones archived. */
+    private Duration maintenanceInterval = Duration.ofHours(1);
+}
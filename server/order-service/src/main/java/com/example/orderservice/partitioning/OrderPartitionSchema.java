@@ -0,0 +1,323 @@
+package com.example.orderservice.partitioning;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps {@code orders} and {@code order_item} as tables partitioned by month
+ * of {@code order_date}. Items carry their order's date, so an order and its
+ * items always sit in partitions with the same bounds and a month can be
+ * archived or dropped as a whole.
+ * <p>
+ * A partitioned table's primary key must include the partition column, so
+ * the key {@code (id, order_date)} alone would let one order ID exist in two
+ * months. {@code order_ids} holds the ID of every order in the table once,
+ * kept in step by triggers on {@code orders}, and its key makes an order ID
+ * unique across partitions. Dropping a partition releases its IDs.
+ * <p>
+ * Runs before Hibernate's schema update, which then finds the tables in
+ * place. A database with the earlier, unpartitioned tables is converted once:
+ * the old tables become one partition each, bounded above by the start of
+ * the next month, and monthly partitions follow. Left alone when
+ * {@code spring.jpa.hibernate.ddl-auto} is {@code none} or {@code validate}.
+ * <p>
+ * Statements run on a connection of their own, in transactions of their own,
+ * serialized across instances with an advisory lock.
+ */
+@Slf4j
+public class OrderPartitionSchema implements InitializingBean {
+
+    /** Taken for every change to the partitions, by all instances. */
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(4187125036921806241)";
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final Pattern LOWER_BOUND = Pattern.compile("FROM \\('([^']+)'\\)");
+    private static final Set<String> SCHEMA_LEFT_ALONE = Set.of("none", "validate");
+
+    private static final String[] CREATE_TABLES = {
+            """
+            CREATE TABLE orders (
+                id VARCHAR(255) NOT NULL,
+                user_id VARCHAR(255) NOT NULL,
+                order_date TIMESTAMP(6) NOT NULL,
+                status VARCHAR(255) NOT NULL,
+                total_amount FLOAT(53) NOT NULL,
+                PRIMARY KEY (id, order_date)
+            ) PARTITION BY RANGE (order_date)""",
+            """
+            CREATE TABLE order_item (
+                id VARCHAR(255) NOT NULL,
+                order_id VARCHAR(255),
+                order_date TIMESTAMP(6) NOT NULL,
+                product_id VARCHAR(255),
+                quantity INTEGER,
+                price FLOAT(53),
+                PRIMARY KEY (id, order_date),
+                FOREIGN KEY (order_id, order_date) REFERENCES orders (id, order_date)
+            ) PARTITION BY RANGE (order_date)""",
+            // my-orders, the admin listing (newest first) and an order's items
+            "CREATE INDEX idx_orders_user_id ON orders (user_id, order_date)",
+            "CREATE INDEX idx_orders_order_date ON orders (order_date, id)",
+            "CREATE INDEX idx_order_item_order_id ON order_item (order_id)"
+    };
+
+    private static final String[] CREATE_ORDER_IDS = {
+            "CREATE TABLE order_ids (id VARCHAR(255) PRIMARY KEY)",
+            "INSERT INTO order_ids (id) SELECT DISTINCT id FROM orders",
+            """
+            CREATE FUNCTION order_ids_claim() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                INSERT INTO order_ids (id) VALUES (NEW.id);
+                RETURN NULL;
+            END $$""",
+            """
+            CREATE FUNCTION order_ids_release() RETURNS trigger LANGUAGE plpgsql AS $$
+            BEGIN
+                DELETE FROM order_ids WHERE id = OLD.id;
+                RETURN NULL;
+            END $$""",
+            "CREATE TRIGGER orders_claim_id AFTER INSERT ON orders FOR EACH ROW EXECUTE FUNCTION order_ids_claim()",
+            "CREATE TRIGGER orders_release_id AFTER DELETE ON orders FOR EACH ROW EXECUTE FUNCTION order_ids_release()"
+    };
+
+    private final DataSource dataSource;
+    private final OrderPartitionProperties properties;
+    private final boolean manageSchema;
+
+    public OrderPartitionSchema(DataSource dataSource, OrderPartitionProperties properties, Environment environment) {
+        this.dataSource = dataSource;
+        this.properties = properties;
+        this.manageSchema = !SCHEMA_LEFT_ALONE.contains(
+                environment.getProperty("spring.jpa.hibernate.ddl-auto", "none").toLowerCase());
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        if (!manageSchema) {
+            log.info("Order partitions left alone: Hibernate does not manage the schema");
+            return;
+        }
+        inTransaction(connection -> {
+            String kind = tableKind(connection, "orders");
+            if (kind == null) {
+                execute(connection, CREATE_TABLES);
+                log.info("Created orders and order_item, partitioned by month");
+            } else if (kind.equals("r")) {
+                convertLegacyTables(connection);
+            }
+            if (tableKind(connection, "order_ids") == null) {
+                execute(connection, CREATE_ORDER_IDS);
+                log.info("Created order_ids, which keeps order IDs unique across partitions");
+            }
+        });
+        YearMonth now = YearMonth.now();
+        ensurePartitions(now, now.plusMonths(properties.getPremakeMonths()));
+    }
+
+    /**
+     * Creates the monthly partitions from {@code first} through {@code last}
+     * that are missing. Months that an existing partition already covers,
+     * such as the converted legacy one, are skipped. Must not be called
+     * inside a transaction that has written orders, as creating a partition
+     * waits for every transaction on the tables.
+     */
+    public void ensurePartitions(YearMonth first, YearMonth last) {
+        if (!manageSchema) {
+            return;
+        }
+        try {
+            inTransaction(connection -> {
+                List<OrderPartition> existing = partitions(connection);
+                List<String> created = new ArrayList<>();
+                for (YearMonth month = first; !month.isAfter(last); month = month.plusMonths(1)) {
+                    LocalDateTime from = month.atDay(1).atStartOfDay();
+                    LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+                    boolean covered = existing.stream()
+                            .anyMatch(partition -> partition.from().isBefore(to) && partition.to().isAfter(from));
+                    if (covered) {
+                        continue;
+                    }
+                    String name = monthName(month);
+                    OrderPartition partition = new OrderPartition(name, from, to);
+                    String bounds = String.format("FOR VALUES FROM ('%s') TO ('%s')",
+                            Timestamp.valueOf(from), Timestamp.valueOf(to));
+                    execute(connection,
+                            "CREATE TABLE " + name + " PARTITION OF orders " + bounds,
+                            "CREATE TABLE " + partition.itemPartition() + " PARTITION OF order_item " + bounds);
+                    created.add(name);
+                }
+                if (!created.isEmpty()) {
+                    log.info("Created order partitions {}", created);
+                }
+            });
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not create order partitions " + first + " to " + last, ex);
+        }
+    }
+
+    /** Name of the monthly partition for {@code month}, and of its archive file. */
+    static String monthName(YearMonth month) {
+        return String.format("orders_p%04d_%02d", month.getYear(), month.getMonthValue());
+    }
+
+    /**
+     * The partitions of {@code orders}, oldest first.
+     */
+    public List<OrderPartition> partitions() {
+        try (Connection connection = dataSource.getConnection()) {
+            return partitions(connection);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not list the order partitions", ex);
+        }
+    }
+
+    private void convertLegacyTables(Connection connection) throws SQLException {
+        execute(connection,
+                "ALTER TABLE order_item RENAME TO order_item_legacy",
+                "ALTER TABLE orders RENAME TO orders_legacy");
+        // Hibernate's key and foreign key only cover the ID, and their names are taken by the new tables
+        for (String table : List.of("order_item_legacy", "orders_legacy")) {
+            for (String constraint : constraints(connection, table)) {
+                execute(connection, "ALTER TABLE " + table + " DROP CONSTRAINT " + constraint);
+            }
+        }
+        execute(connection,
+                "ALTER TABLE order_item_legacy ADD COLUMN IF NOT EXISTS order_date TIMESTAMP(6)",
+                "UPDATE order_item_legacy i SET order_date = o.order_date FROM orders_legacy o WHERE o.id = i.order_id");
+        int orphans;
+        try (Statement statement = connection.createStatement()) {
+            orphans = statement.executeUpdate("DELETE FROM order_item_legacy WHERE order_date IS NULL");
+        }
+        execute(connection, "ALTER TABLE order_item_legacy ALTER COLUMN order_date SET NOT NULL");
+        execute(connection, CREATE_TABLES);
+
+        LocalDateTime newest = LocalDateTime.now();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT max(order_date) FROM orders_legacy")) {
+            result.next();
+            Timestamp max = result.getTimestamp(1);
+            if (max != null && max.toLocalDateTime().isAfter(newest)) {
+                newest = max.toLocalDateTime();
+            }
+        }
+        Timestamp bound = Timestamp.valueOf(YearMonth.from(newest).plusMonths(1).atDay(1).atStartOfDay());
+        execute(connection,
+                "ALTER TABLE orders ATTACH PARTITION orders_legacy FOR VALUES FROM (MINVALUE) TO ('" + bound + "')",
+                "ALTER TABLE order_item ATTACH PARTITION order_item_legacy FOR VALUES FROM (MINVALUE) TO ('"
+                        + bound + "')");
+        log.info("Converted orders and order_item to partitioned tables; existing orders are in orders_legacy "
+                + "until {} ({} items without an order dropped)", bound, orphans);
+    }
+
+    /**
+     * Drops the partition's orders and items, in the caller's transaction.
+     * Dropping fires no delete triggers, so the IDs are released first. The
+     * orders partition is referenced by the items' foreign key, so it is
+     * detached once the items are gone, and then dropped.
+     */
+    static void drop(Connection connection, OrderPartition partition) throws SQLException {
+        execute(connection, LOCK_SQL,
+                "DELETE FROM order_ids USING " + partition.name() + " o WHERE order_ids.id = o.id",
+                "DROP TABLE " + partition.itemPartition(),
+                "ALTER TABLE orders DETACH PARTITION " + partition.name(),
+                "DROP TABLE " + partition.name());
+    }
+
+    static List<OrderPartition> partitions(Connection connection) throws SQLException {
+        List<OrderPartition> partitions = new ArrayList<>();
+        if (!"p".equals(tableKind(connection, "orders"))) {
+            return partitions;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("""
+                     SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i
+                     JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = 'orders'::regclass""")) {
+            while (result.next()) {
+                String bounds = result.getString(2);
+                Matcher lower = LOWER_BOUND.matcher(bounds);
+                Matcher upper = UPPER_BOUND.matcher(bounds);
+                if (!upper.find()) {
+                    continue; // a default partition
+                }
+                LocalDateTime from = lower.find() ? Timestamp.valueOf(lower.group(1)).toLocalDateTime() : LocalDateTime.MIN;
+                partitions.add(new OrderPartition(result.getString(1), from,
+                        Timestamp.valueOf(upper.group(1)).toLocalDateTime()));
+            }
+        }
+        partitions.sort(Comparator.comparing(OrderPartition::from));
+        return partitions;
+    }
+
+    /** {@code r} for a plain table, {@code p} for a partitioned one, {@code null} if missing. */
+    private static String tableKind(Connection connection, String table) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT c.relkind FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE c.relname = ? AND n.nspname = current_schema()""")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() ? result.getString(1) : null;
+            }
+        }
+    }
+
+    /** Foreign keys first, then the primary key. */
+    private static List<String> constraints(Connection connection, String table) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT conname FROM pg_constraint WHERE conrelid = ?::regclass AND contype IN ('f', 'p')
+                ORDER BY contype""")) {
+            statement.setString(1, table);
+            try (ResultSet result = statement.executeQuery()) {
+                while (result.next()) {
+                    names.add(result.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static void execute(Connection connection, String... statements) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private void inTransaction(SqlWork work) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                execute(connection, LOCK_SQL);
+                work.run(connection);
+                connection.commit();
+            } catch (SQLException | RuntimeException ex) {
+                connection.rollback();
+                throw ex;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run(Connection connection) throws SQLException;
+    }
+}
@@ -4,9 +4,14 @@ import com.example.orderservice.entities.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
     List<Order> findByUserId(String userId);
+
+    long deleteByUserId(String userId);
+
+    long deleteByUserIdAndIdIn(String userId, Collection<String> ids);
 }
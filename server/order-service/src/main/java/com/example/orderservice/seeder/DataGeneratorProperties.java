@@ -0,0 +1,60 @@
+package com.example.orderservice.seeder;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+/**
+ * Settings for {@link OrderDataGenerator}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datagen")
+public class DataGeneratorProperties {
+
+    private boolean enabled = false;
+
+    /** Must match product-service's, for the orders to refer to its generated products. */
+    private long seed = 42;
+
+    /** Generated products to choose from; must match product-service's. */
+    private int products = 1_000_000;
+
+    private int users = 1_000_000;
+
+    /**
+     * Tail of the orders per user: the chance of at least {@code k} orders is
+     * {@code k^-shape}, so lower means more heavy buyers. 1.5 gives 65% of
+     * users a single order and about 2.5 orders per user on average.
+     */
+    private double ordersPerUserShape = 1.5;
+
+    private int maxOrdersPerUser = 1_000;
+
+    /** The same for the items per order; 1.6 gives about 2.1 on average. */
+    private double itemsPerOrderShape = 1.6;
+
+    private int maxItemsPerOrder = 50;
+
+    /** Zipf exponent of product popularity; 0 makes every product equally popular. */
+    private double popularityExponent = 1.0;
+
+    /** Orders are spread evenly over this many days before {@link #endDate}. */
+    private int days = 730;
+
+    /** Day after the newest order. Defaults to the day the run was first started. */
+    private LocalDate endDate;
+
+    /** Users per transaction, and per chunk of a resumable run. */
+    private int batchSize = 200;
+
+    private int threads = 4;
+
+    /** Forget the progress of an earlier run, e.g. one with other settings. */
+    private boolean restart = false;
+
+    /** Shut down once the orders are written, instead of going on to serve requests. */
+    private boolean exit = true;
+}
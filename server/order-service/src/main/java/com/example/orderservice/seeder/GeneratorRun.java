@@ -0,0 +1,158 @@
+package com.example.orderservice.seeder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Writes a generated data set in numbered chunks on several threads,
+ * resumably. Each chunk is written in one transaction together with a row in
+ * {@code datagen_chunk}, so after an interruption exactly the chunks without
+ * such a row are written again. Chunk contents must depend only on the run's
+ * settings and the chunk number; the settings are recorded in
+ * {@code datagen_run} and a run can only be resumed with the same ones.
+ */
+@Slf4j
+public class GeneratorRun {
+
+    /** Writes the rows of one chunk and returns how many. */
+    @FunctionalInterface
+    public interface ChunkWriter {
+        int write(int chunk);
+    }
+
+    private final String generator;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Starts a run or picks up the unfinished one of the same generator.
+     * @param restart forget the progress of an earlier run, e.g. one with other settings;
+     *                rows it wrote stay and are skipped where the IDs repeat
+     * @throws IllegalStateException if an earlier run had other settings
+     */
+    public GeneratorRun(String generator, Map<String, String> settings, boolean restart,
+                        JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.generator = generator;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        createTables(jdbcTemplate);
+        if (restart) {
+            jdbcTemplate.update("DELETE FROM datagen_chunk WHERE generator = ?", generator);
+            jdbcTemplate.update("DELETE FROM datagen_run WHERE generator = ?", generator);
+        }
+        Map<String, String> earlier = storedSettings(jdbcTemplate, generator);
+        if (earlier == null) {
+            jdbcTemplate.update("INSERT INTO datagen_run (generator, settings) VALUES (?, ?)", generator, format(settings));
+        } else if (!earlier.equals(settings)) {
+            throw new IllegalStateException("The " + generator + " generator was last run with " + earlier
+                    + ". Resume it with those settings, or set datagen.restart=true to start over with " + settings);
+        }
+    }
+
+    /**
+     * Settings of the last run of the generator, or {@code null} if it has
+     * not been run against this database.
+     */
+    public static Map<String, String> storedSettings(JdbcTemplate jdbcTemplate, String generator) {
+        createTables(jdbcTemplate);
+        List<String> stored = jdbcTemplate.queryForList(
+                "SELECT settings FROM datagen_run WHERE generator = ?", String.class, generator);
+        return stored.isEmpty() ? null : parse(stored.get(0));
+    }
+
+    /**
+     * Writes chunks {@code 0} to {@code chunks - 1} that are not written yet.
+     * Stops at the first failure; running again resumes after the chunks
+     * written so far.
+     */
+    public void execute(int chunks, int threads, ChunkWriter writer) throws InterruptedException {
+        Set<Integer> done = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT chunk FROM datagen_chunk WHERE generator = ?", Integer.class, generator));
+        List<Integer> remaining = new ArrayList<>();
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            if (!done.contains(chunk)) {
+                remaining.add(chunk);
+            }
+        }
+        if (remaining.isEmpty()) {
+            log.info("Data generator {}: all {} chunks already written", generator, chunks);
+            return;
+        }
+        log.info("Data generator {}: writing {} of {} chunks on {} threads", generator, remaining.size(), chunks,
+                threads);
+
+        long start = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+            for (int chunk : remaining) {
+                completion.submit(() -> {
+                    Integer written = transactionTemplate.execute(status -> {
+                        int count = writer.write(chunk);
+                        jdbcTemplate.update("INSERT INTO datagen_chunk (generator, chunk, row_count) VALUES (?, ?, ?)",
+                                generator, chunk, count);
+                        return count;
+                    });
+                    rows.addAndGet(written);
+                    return chunk;
+                });
+            }
+            int reportEvery = Math.max(1, remaining.size() / 20);
+            for (int completed = 1; completed <= remaining.size(); completed++) {
+                try {
+                    completion.take().get();
+                } catch (ExecutionException ex) {
+                    throw new IllegalStateException("Data generator " + generator + " failed after " + (completed - 1)
+                            + " chunks; run it again with the same settings to resume", ex.getCause());
+                }
+                if (completed % reportEvery == 0 || completed == remaining.size()) {
+                    double seconds = Math.max((System.nanoTime() - start) / 1e9, 0.001);
+                    log.info("Data generator {}: {}/{} chunks, {} rows, {} rows/s", generator,
+                            done.size() + completed, chunks, rows.get(), Math.round(rows.get() / seconds));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void createTables(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS datagen_run ("
+                + "generator VARCHAR(64) PRIMARY KEY, settings TEXT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS datagen_chunk ("
+                + "generator VARCHAR(64) NOT NULL, chunk INTEGER NOT NULL, row_count INTEGER NOT NULL, "
+                + "PRIMARY KEY (generator, chunk))");
+    }
+
+    private static String format(Map<String, String> settings) {
+        return settings.entrySet().stream()
+                .map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining("\n"));
+    }
+
+    private static Map<String, String> parse(String settings) {
+        Map<String, String> parsed = new LinkedHashMap<>();
+        for (String line : settings.split("\n")) {
+            int separator = line.indexOf('=');
+            parsed.put(line.substring(0, separator), line.substring(separator + 1));
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.orderservice.seeder;
+
+import com.example.orderservice.enums.OrderStatus;
+import com.example.orderservice.partitioning.OrderPartitionSchema;
+import com.example.orderservice.services.OrderHistoryChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the order database with the order histories of {@code datagen.users}
+ * synthetic users, written straight to the database in parallel JDBC batches,
+ * for reproducing query plans at production volume. Runs when
+ * {@code datagen.enabled} is set, then shuts the application down.
+ * <p>
+ * Orders per user and items per order are heavy-tailed (discrete Pareto):
+ * most users have one or two orders and a few have hundreds. Products are
+ * chosen by Zipfian popularity among the products product-service's
+ * generator writes with the same seed, at their list prices. User {@code u}'s
+ * orders are a pure function of the settings and {@code u}, so runs are
+ * reproducible and resumable. Cached order histories are dropped when the
+ * run finishes.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class OrderDataGenerator implements ApplicationRunner {
+
+    static final String GENERATOR = "orders";
+
+    private static final long USERS = 11;
+    private static final long USER_IDS = 12;
+    private static final long ORDERS = 13;
+    private static final long ORDER_IDS = 14;
+    private static final long ITEM_IDS = 15;
+    private static final long POPULARITY = 16;
+    /** Prime, so that multiplying by it permutes the product indexes of any smaller catalog. */
+    private static final long PERMUTATION = 1_000_000_007L;
+    private static final int MAX_QUANTITY = 10;
+    private static final double PENDING_SHARE = 0.02;
+
+    /** Skips IDs already taken, in any month; see {@link OrderPartitionSchema}. */
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, user_id, order_date, status, total_amount) " +
+            "SELECT ?, ?, CAST(? AS TIMESTAMP), ?, ? WHERE NOT EXISTS (SELECT 1 FROM order_ids WHERE id = ?) " +
+            "ON CONFLICT (id, order_date) DO NOTHING";
+    private static final String INSERT_ITEM =
+            "INSERT INTO order_item (id, product_id, quantity, price, order_id, order_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id, order_date) DO NOTHING";
+
+    private final DataGeneratorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPartitionSchema partitionSchema;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDate endDate = properties.getEndDate();
+        if (endDate == null) {
+            // A resumed run keeps the dates it started with
+            Map<String, String> earlier = properties.isRestart()
+                    ? null : GeneratorRun.storedSettings(jdbcTemplate, GENERATOR);
+            endDate = earlier != null && earlier.containsKey("end-date")
+                    ? LocalDate.parse(earlier.get("end-date")) : LocalDate.now();
+        }
+        Settings settings = new Settings(properties, endDate);
+
+        long start = System.nanoTime();
+        partitionSchema.ensurePartitions(YearMonth.from(endDate.minusDays(settings.days)), YearMonth.from(endDate));
+        GeneratorRun run = new GeneratorRun(GENERATOR, settings.describe(), properties.isRestart(), jdbcTemplate,
+                transactionTemplate);
+        int batchSize = properties.getBatchSize();
+        int chunks = (properties.getUsers() + batchSize - 1) / batchSize;
+        run.execute(chunks, properties.getThreads(), chunk -> {
+            List<Object[]> orders = new ArrayList<>();
+            List<Object[]> items = new ArrayList<>();
+            int first = chunk * batchSize;
+            for (int user = first; user < Math.min(first + batchSize, properties.getUsers()); user++) {
+                generateUser(settings, user, orders, items);
+            }
+            return insert(orders, items);
+        });
+        log.info("Generated the orders of {} users in {} s", properties.getUsers(),
+                (System.nanoTime() - start) / 1_000_000_000);
+        context.publishEvent(OrderHistoryChangedEvent.allUsers());
+
+        if (properties.isExit()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * Writes the orders whose IDs are free and the items of those orders. An
+     * ID can already be taken by a run with the same seed and other dates.
+     * @return rows written
+     */
+    private int insert(List<Object[]> orders, List<Object[]> items) {
+        List<Object[]> orderRows = orders.stream().map(order -> {
+            Object[] row = Arrays.copyOf(order, order.length + 1);
+            row[order.length] = order[0];
+            return row;
+        }).toList();
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_ORDER, orderRows);
+        Set<Object> written = new HashSet<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                written.add(orders.get(i)[0]);
+            }
+        }
+        List<Object[]> writtenItems = items.stream().filter(item -> written.contains(item[4])).toList();
+        jdbcTemplate.batchUpdate(INSERT_ITEM, writtenItems);
+        return written.size() + writtenItems.size();
+    }
+
+    /** Adds the rows of user {@code user}'s orders and their items. */
+    static void generateUser(Settings settings, int user, List<Object[]> orders, List<Object[]> items) {
+        long seed = settings.seed;
+        long userKey = SyntheticCatalog.key(seed, USERS, user);
+        SplittableRandom random = new SplittableRandom(userKey);
+        String userId = SyntheticCatalog.uuid(SyntheticCatalog.key(seed, USER_IDS, user));
+        long offset = new SplittableRandom(SyntheticCatalog.key(seed, POPULARITY, 0)).nextLong(settings.products);
+
+        int orderCount = pareto(random, settings.ordersPerUserShape, settings.maxOrdersPerUser);
+        for (int order = 0; order < orderCount; order++) {
+            long orderKey = SyntheticCatalog.key(userKey, ORDERS, order);
+            String orderId = SyntheticCatalog.uuid(SyntheticCatalog.key(orderKey, ORDER_IDS, 0));
+            Timestamp orderDate = Timestamp.valueOf(settings.endDate.atStartOfDay()
+                    .minusSeconds(1 + random.nextLong(settings.days * 86_400L)));
+            OrderStatus status = random.nextDouble() < PENDING_SHARE ? OrderStatus.PENDING : OrderStatus.VALIDATED;
+
+            int itemCount = pareto(random, settings.itemsPerOrderShape, settings.maxItemsPerOrder);
+            Set<Long> products = new HashSet<>();
+            double total = 0;
+            for (int item = 0; item < itemCount; item++) {
+                // Each product once per order; popular ones may take a few draws to get past
+                long product = -1;
+                for (int attempt = 0; attempt < 10 && (product < 0 || products.contains(product)); attempt++) {
+                    long rank = settings.popularity.sample(random) - 1;
+                    product = Math.floorMod(rank * PERMUTATION + offset, (long) settings.products);
+                }
+                if (!products.add(product)) {
+                    continue;
+                }
+                int quantity = pareto(random, 3.0, MAX_QUANTITY);
+                double price = SyntheticCatalog.productPrice(seed, product);
+                total += price * quantity;
+                items.add(new Object[]{SyntheticCatalog.uuid(SyntheticCatalog.key(orderKey, ITEM_IDS, item)),
+                        SyntheticCatalog.productId(seed, product), quantity, price, orderId, orderDate});
+            }
+            orders.add(new Object[]{orderId, userId, orderDate, status.name(),
+                    Math.round(total * 100) / 100.0});
+        }
+    }
+
+    /**
+     * A discrete Pareto draw of at least 1: {@code P(k >= x) = x^-shape},
+     * capped at {@code max}.
+     */
+    static int pareto(SplittableRandom random, double shape, int max) {
+        double draw = Math.floor(Math.pow(1 - random.nextDouble(), -1 / shape));
+        return (int) Math.min(draw, max);
+    }
+
+    /** The settings a run's contents depend on. */
+    static final class Settings {
+        final long seed;
+        final int products;
+        final int users;
+        final double ordersPerUserShape;
+        final int maxOrdersPerUser;
+        final double itemsPerOrderShape;
+        final int maxItemsPerOrder;
+        final double popularityExponent;
+        final int days;
+        final LocalDate endDate;
+        final int batchSize;
+        final ZipfSampler popularity;
+
+        Settings(DataGeneratorProperties properties, LocalDate endDate) {
+            this.seed = properties.getSeed();
+            this.products = properties.getProducts();
+            this.users = properties.getUsers();
+            this.ordersPerUserShape = properties.getOrdersPerUserShape();
+            this.maxOrdersPerUser = properties.getMaxOrdersPerUser();
+            this.itemsPerOrderShape = properties.getItemsPerOrderShape();
+            this.maxItemsPerOrder = properties.getMaxItemsPerOrder();
+            this.popularityExponent = properties.getPopularityExponent();
+            this.days = properties.getDays();
+            this.endDate = endDate;
+            this.batchSize = properties.getBatchSize();
+            this.popularity = new ZipfSampler(products, popularityExponent);
+        }
+
+        Map<String, String> describe() {
+            Map<String, String> settings = new LinkedHashMap<>();
+            settings.put("seed", String.valueOf(seed));
+            settings.put("products", String.valueOf(products));
+            settings.put("users", String.valueOf(users));
+            settings.put("orders-per-user-shape", String.valueOf(ordersPerUserShape));
+            settings.put("max-orders-per-user", String.valueOf(maxOrdersPerUser));
+            settings.put("items-per-order-shape", String.valueOf(itemsPerOrderShape));
+            settings.put("max-items-per-order", String.valueOf(maxItemsPerOrder));
+            settings.put("popularity-exponent", String.valueOf(popularityExponent));
+            settings.put("days", String.valueOf(days));
+            settings.put("end-date", endDate.toString());
+            settings.put("batch-size", String.valueOf(batchSize));
+            return settings;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.orderservice.seeder;
+
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * The parts of generated data that are a pure function of the seed: IDs,
+ * random streams and product prices. A copy of product-service's class of
+ * the same name, so that orders can refer to generated products and charge
+ * their prices without reading product-service's database. The two copies
+ * must stay identical.
+ */
+public final class SyntheticCatalog {
+
+    static final long PRODUCTS = 1;
+    static final long PRODUCT_IDS = 2;
+    static final long PRICES = 3;
+
+    private static final double MEDIAN_PRICE = 40.0;
+    private static final double PRICE_SPREAD = 1.0;
+
+    private SyntheticCatalog() {
+    }
+
+    /** ID of the product with the given index, 0-based. */
+    public static String productId(long seed, long index) {
+        return uuid(key(seed, PRODUCT_IDS, index));
+    }
+
+    /**
+     * List price of the product with the given index: log-normal around
+     * 40.00, so most products are cheap and a few cost thousands.
+     */
+    public static double productPrice(long seed, long index) {
+        SplittableRandom random = new SplittableRandom(key(seed, PRICES, index));
+        // Box-Muller, not nextGaussian(), whose algorithm is up to the JDK
+        double gaussian = Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        double price = Math.exp(Math.log(MEDIAN_PRICE) + PRICE_SPREAD * gaussian);
+        return Math.round(Math.min(Math.max(price, 0.99), 9_999.99) * 100) / 100.0;
+    }
+
+    /** Key of an independent random stream, for nesting: {@code key(key(seed, a, i), b, j)}. */
+    public static long key(long parent, long stream, long index) {
+        return mix(parent + mix(stream + mix(index)));
+    }
+
+    /** A version 4 UUID made from the key, so generated IDs look like real ones. */
+    public static String uuid(long key) {
+        long high = (mix(key) & ~0xF000L) | 0x4000L;
+        long low = (mix(~key) & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L;
+        return new UUID(high, low).toString();
+    }
+
+    /** SplitMix64's finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.orderservice.services;
+
+/**
+ * Published whenever orders are created, changed or removed. Listeners that
+ * keep derived data (the order history cache) in sync should react after
+ * commit.
+ *
+ * @param userId owner of the changed orders, or {@code null} when orders of
+ *               any user may have changed
+ */
+public record OrderHistoryChangedEvent(String userId) {
+
+    public static OrderHistoryChangedEvent allUsers() {
+        return new OrderHistoryChangedEvent(null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.orderservice.services;
+
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.entities.OrderItem;
+import com.example.orderservice.partitioning.OrderPartitionSchema;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Copies orders between shards with their original identifiers.
+ * JPA would assign new UUIDs on persist, so the rows are written with plain JDBC.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderImportService {
+
+    /** Skips IDs already taken, in any month; see {@link OrderPartitionSchema}. */
+    private static final String INSERT_ORDER =
+            "INSERT INTO orders (id, user_id, order_date, status, total_amount) " +
+            "SELECT ?, ?, CAST(? AS TIMESTAMP), ?, ? WHERE NOT EXISTS (SELECT 1 FROM order_ids WHERE id = ?) " +
+            "ON CONFLICT (id, order_date) DO NOTHING";
+    private static final String INSERT_ITEM =
+            "INSERT INTO order_item (id, product_id, quantity, price, order_id, order_date) " +
+            "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT (id, order_date) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderPartitionSchema partitionSchema;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Inserts the given orders unless an order with the same ID already exists,
+     * in whichever month, which makes a retried migration safe. Items are only written for the
+     * orders inserted here, so an existing order (and its cached item list)
+     * never gains items behind Hibernate's back. The partitions for the
+     * orders' months are created first, in transactions of their own.
+     * @return number of orders written
+     */
+    public int importOrders(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return 0;
+        }
+        List<YearMonth> months = orders.stream().map(order -> YearMonth.from(order.getOrderDate())).sorted().toList();
+        partitionSchema.ensurePartitions(months.get(0), months.get(months.size() - 1));
+        return transactionTemplate.execute(status -> insert(orders));
+    }
+
+    private int insert(List<Order> orders) {
+        List<Object[]> orderRows = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            orderRows.add(new Object[]{
+                    order.getId(), order.getUserId(), Timestamp.valueOf(order.getOrderDate()),
+                    order.getStatus().name(), order.getTotalAmount(), order.getId()
+            });
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_ORDER, orderRows);
+
+        int written = 0;
+        Set<String> users = new HashSet<>();
+        List<Object[]> itemRows = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            written += Math.max(counts[i], 0);
+            Order order = orders.get(i);
+            users.add(order.getUserId());
+            for (OrderItem item : order.getItems()) {
+                itemRows.add(new Object[]{
+                        item.getId(), item.getProductId(), item.getQuantity(), item.getPrice(), order.getId(),
+                        Timestamp.valueOf(order.getOrderDate())
+                });
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, itemRows);
+        users.forEach(userId -> eventPublisher.publishEvent(new OrderHistoryChangedEvent(userId)));
+        log.info("Imported {} of {} orders ({} items)", written, orders.size(), itemRows.size());
+        return written;
+    }
+}
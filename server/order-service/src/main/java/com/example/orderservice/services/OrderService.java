@@ -1,5 +1,6 @@
 package com.example.orderservice.services;
 
+import com.example.orderservice.cache.OrderHistory;
 import com.example.orderservice.client.ProductClient;
 import com.example.orderservice.dto.OrderRequestDTO;
 import com.example.orderservice.dto.ProductDTO;
@@ -7,14 +8,26 @@ import com.example.orderservice.entities.Order;
 import com.example.orderservice.entities.OrderItem;
 import com.example.orderservice.enums.OrderStatus;
 import com.example.orderservice.exceptions.InsufficientStockException;
+import com.example.orderservice.partitioning.OrderArchive;
 import com.example.orderservice.repositories.OrderRepository;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,15 +36,76 @@ public class OrderService {
     
     private final OrderRepository orderRepository;
     private final ProductClient productClient;
+    private final OrderArchive orderArchive;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
+    @Transactional(readOnly = true)
     public List<Order> findAll() {
         return orderRepository.findAll();
     }
 
+    /**
+     * Returns one page of all orders, newest first. The stable sort lets the
+     * gateway merge pages coming from several shards.
+     */
+    @Transactional(readOnly = true)
+    public Page<Order> findAll(int page, int size) {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "orderDate").and(Sort.by("id"));
+        return orderRepository.findAll(PageRequest.of(page, size, newestFirst));
+    }
+
+    @Transactional(readOnly = true)
     public List<Order> findByUserId(String userId) {
         return orderRepository.findByUserId(userId);
     }
 
+    /**
+     * The user's orders, followed by their archived ones, newest first.
+     * The archive is read before the database, so no connection is held
+     * while its files are scanned.
+     */
+    @Transactional(readOnly = true)
+    public List<Order> findByUserIdIncludingArchived(String userId) {
+        List<Order> archived;
+        try {
+            archived = new ArrayList<>(orderArchive.findByUserId(userId));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read the order archive", ex);
+        }
+        List<Order> orders = new ArrayList<>(orderRepository.findByUserId(userId));
+        Set<String> live = orders.stream().map(Order::getId).collect(Collectors.toSet());
+        // A partition being archived right now may briefly be in both places
+        archived.removeIf(order -> live.contains(order.getId()));
+        archived.sort(Comparator.comparing(Order::getOrderDate).reversed());
+        orders.addAll(archived);
+        return orders;
+    }
+
+    /**
+     * The user's orders as the {@code my-orders} response body.
+     */
+    @Transactional(readOnly = true)
+    public OrderHistory findHistory(String userId) {
+        return OrderHistory.of(objectMapper, orderRepository.findByUserId(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public OrderHistory findHistoryIncludingArchived(String userId) {
+        return OrderHistory.of(objectMapper, findByUserIdIncludingArchived(userId));
+    }
+
+    /**
+     * @param ids orders to delete, or {@code null} for all of the user's orders
+     */
+    public long deleteByUserId(String userId, Collection<String> ids) {
+        long deleted = ids == null
+                ? orderRepository.deleteByUserId(userId)
+                : orderRepository.deleteByUserIdAndIdIn(userId, ids);
+        eventPublisher.publishEvent(new OrderHistoryChangedEvent(userId));
+        return deleted;
+    }
+
     public Order createOrder(OrderRequestDTO request, String userId) {
         Order order = new Order();
         order.setUserId(userId);
@@ -66,6 +140,8 @@ public class OrderService {
         order.setTotalAmount(total);
         order.setStatus(OrderStatus.VALIDATED);
 
-        return orderRepository.save(order);
+        Order saved = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderHistoryChangedEvent(userId));
+        return saved;
     }
 }
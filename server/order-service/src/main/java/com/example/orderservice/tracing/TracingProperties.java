@@ -0,0 +1,29 @@
+package com.example.orderservice.tracing;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+
+/**
+ * Local span export. Sampling and OTLP export are configured with the
+ * standard {@code management.tracing.*} and {@code management.otlp.tracing.*}
+ * properties.
+ */
+@Getter
+@ConfigurationProperties(prefix = "tracing")
+public class TracingProperties {
+
+    private final File file = new File();
+
+    @Getter
+    @Setter
+    public static class File {
+
+        /** Append sampled spans as JSON lines to {@code path}. */
+        private boolean enabled = false;
+
+        private Path path = Path.of("traces/spans.jsonl");
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.orderservice.warmup;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each warm-up request in a transaction that is always rolled back.
+ * The request's own transactions join it, and pending changes are flushed
+ * before the rollback so that their inserts still execute. Other requests
+ * pass straight through.
+ */
+@RequiredArgsConstructor
+public class WarmupFilter extends OncePerRequestFilter {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private final WarmupRunner runner;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    /**
+     * Whether the calling thread is serving a warm-up request.
+     */
+    static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!runner.isWarmupRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ACTIVE.set(Boolean.TRUE);
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            filterChain.doFilter(request, response);
+            if (!transaction.isRollbackOnly()) {
+                entityManager.flush();
+            }
+        } finally {
+            transactionManager.rollback(transaction);
+            ACTIVE.remove();
+        }
+    }
+}
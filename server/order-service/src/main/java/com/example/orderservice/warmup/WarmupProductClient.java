@@ -0,0 +1,43 @@
+package com.example.orderservice.warmup;
+
+import com.example.orderservice.dto.ProductDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Answers the product lookups of warm-up requests with a made-up product in
+ * stock, so warm-up neither waits for product-service nor adds to its load.
+ * All other calls go to the delegate.
+ */
+@RequiredArgsConstructor
+public class WarmupProductClient implements Client {
+
+    private final Client delegate;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!WarmupFilter.isActive()) {
+            return delegate.execute(request, options);
+        }
+        String path = URI.create(request.url()).getPath();
+        String id = path.substring(path.lastIndexOf('/') + 1);
+        byte[] body = objectMapper.writeValueAsBytes(
+                new ProductDTO(id, "Warm-up product", "Not for sale", 10.0, Integer.MAX_VALUE));
+        return Response.builder()
+                .request(request)
+                .status(200)
+                .reason("OK")
+                .headers(Map.of("Content-Type", List.of("application/json")))
+                .body(body)
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.orderservice.warmup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link WarmupRunner}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupProperties {
+
+    private boolean enabled = false;
+
+    /** Most rounds to run; each round sends every warm-up request once. */
+    private int iterations = 2000;
+
+    /** Rounds per window; the median round time of each window is compared with the previous one. */
+    private int window = 100;
+
+    /**
+     * Warm-up ends early once a window is less than this fraction faster
+     * than the previous one.
+     */
+    private double tolerance = 0.05;
+
+    /** Readiness is never held back for longer than this. */
+    private Duration timeout = Duration.ofMinutes(2);
+}
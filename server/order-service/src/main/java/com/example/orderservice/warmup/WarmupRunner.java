@@ -0,0 +1,150 @@
+package com.example.orderservice.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the main requests to this instance over loopback until the JIT has
+ * compiled their paths, so that the first real requests after a deploy do
+ * not run interpreted. Application runners finish before Spring Boot
+ * publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so the instance stays
+ * out of service ({@code /actuator/health/readiness}) until warm-up is done.
+ *
+ * <p>Each round creates an order, lists the caller's orders and lists one
+ * admin page. Requests carry tokens from {@link WarmupTokens} and a key known
+ * only to this run; {@link WarmupFilter} rolls back whatever they write and
+ * {@link WarmupProductClient} answers their product lookups. Rounds stop at
+ * the iteration limit, at the timeout, or once a window of rounds is no
+ * longer noticeably faster than the one before. A failed request ends
+ * warm-up early but never startup.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+
+    static final String HEADER = "X-Warmup";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WarmupProperties properties;
+    private final WarmupTokens tokens;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private volatile String key;
+
+    /**
+     * Whether the request was sent by the warm-up that is running now.
+     */
+    boolean isWarmupRequest(HttpServletRequest request) {
+        String current = key;
+        return current != null && current.equals(request.getHeader(HEADER));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String port = environment.getProperty("local.server.port");
+        if (!properties.isEnabled() || port == null) {
+            return;
+        }
+        key = UUID.randomUUID().toString();
+        tokens.start();
+        try {
+            warmUp(requests("http://127.0.0.1:" + port));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.warn("Warm-up stopped early: {}", ex.getMessage());
+        } finally {
+            key = null;
+            tokens.revoke();
+        }
+    }
+
+    private void warmUp(List<HttpRequest> round) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        long started = System.nanoTime();
+        long deadline = started + properties.getTimeout().toNanos();
+        long[] window = new long[Math.max(properties.getWindow(), 1)];
+        long firstMedian = 0;
+        long lastMedian = 0;
+        int rounds = 0;
+        String reason = "iteration limit";
+        while (rounds < properties.getIterations()) {
+            if (System.nanoTime() > deadline) {
+                reason = "timeout";
+                break;
+            }
+            long roundStarted = System.nanoTime();
+            for (HttpRequest request : round) {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 300) {
+                    throw new IllegalStateException(request.method() + " " + request.uri() + " answered "
+                            + response.statusCode());
+                }
+            }
+            window[rounds % window.length] = System.nanoTime() - roundStarted;
+            rounds++;
+            if (rounds % window.length == 0) {
+                long median = median(window);
+                boolean stable = lastMedian > 0 && median > lastMedian * (1 - properties.getTolerance());
+                if (lastMedian == 0) {
+                    firstMedian = median;
+                }
+                lastMedian = median;
+                if (stable) {
+                    reason = "latency stable";
+                    break;
+                }
+            }
+        }
+        log.info("Warm-up finished ({}) after {} rounds in {} ms; median round {} us in the first window, {} us in the last",
+                reason, rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                TimeUnit.NANOSECONDS.toMicros(firstMedian), TimeUnit.NANOSECONDS.toMicros(lastMedian));
+    }
+
+    private List<HttpRequest> requests(String baseUrl) throws IOException {
+        Duration lifetime = properties.getTimeout().plusMinutes(1);
+        String client = tokens.mint(UUID.randomUUID().toString(), "CLIENT", lifetime);
+        String admin = tokens.mint(UUID.randomUUID().toString(), "ADMIN", lifetime);
+        // Product IDs that product-service never issued; WarmupProductClient makes them up
+        String order = objectMapper.writeValueAsString(Map.of("items", List.of(
+                Map.of("productId", "warmup-1", "quantity", 1),
+                Map.of("productId", "warmup-2", "quantity", 2))));
+        return List.of(
+                request(baseUrl + "/api/orders", client)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(order))
+                        .build(),
+                request(baseUrl + "/api/orders/my-orders", client).GET().build(),
+                request(baseUrl + "/api/orders?page=0&size=50", admin).GET().build());
+    }
+
+    private HttpRequest.Builder request(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header(HEADER, key);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
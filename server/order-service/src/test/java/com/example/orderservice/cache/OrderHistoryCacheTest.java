@@ -0,0 +1,115 @@
+package com.example.orderservice.cache;
+
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.services.OrderHistoryChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderHistoryCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> broadcasts = new ArrayList<>();
+    private final OrderHistoryCache cache =
+            new OrderHistoryCache(new OrderHistoryCacheProperties(), broadcasts::add, new SimpleMeterRegistry());
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void loadsOncePerUserUntilTheirOrdersChange() {
+        OrderHistory first = cache.get("alice", this::load);
+        assertThat(cache.get("alice", this::load)).isSameAs(first);
+        cache.get("bob", this::load);
+        assertThat(loads).hasValue(2);
+
+        cache.onOrderHistoryChanged(new OrderHistoryChangedEvent("alice"));
+
+        assertThat(cache.get("alice", this::load).etag()).isNotEqualTo(first.etag());
+        cache.get("bob", this::load);
+        assertThat(loads).hasValue(3);
+        assertThat(broadcasts).containsExactly("alice");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<OrderHistory>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get("alice", userId -> {
+                    loading.countDown();
+                    await(release);
+                    return load(userId);
+                })));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            release.countDown();
+            for (Future<OrderHistory> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadInFlightWhenAllHistoriesAreDroppedIsNotKept() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<OrderHistory> inFlight = executor.submit(() -> cache.get("alice", userId -> {
+                loading.countDown();
+                await(release);
+                return load(userId);
+            }));
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            cache.invalidateLocal(null);
+            release.countDown();
+            OrderHistory reloaded = inFlight.get(5, TimeUnit.SECONDS);
+
+            assertThat(loads).hasValue(2);
+            assertThat(cache.get("alice", this::load)).isSameAs(reloaded);
+            assertThat(loads).hasValue(2);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void etagMatchesIfNoneMatch() {
+        OrderHistory history = cache.get("alice", this::load);
+
+        assertThat(history.matches(history.etag())).isTrue();
+        assertThat(history.matches("\"other\", W/" + history.etag())).isTrue();
+        assertThat(history.matches("*")).isTrue();
+        assertThat(history.matches("\"other\"")).isFalse();
+        assertThat(history.matches(null)).isFalse();
+    }
+
+    private OrderHistory load(String userId) {
+        Order order = Order.builder().id(userId + "-" + loads.incrementAndGet()).userId(userId).build();
+        return OrderHistory.of(objectMapper, List.of(order));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
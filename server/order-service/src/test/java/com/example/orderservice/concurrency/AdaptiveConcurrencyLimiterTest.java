@@ -0,0 +1,59 @@
+package com.example.orderservice.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdaptiveConcurrencyLimiter limiter =
+            new AdaptiveConcurrencyLimiter(new ConcurrencyLimitProperties(), registry);
+
+    @Test
+    void shedsAdminBeforeWritesBeforeReads() {
+        // Initial limit 20: admin may fill 10 slots, writes 16, reads all 20
+        fill(RequestPriority.ADMIN, 10);
+        assertThat(limiter.tryAcquire(RequestPriority.ADMIN)).isFalse();
+        fill(RequestPriority.WRITE, 6);
+        assertThat(limiter.tryAcquire(RequestPriority.WRITE)).isFalse();
+        fill(RequestPriority.READ, 4);
+        assertThat(limiter.tryAcquire(RequestPriority.READ)).isFalse();
+
+        assertThat(registry.get("concurrency.rejected").tag("priority", "admin").counter().count()).isEqualTo(1);
+        assertThat(registry.get("concurrency.in.flight").gauge().value()).isEqualTo(20);
+    }
+
+    @Test
+    void limitGrowsWhileLatencyIsSteadyAndShrinksWhenItRises() {
+        runBusy(300, 20);
+        double grown = limiter.getLimit();
+        assertThat(grown).isGreaterThan(20);
+
+        runBusy(200, 400);
+        assertThat(limiter.getLimit()).isLessThan(grown / 2);
+        assertThat(registry.get("concurrency.limit").gauge().value()).isEqualTo(limiter.getLimit());
+    }
+
+    private void fill(RequestPriority priority, int slots) {
+        for (int i = 0; i < slots; i++) {
+            assertThat(limiter.tryAcquire(priority)).isTrue();
+        }
+    }
+
+    /** Completes requests while the limit is fully in use. */
+    private void runBusy(int requests, long rttMillis) {
+        for (int i = 0; i < requests; i++) {
+            while (limiter.tryAcquire(RequestPriority.READ)) {
+                // fill up to the current limit
+            }
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        }
+        while (limiter.getInFlight() > 0) {
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        }
+    }
+}
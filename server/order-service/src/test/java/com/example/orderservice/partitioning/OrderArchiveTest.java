@@ -0,0 +1,75 @@
+package com.example.orderservice.partitioning;
+
+import com.example.orderservice.entities.Order;
+import com.example.orderservice.entities.OrderItem;
+import com.example.orderservice.enums.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void findsTheUsersOrdersAcrossFilesOnce() throws Exception {
+        OrderArchive archive = new OrderArchive(directory, objectMapper);
+        Order first = order("o1", "alice", 2);
+        try (OrderArchive.ArchiveWriter writer = archive.create("orders_p2024_01")) {
+            writer.write(first);
+            writer.write(order("o2", "bob", 1));
+            assertThat(writer.commit()).hasFileName("orders_p2024_01.ndjson.gz");
+        }
+        // Archived again, e.g. after an import into the month
+        try (OrderArchive.ArchiveWriter writer = archive.create("orders_p2024_01")) {
+            writer.write(first);
+            writer.write(order("o3", "alice", 0));
+            assertThat(writer.commit()).hasFileName("orders_p2024_01.1.ndjson.gz");
+        }
+
+        List<Order> orders = archive.findByUserId("alice");
+
+        assertThat(orders).extracting(Order::getId).containsExactly("o1", "o3");
+        assertThat(orders.get(0).getItems()).extracting(OrderItem::getProductId).containsExactly("p0", "p1");
+        assertThat(orders.get(0).getOrderDate()).isEqualTo(first.getOrderDate());
+    }
+
+    @Test
+    void uncommittedFileIsDiscarded() throws Exception {
+        OrderArchive archive = new OrderArchive(directory, objectMapper);
+        try (OrderArchive.ArchiveWriter writer = archive.create("orders_p2024_02")) {
+            writer.write(order("o1", "alice", 1));
+        }
+
+        try (var files = Files.list(directory)) {
+            assertThat(files).isEmpty();
+        }
+        assertThat(archive.findByUserId("alice")).isEmpty();
+    }
+
+    private static Order order(String id, String userId, int items) {
+        Order order = Order.builder()
+                .id(id)
+                .userId(userId)
+                .orderDate(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .status(OrderStatus.VALIDATED)
+                .totalAmount(10.0 * items)
+                .build();
+        for (int i = 0; i < items; i++) {
+            order.getItems().add(OrderItem.builder().id(id + "-" + i).productId("p" + i).quantity(1).price(10.0)
+                    .build());
+        }
+        return order;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.orderservice.seeder;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class OrderDataGeneratorTest {
+
+    private final OrderDataGenerator.Settings settings =
+            new OrderDataGenerator.Settings(properties(), LocalDate.of(2026, 1, 1));
+
+    @Test
+    void sameSettingsGiveTheSameOrders() {
+        List<Object[]> orders = new ArrayList<>();
+        List<Object[]> items = new ArrayList<>();
+        List<Object[]> ordersAgain = new ArrayList<>();
+        List<Object[]> itemsAgain = new ArrayList<>();
+        for (int user = 0; user < 50; user++) {
+            OrderDataGenerator.generateUser(settings, user, orders, items);
+        }
+        for (int user = 0; user < 50; user++) {
+            OrderDataGenerator.generateUser(settings, user, ordersAgain, itemsAgain);
+        }
+
+        assertThat(orders).isNotEmpty().usingRecursiveComparison().isEqualTo(ordersAgain);
+        assertThat(items).isNotEmpty().usingRecursiveComparison().isEqualTo(itemsAgain);
+    }
+
+    @Test
+    void ordersPerUserAreHeavyTailed() {
+        SplittableRandom random = new SplittableRandom(1);
+        int users = 100_000;
+        long total = 0;
+        int single = 0;
+        int max = 0;
+        for (int i = 0; i < users; i++) {
+            int orders = OrderDataGenerator.pareto(random, 1.5, 1_000);
+            total += orders;
+            single += orders == 1 ? 1 : 0;
+            max = Math.max(max, orders);
+        }
+
+        // P(k > 1) = 2^-1.5 would be for k > x with x = 2; here P(k = 1) = 1 - P(k > 1) = 1 - 1^-1.5 ... 
+        assertThat((double) single / users).isCloseTo(1 - Math.pow(2, -1.5), offset(0.01));
+        assertThat((double) total / users).isBetween(2.3, 2.8);
+        assertThat(max).isGreaterThan(200);
+    }
+
+    @Test
+    void zipfRanksFollowTheirWeights() {
+        int n = 1_000;
+        ZipfSampler sampler = new ZipfSampler(n, 1.0);
+        SplittableRandom random = new SplittableRandom(7);
+        int samples = 200_000;
+        int[] counts = new int[n + 1];
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.sample(random)]++;
+        }
+
+        double harmonic = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            harmonic += 1.0 / rank;
+        }
+        for (int rank : new int[]{1, 2, 10}) {
+            assertThat((double) counts[rank] / samples)
+                    .isCloseTo(1.0 / rank / harmonic, offset(0.005));
+        }
+    }
+
+    private static DataGeneratorProperties properties() {
+        DataGeneratorProperties properties = new DataGeneratorProperties();
+        properties.setProducts(10_000);
+        return properties;
+    }
+}
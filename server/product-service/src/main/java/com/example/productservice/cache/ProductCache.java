@@ -0,0 +1,206 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.datasource.ReplicaLagMonitor;
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.Product;
+import com.example.productservice.services.ProductChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through caches in front of the products table.
+ *
+ * <ul>
+ *   <li>{@code products}: single products by ID, bounded by
+ *       {@code product-cache.max-products}.</li>
+ *   <li>{@code product-pages}: listing pages, keyed by the query and the
+ *       current catalog version. Any change bumps the version and clears
+ *       the pages, so a page loaded before the change is never served after it.</li>
+ * </ul>
+ * Concurrent misses on the same key share one load, so a popular entry that
+ * was just invalidated costs a single query. Entries are dropped after every
+ * committed change, before the writing request returns, and the change is
+ * passed to the {@link ProductInvalidationBroadcaster}.
+ * <p>
+ * Hibernate's second-level cache sits below the {@code products} cache and
+ * is cleared for the product on every invalidation too: stock changes are
+ * written with plain SQL, which Hibernate does not see.
+ * <p>
+ * With a read replica, a load just after a change may still read the old
+ * row. Entries loaded within the replica's stale-read bound of the latest
+ * change therefore expire at the end of that bound, and are not kept in the
+ * second-level cache.
+ * <p>
+ * Cached products are shared between callers and must not be modified.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<String, Product> products;
+    private final Cache<PageKey, ProductSlice> pages;
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final ProductInvalidationBroadcaster broadcaster;
+    private final long timeToLiveNanos;
+    /** How long after a change reads may miss it; zero without a replica. */
+    private volatile long staleReadNanos;
+    private volatile long lastChangeNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+    private jakarta.persistence.Cache entityCache;
+
+    public ProductCache(ProductCacheProperties properties, ProductInvalidationBroadcaster broadcaster,
+                        MeterRegistry registry) {
+        this.broadcaster = broadcaster;
+        this.timeToLiveNanos = properties.getTimeToLive().toNanos();
+        this.products = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxProducts())
+                .expireAfter(this.<String, Product>expiry())
+                .recordStats()
+                .build();
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxPages())
+                .expireAfter(this.<PageKey, ProductSlice>expiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, products, "products");
+        CaffeineCacheMetrics.monitor(registry, pages, "product-pages");
+    }
+
+    @Autowired(required = false)
+    public void setReplicaLagMonitor(ReplicaLagMonitor lagMonitor) {
+        this.staleReadNanos = lagMonitor.getStaleReadBound().toNanos();
+    }
+
+    @Autowired
+    public void setEntityManagerFactory(EntityManagerFactory entityManagerFactory) {
+        this.entityCache = entityManagerFactory.getCache();
+    }
+
+    /**
+     * @param loader returns the product, or {@code null} if it does not exist (not cached)
+     */
+    public Product get(String id, Function<String, Product> loader) {
+        return products.get(id, key -> {
+            Product product = loader.apply(key);
+            if (mayHaveReadStale()) {
+                evictEntity(key);
+            }
+            return product;
+        });
+    }
+
+    /**
+     * Looks up several products, loading all missing ones with a single call.
+     * Unlike {@link #get}, the bulk load does not hold the keys, so an
+     * invalidation can run while it is in flight; its results are then
+     * returned but not kept.
+     * @param loader returns the products found among the given IDs
+     */
+    public Map<String, Product> getAll(Collection<String> ids,
+                                       Function<Set<? extends String>, Map<String, Product>> loader) {
+        Map<String, Product> present = products.getAllPresent(ids);
+        Set<String> missing = new LinkedHashSet<>(ids);
+        missing.removeAll(present.keySet());
+        if (missing.isEmpty()) {
+            return ordered(ids, present, Map.of());
+        }
+
+        long version = catalogVersion.get();
+        Map<String, Product> found = loader.apply(missing);
+        if (mayHaveReadStale()) {
+            missing.forEach(this::evictEntity);
+        }
+        products.putAll(found);
+        if (catalogVersion.get() != version) {
+            // Changed since the load started: the rows read may be older than the change
+            found.forEach(products.asMap()::remove);
+        }
+        return ordered(ids, present, found);
+    }
+
+    private static Map<String, Product> ordered(Collection<String> ids, Map<String, Product> present,
+                                                Map<String, Product> found) {
+        Map<String, Product> result = new LinkedHashMap<>();
+        for (String id : ids) {
+            Product product = present.containsKey(id) ? present.get(id) : found.get(id);
+            if (product != null) {
+                result.put(id, product);
+            }
+        }
+        return result;
+    }
+
+    public ProductSlice page(ProductQuery query, Function<ProductQuery, ProductSlice> loader) {
+        return pages.get(new PageKey(catalogVersion.get(), query), key -> loader.apply(key.query()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateLocal(event.productId());
+        broadcaster.broadcast(event.productId());
+    }
+
+    /**
+     * Drops a product and all listing pages on this instance only.
+     */
+    public void invalidateLocal(String productId) {
+        lastChangeNanos = System.nanoTime();
+        // Bump first: a page load still in flight then stores under the old version, unreachable
+        catalogVersion.incrementAndGet();
+        pages.invalidateAll();
+        evictEntity(productId);
+        products.invalidate(productId);
+    }
+
+    private boolean mayHaveReadStale() {
+        return System.nanoTime() - lastChangeNanos < staleReadNanos;
+    }
+
+    private void evictEntity(String productId) {
+        if (entityCache != null) {
+            entityCache.evict(Product.class, productId);
+        }
+    }
+
+    /**
+     * Time-to-live from the last load, cut short for loads that may have read
+     * a replica still missing the latest change.
+     */
+    private <K, V> Expiry<K, V> expiry() {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(K key, V value, long currentTime) {
+                long sinceChange = currentTime - lastChangeNanos;
+                return sinceChange < staleReadNanos ? staleReadNanos - sinceChange : timeToLiveNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, value, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    private record PageKey(long catalogVersion, ProductQuery query) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.productservice.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizes and lifetimes of the product caches.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "product-cache")
+public class ProductCacheProperties {
+
+    /** Maximum number of single products kept. */
+    private long maxProducts = 10_000;
+
+    /** Maximum number of listing pages kept. */
+    private long maxPages = 1_000;
+
+    /**
+     * Upper bound on staleness for changes this instance was not told about
+     * (e.g. written by another instance without a broadcaster).
+     */
+    private Duration timeToLive = Duration.ofMinutes(10);
+}
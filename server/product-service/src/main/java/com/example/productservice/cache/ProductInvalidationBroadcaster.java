@@ -0,0 +1,17 @@
+package com.example.productservice.cache;
+
+/**
+ * Tells other product-service instances that a product changed, so that they
+ * drop it from their caches. Implementations deliver the ID to
+ * {@link ProductCache#invalidateLocal(String)} on every other instance
+ * (e.g. over Redis pub/sub, Postgres LISTEN/NOTIFY or a message broker).
+ * <p>
+ * The default does nothing, which is correct for a single instance; with
+ * several instances and no broadcaster, remote changes become visible after
+ * {@code product-cache.time-to-live}.
+ */
+@FunctionalInterface
+public interface ProductInvalidationBroadcaster {
+
+    void broadcast(String productId);
+}
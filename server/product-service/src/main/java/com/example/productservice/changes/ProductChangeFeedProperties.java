@@ -0,0 +1,41 @@
+package com.example.productservice.changes;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Retention and delivery settings of the product change feed.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "product-changes")
+public class ProductChangeFeedProperties {
+
+    /**
+     * How long every change stays in the log. Older entries are compacted
+     * away once a later entry exists for the same product.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * How long a delete stays visible. Consumers that fall further behind
+     * than this have to start over from {@code since=0}.
+     */
+    private Duration tombstoneRetention = Duration.ofDays(7);
+
+    /** How often the log is compacted. */
+    private Duration compactionInterval = Duration.ofHours(1);
+
+    /**
+     * How often queued changes are published to the log, and how often the
+     * stream checks for changes written by other instances. Changes made on
+     * this instance are pushed immediately.
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /** Lifetime of one stream connection; clients reconnect with {@code Last-Event-ID}. */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+}
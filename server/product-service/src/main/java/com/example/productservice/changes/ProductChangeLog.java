@@ -0,0 +1,222 @@
+package com.example.productservice.changes;
+
+import com.example.productservice.dto.ProductChangePage;
+import com.example.productservice.entities.Product;
+import com.example.productservice.entities.ProductChange;
+import com.example.productservice.entities.ProductChangeLogState;
+import com.example.productservice.exceptions.ChangeFeedExpiredException;
+import com.example.productservice.repositories.ProductChangeRepository;
+import com.example.productservice.services.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only log of product changes, for consumers that keep a copy of the
+ * catalog and only want the deltas since they last synced.
+ * <p>
+ * Every {@link ProductChangedEvent} is queued in {@code product_change_queue}
+ * in the same transaction as the change itself. Sequence numbers are handed
+ * out afterwards, when {@link #publishPending} moves the committed entries into
+ * {@code product_changes} under a lock that only publishing takes. Writers
+ * therefore never wait for each other, and entries become visible in sequence
+ * order, so a reader never sees {@code seq} N+1 before N. A product's changes
+ * keep their order: its row lock makes the second writer queue only after the
+ * first has committed. Compaction keeps the newest entry
+ * of every product, so reading the log from {@code since=0} always yields the
+ * complete catalog; older entries that a newer one supersedes and tombstones
+ * past their retention are removed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductChangeLog {
+
+    /** Held while sequence numbers are handed out, by one transaction at a time. */
+    private static final long PUBLISH_LOCK = 7301447356277310327L;
+
+    private static final String QUEUE_SQL = """
+            INSERT INTO product_change_queue (product_id, type, name, description, price, quantity, changed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)""";
+
+    /** Only once the log has been seeded: seeding gives the existing catalog the lowest sequences. */
+    private static final String PUBLISH_SQL = """
+            WITH published AS (
+                DELETE FROM product_change_queue WHERE EXISTS (SELECT 1 FROM product_change_log_state)
+                RETURNING id, product_id, type, name, description, price, quantity, changed_at)
+            INSERT INTO product_changes (product_id, type, name, description, price, quantity, changed_at)
+            SELECT product_id, type, name, description, price, quantity, changed_at FROM published ORDER BY id""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductChangeRepository changeRepository;
+    private final ProductChangeFeedProperties properties;
+
+    /**
+     * Seeds the log with the current catalog the first time it runs against
+     * a database, so a consumer starting from zero sees every product.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", PUBLISH_LOCK);
+            jdbcTemplate.update("INSERT INTO product_change_log_state (id, purged_through) VALUES (?, 0) "
+                    + "ON CONFLICT (id) DO NOTHING", ProductChangeLogState.ID);
+            int seeded = jdbcTemplate.update("""
+                    INSERT INTO product_changes (product_id, type, name, description, price, quantity, changed_at)
+                    SELECT id, ?, name, description, price, quantity, ? FROM products
+                    WHERE NOT EXISTS (SELECT 1 FROM product_changes)""",
+                    ProductChangedEvent.Type.CREATED.name(), Timestamp.from(Instant.now()));
+            if (seeded > 0) {
+                log.info("Product change log seeded with {} existing products", seeded);
+            }
+        });
+    }
+
+    /**
+     * Collects the changes of the current transaction and queues them in one
+     * batch just before it commits.
+     */
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> append(List.of(event)));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.events.add(event);
+    }
+
+    private void append(List<ProductChangedEvent> events) {
+        Timestamp now = Timestamp.from(Instant.now());
+        jdbcTemplate.batchUpdate(QUEUE_SQL, events, events.size(), (ps, event) -> {
+            Product product = event.product();
+            ps.setString(1, event.productId());
+            ps.setString(2, event.type().name());
+            ps.setString(3, product != null ? product.getName() : null);
+            ps.setString(4, product != null ? product.getDescription() : null);
+            ps.setObject(5, product != null ? product.getPrice() : null, Types.DOUBLE);
+            ps.setObject(6, product != null ? product.getQuantity() : null, Types.INTEGER);
+            ps.setTimestamp(7, now);
+        });
+    }
+
+    /**
+     * Gives the committed queued changes their sequence numbers. Readers call
+     * it before reading; it also runs every {@code product-changes.poll-interval}
+     * so the queue stays short without readers. Returns at once while another
+     * transaction, possibly on another instance, is publishing.
+     */
+    @Scheduled(fixedDelayString = "${product-changes.poll-interval:1s}")
+    public void publishPending() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                    PUBLISH_LOCK);
+            if (Boolean.TRUE.equals(locked)) {
+                jdbcTemplate.update(PUBLISH_SQL);
+            }
+        });
+    }
+
+    /**
+     * Changes after {@code since}, oldest first.
+     * @throws ChangeFeedExpiredException if a delete after {@code since} has
+     *         already been compacted away
+     */
+    public ProductChangePage changesSince(long since, int limit) {
+        checkAvailable(since);
+        publishPending();
+        List<ProductChange> changes = read(since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long last = changes.isEmpty() ? since : changes.get(changes.size() - 1).getSeq();
+        return new ProductChangePage(changes, last, hasMore);
+    }
+
+    /**
+     * @throws ChangeFeedExpiredException if a consumer at {@code since} can no longer catch up
+     */
+    public void checkAvailable(long since) {
+        if (since > 0 && since < purgedThrough()) {
+            throw new ChangeFeedExpiredException("Changes after " + since
+                    + " are no longer available; sync again from since=0");
+        }
+    }
+
+    List<ProductChange> read(long since, int limit) {
+        return changeRepository.findBySeqGreaterThanOrderBySeqAsc(since, Limit.of(limit));
+    }
+
+    public long lastSequence() {
+        return changeRepository.findLastSeq();
+    }
+
+    private long purgedThrough() {
+        List<Long> purged = jdbcTemplate.queryForList(
+                "SELECT purged_through FROM product_change_log_state WHERE id = ?", Long.class, ProductChangeLogState.ID);
+        return purged.isEmpty() ? 0 : purged.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${product-changes.compaction-interval:1h}",
+            initialDelayString = "${product-changes.compaction-interval:1h}")
+    public void compact() {
+        Instant now = Instant.now();
+        Timestamp historyCutoff = Timestamp.from(now.minus(properties.getRetention()));
+        Timestamp tombstoneCutoff = Timestamp.from(now.minus(properties.getTombstoneRetention()));
+        transactionTemplate.executeWithoutResult(status -> {
+            int superseded = jdbcTemplate.update("""
+                    DELETE FROM product_changes c WHERE c.changed_at < ?
+                    AND EXISTS (SELECT 1 FROM product_changes n WHERE n.product_id = c.product_id AND n.seq > c.seq)""",
+                    historyCutoff);
+            // Consumers that synced before the newest purged tombstone may have missed a delete
+            Long purgedThrough = jdbcTemplate.queryForObject("""
+                    WITH purged AS (DELETE FROM product_changes WHERE type = ? AND changed_at < ? RETURNING seq)
+                    SELECT max(seq) FROM purged""",
+                    Long.class, ProductChangedEvent.Type.DELETED.name(), tombstoneCutoff);
+            if (purgedThrough != null) {
+                jdbcTemplate.update("UPDATE product_change_log_state SET purged_through = GREATEST(purged_through, ?) "
+                        + "WHERE id = ?", purgedThrough, ProductChangeLogState.ID);
+            }
+            if (superseded > 0 || purgedThrough != null) {
+                log.info("Product change log compacted: {} superseded entries removed, tombstones purged through {}",
+                        superseded, purgedThrough);
+            }
+        });
+    }
+
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<ProductChangedEvent> events = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            append(events);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(ProductChangeLog.this);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.productservice.changes;
+
+import com.example.productservice.entities.ProductChange;
+import com.example.productservice.exceptions.ChangeFeedExpiredException;
+import com.example.productservice.services.ProductChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pushes the product change log to server-sent event subscribers.
+ * <p>
+ * A single {@code product-change-feed} thread reads the log and writes to every
+ * subscriber. Subscribers that are up to date share one query per round;
+ * subscribers that are behind (new, or resuming from {@code Last-Event-ID})
+ * catch up one page per round from their own position. The thread wakes up
+ * right after a local commit and otherwise polls for changes written by other
+ * instances.
+ */
+@Slf4j
+@Component
+public class ProductChangeStream implements DisposableBean {
+
+    private static final int BATCH_SIZE = 500;
+    private static final long KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private final ProductChangeLog changeLog;
+    private final long pollIntervalNanos;
+    private final long streamTimeoutMillis;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final Thread poller;
+    private volatile boolean running = true;
+    /** Newest sequence read by the poller; -1 until the first round. Poller thread only. */
+    private long head = -1;
+
+    public ProductChangeStream(ProductChangeLog changeLog, ProductChangeFeedProperties properties) {
+        this.changeLog = changeLog;
+        this.pollIntervalNanos = properties.getPollInterval().toNanos();
+        this.streamTimeoutMillis = properties.getStreamTimeout().toMillis();
+        this.poller = new Thread(this::pollLoop, "product-change-feed");
+        this.poller.setDaemon(true);
+        this.poller.start();
+    }
+
+    /**
+     * Opens a stream of the changes after {@code since}, or of new changes
+     * only when {@code since} is {@code null}.
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        long position = since != null ? since : changeLog.lastSequence();
+        Subscriber subscriber = new Subscriber(emitter, position);
+        try {
+            changeLog.checkAvailable(position);
+        } catch (ChangeFeedExpiredException ex) {
+            subscriber.expire(ex.getMessage());
+            return emitter;
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        LockSupport.unpark(poller);
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (!subscribers.isEmpty()) {
+            LockSupport.unpark(poller);
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            boolean more = false;
+            if (!subscribers.isEmpty()) {
+                try {
+                    more = pollOnce();
+                } catch (RuntimeException ex) {
+                    log.warn("Product change feed poll failed: {}", ex.getMessage());
+                }
+            } else {
+                head = -1;
+            }
+            if (!more) {
+                LockSupport.parkNanos(this, pollIntervalNanos);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if a full batch was read and more may be waiting
+     */
+    private boolean pollOnce() {
+        changeLog.publishPending();
+        if (head < 0) {
+            head = changeLog.lastSequence();
+        }
+        List<ProductChange> fresh = changeLog.read(head, BATCH_SIZE);
+        boolean more = fresh.size() == BATCH_SIZE;
+        long previousHead = head;
+        if (!fresh.isEmpty()) {
+            head = fresh.get(fresh.size() - 1).getSeq();
+        }
+
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            List<ProductChange> batch;
+            if (subscriber.position >= previousHead) {
+                batch = fresh;
+            } else {
+                try {
+                    changeLog.checkAvailable(subscriber.position);
+                } catch (ChangeFeedExpiredException ex) {
+                    subscribers.remove(subscriber);
+                    subscriber.expire(ex.getMessage());
+                    continue;
+                }
+                batch = changeLog.read(subscriber.position, BATCH_SIZE);
+                more |= batch.size() == BATCH_SIZE;
+            }
+            if (!subscriber.send(batch, now)) {
+                subscribers.remove(subscriber);
+            }
+        }
+        return more;
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(poller);
+        poller.join(TimeUnit.SECONDS.toMillis(2));
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        /** Sequence of the last change sent. Poller thread only. */
+        private long position;
+        private long lastSentNanos = System.nanoTime();
+
+        Subscriber(SseEmitter emitter, long position) {
+            this.emitter = emitter;
+            this.position = position;
+        }
+
+        /**
+         * Sends the changes after {@link #position}, or a keep-alive comment
+         * when there has been nothing to send for a while.
+         * @return {@code false} if the client is gone
+         */
+        boolean send(List<ProductChange> changes, long now) {
+            try {
+                boolean sent = false;
+                for (ProductChange change : changes) {
+                    if (change.getSeq() <= position) {
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name("change")
+                            .data(change));
+                    position = change.getSeq();
+                    sent = true;
+                }
+                if (sent) {
+                    lastSentNanos = now;
+                } else if (now - lastSentNanos >= KEEP_ALIVE_NANOS) {
+                    emitter.send(SseEmitter.event().comment("keep-alive"));
+                    lastSentNanos = now;
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                return false;
+            }
+        }
+
+        void expire(String message) {
+            try {
+                emitter.send(SseEmitter.event().name("expired").data(message));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                emitter.completeWithError(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.productservice.config;
+
+import com.example.productservice.cache.ProductCacheProperties;
+import com.example.productservice.cache.ProductInvalidationBroadcaster;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ProductCacheProperties.class)
+public class CacheConfig {
+
+    /**
+     * Single-instance default: nothing to notify. Declare another
+     * {@link ProductInvalidationBroadcaster} bean to fan invalidations out.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public ProductInvalidationBroadcaster productInvalidationBroadcaster() {
+        return productId -> log.debug("No invalidation broadcaster configured; product {} changed", productId);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.productservice.config;
+
+import com.example.productservice.seeder.DataGeneratorProperties;
+import com.example.productservice.seeder.ProductDataGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Synthetic catalog at production volume, when {@code datagen.enabled} is
+ * set. Like the warm-up, the runner exists either way and checks the setting
+ * at startup, so that an AOT-processed jar can still run it.
+ */
+@Configuration
+@EnableConfigurationProperties(DataGeneratorProperties.class)
+public class DataGeneratorConfig {
+
+    @Bean
+    public ProductDataGenerator productDataGenerator(DataGeneratorProperties properties, JdbcTemplate jdbcTemplate,
+                                                     TransactionTemplate transactionTemplate,
+                                                     ConfigurableApplicationContext context) {
+        return new ProductDataGenerator(properties, jdbcTemplate, transactionTemplate, context);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.productservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background maintenance (change log compaction, stock rebalancing, hold sweep) runs on
+ * the scheduler; see {@code spring.task.scheduling.pool.size}.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,10 @@
+package com.example.productservice.config;
+
+import com.example.productservice.holds.StockHoldProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StockHoldProperties.class)
+public class StockHoldConfig {
+}
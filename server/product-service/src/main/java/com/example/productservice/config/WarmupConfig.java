@@ -0,0 +1,40 @@
+package com.example.productservice.config;
+
+import com.example.productservice.warmup.WarmupFilter;
+import com.example.productservice.warmup.WarmupProperties;
+import com.example.productservice.warmup.WarmupRunner;
+import com.example.productservice.warmup.WarmupTokens;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * JIT warm-up before the instance reports ready, when {@code warmup.enabled}
+ * is set. The beans exist either way and check the setting at startup, so
+ * that an AOT-processed jar can still switch it on.
+ */
+@Configuration
+@EnableConfigurationProperties(WarmupProperties.class)
+public class WarmupConfig {
+
+    @Bean
+    public WarmupTokens warmupTokens() {
+        return new WarmupTokens();
+    }
+
+    @Bean
+    public WarmupRunner warmupRunner(WarmupProperties properties, WarmupTokens tokens, ObjectMapper objectMapper,
+                                     Environment environment) {
+        return new WarmupRunner(properties, tokens, objectMapper, environment);
+    }
+
+    @Bean
+    public WarmupFilter warmupFilter(WarmupRunner runner, PlatformTransactionManager transactionManager,
+                                     EntityManager entityManager) {
+        return new WarmupFilter(runner, transactionManager, entityManager);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.exceptions.InvalidRequestException;
+import com.example.productservice.services.ProductBulkService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class ProductBulkController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final ProductBulkService productBulkService;
+
+    /**
+     * Imports products from a CSV or NDJSON upload. Only accessible by ADMIN users.
+     * Rows with an {@code id} replace the existing product, rows without one are created.
+     * CSV needs a header row naming the columns ({@code id}, {@code name}, {@code description},
+     * {@code price}, {@code quantity}); NDJSON takes one product object per line.
+     * @param body Upload, sent as {@code text/csv} or {@code application/x-ndjson}
+     * @return NDJSON report: {@code error} lines for rejected rows, {@code progress} lines
+     *         while the import runs and a final {@code summary}
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> importProducts(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+                                                                InputStream body) throws IOException {
+        String format = TEXT_CSV.isCompatibleWith(contentType) ? ProductBulkService.CSV : ProductBulkService.NDJSON;
+        ProductBulkService.RowSource rows = productBulkService.open(body, format);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> productBulkService.importRows(rows, out));
+    }
+
+    /**
+     * Exports the whole catalog. Only accessible by ADMIN users.
+     * The output of {@code format=csv} can be imported again unchanged.
+     * @param format {@code csv} or {@code ndjson} (default)
+     * @return All products, streamed
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = ProductBulkService.NDJSON) String format) {
+        if (!ProductBulkService.CSV.equals(format) && !ProductBulkService.NDJSON.equals(format)) {
+            throw new InvalidRequestException("Export format must be csv or ndjson");
+        }
+        return ResponseEntity.ok()
+                .contentType(ProductBulkService.CSV.equals(format) ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"products." + format + "\"")
+                .body(out -> productBulkService.export(format, out));
+    }
+}
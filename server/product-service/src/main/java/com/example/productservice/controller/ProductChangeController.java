@@ -0,0 +1,59 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.changes.ProductChangeLog;
+import com.example.productservice.changes.ProductChangeStream;
+import com.example.productservice.dto.ProductChangePage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/products/changes")
+@RequiredArgsConstructor
+public class ProductChangeController {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 1_000;
+
+    private final ProductChangeLog productChangeLog;
+    private final ProductChangeStream productChangeStream;
+
+    /**
+     * Retrieves product changes in the order they were committed. Accessible by ADMIN and CLIENT users.
+     * Start with {@code since=0}, which returns every current product, then pass the
+     * {@code lastSequence} of each page as the next {@code since}. Responds with 410 Gone
+     * when deletes after {@code since} have been compacted away; sync again from 0.
+     * @param since Sequence of the last change already applied
+     * @param limit Maximum number of changes (default 500, at most 1000)
+     * @return Changes after {@code since}
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<ProductChangePage> changes(@RequestParam(defaultValue = "0") long since,
+                                                     @RequestParam(defaultValue = "" + DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok(productChangeLog.changesSince(Math.max(since, 0),
+                Math.min(Math.max(limit, 1), MAX_LIMIT)));
+    }
+
+    /**
+     * Streams product changes as server-sent events. Accessible by ADMIN and CLIENT users.
+     * Each {@code change} event carries the sequence as its ID, so a reconnecting client
+     * resumes after the last event it saw. An {@code expired} event means the client
+     * fell too far behind and must sync again from {@code since=0}.
+     * @param since Sequence of the last change already applied (default: only new changes)
+     * @param lastEventId Sent by reconnecting clients; takes precedence over {@code since}
+     * @return Event stream
+     */
+    @GetMapping("/stream")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public SseEmitter stream(@RequestParam(required = false) Long since,
+                             @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return productChangeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,7 +1,12 @@
 package com.example.productservice.controller;
 
+import com.example.productservice.dto.ProductCursor;
+import com.example.productservice.dto.ProductQuery;
 import com.example.productservice.dto.ProductRequestDTO;
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.dto.ProductSlice;
 import com.example.productservice.entities.Product;
+import com.example.productservice.search.ProductSearchService;
 import com.example.productservice.services.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -11,13 +16,21 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 @RequiredArgsConstructor
 public class ProductController {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final ProductService productService;
+    private final ProductSearchService productSearchService;
 
     /**
      * Creates a new product. Only accessible by ADMIN users.
@@ -31,13 +44,79 @@ public class ProductController {
     }
 
     /**
-     * Retrieves all products. Accessible by ADMIN and CLIENT users.
-     * @return List of all products
+     * Retrieves one page of products. Accessible by ADMIN and CLIENT users.
+     * Offset pages ({@code page}) report the number of matches in {@code X-Total-Count};
+     * for deep pages prefer {@code cursor}, taken from the {@code X-Next-Cursor} header
+     * of the previous page, which is absent on the last page.
+     * @param page Zero-based page index, ignored when a cursor is given
+     * @param size Page size (default 50, at most 500)
+     * @param cursor Position to continue from (optional)
+     * @param sort {@code name} or {@code price}, optionally followed by {@code ,desc}
+     * @param minPrice Lowest price to include (optional)
+     * @param maxPrice Highest price to include (optional)
+     * @param inStock Only products with a positive quantity
+     * @param fields Comma-separated fields to return, e.g. {@code id,name,price} (default: all)
+     * @return Products on the requested page
      */
     @GetMapping
     @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
-    public ResponseEntity<List<Product>> getAll() {
-        return ResponseEntity.ok(productService.getAll());
+    public ResponseEntity<List<Map<String, Object>>> getAll(@RequestParam(defaultValue = "0") int page,
+                                                            @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(defaultValue = "name") String sort,
+                                                            @RequestParam(required = false) Double minPrice,
+                                                            @RequestParam(required = false) Double maxPrice,
+                                                            @RequestParam(defaultValue = "false") boolean inStock,
+                                                            @RequestParam(required = false) List<String> fields) {
+        String[] sortParts = sort.split(",", 2);
+        ProductQuery query = ProductQuery.builder()
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStockOnly(inStock)
+                .sortField(sortParts[0].trim())
+                .descending(sortParts.length > 1 && "desc".equalsIgnoreCase(sortParts[1].trim()))
+                .size(Math.min(Math.max(size, 1), MAX_PAGE_SIZE))
+                .page(Math.max(page, 0))
+                .cursor(cursor != null && !cursor.isBlank() ? ProductCursor.decode(cursor) : null)
+                .fields(fields == null || fields.isEmpty() ? ProductQuery.ALL_FIELDS : fields)
+                .build();
+
+        ProductSlice slice = productService.list(query);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.total() != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(slice.total()));
+        }
+        if (slice.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.nextCursor());
+        }
+        return response.body(slice.products());
+    }
+
+    /**
+     * Full-text search over product names and descriptions. Accessible by ADMIN and CLIENT users.
+     * Every word must match; the last one also matches as a prefix, for search-as-you-type.
+     * Name matches rank above description matches.
+     * @param q Search text
+     * @param limit Maximum number of hits (default 20, at most 100)
+     * @return Matching products, best match first
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<List<ProductSearchHit>> search(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(productSearchService.search(q, Math.min(Math.max(limit, 1), MAX_SEARCH_LIMIT)));
+    }
+
+    /**
+     * Retrieves several products in one call. Accessible by ADMIN and CLIENT users.
+     * Unknown IDs are skipped, so the result may be shorter than the request.
+     * @param ids Comma-separated product IDs (at most 500)
+     * @return Products found
+     */
+    @GetMapping("/batch")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<List<Product>> getByIds(@RequestParam List<String> ids) {
+        return ResponseEntity.ok(productService.getByIds(ids));
     }
 
     /**
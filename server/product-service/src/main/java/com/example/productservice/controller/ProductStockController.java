@@ -0,0 +1,70 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.dto.StockLevel;
+import com.example.productservice.dto.StockRequestDTO;
+import com.example.productservice.dto.StockStripesDTO;
+import com.example.productservice.inventory.InventoryService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/products/{id}/stock")
+@RequiredArgsConstructor
+public class ProductStockController {
+
+    private final InventoryService inventoryService;
+
+    /**
+     * Retrieves the exact stock of a product. Accessible by ADMIN and CLIENT users.
+     * @param id Product ID
+     * @return Units available and number of stock stripes
+     */
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<StockLevel> getStock(@PathVariable String id) {
+        return ResponseEntity.ok(inventoryService.getStock(id));
+    }
+
+    /**
+     * Takes units out of stock. Only accessible by ADMIN users.
+     * @param id Product ID
+     * @param request Units to take
+     * @return No content, or 400 if not enough stock is available
+     */
+    @PostMapping("/reserve")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reserve(@PathVariable String id, @Valid @RequestBody StockRequestDTO request) {
+        inventoryService.reserve(id, request.getQuantity());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Puts units back into stock. Only accessible by ADMIN users.
+     * @param id Product ID
+     * @param request Units to return
+     * @return No content response
+     */
+    @PostMapping("/release")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> release(@PathVariable String id, @Valid @RequestBody StockRequestDTO request) {
+        inventoryService.release(id, request.getQuantity());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Splits a product's stock across several rows so concurrent reservations
+     * do not queue on one row lock, or merges it back with {@code stripes = 0}.
+     * Only accessible by ADMIN users. Worth it for hot products only.
+     * @param id Product ID
+     * @param request Number of stripes (0 to 64)
+     * @return Stock after the change
+     */
+    @PutMapping("/stripes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StockLevel> setStripes(@PathVariable String id, @Valid @RequestBody StockStripesDTO request) {
+        return ResponseEntity.ok(inventoryService.setStripes(id, request.getStripes()));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.productservice.controller;
+
+import com.example.productservice.dto.StockHoldRequestDTO;
+import com.example.productservice.entities.StockHold;
+import com.example.productservice.holds.StockHoldService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/holds")
+@RequiredArgsConstructor
+public class StockHoldController {
+
+    private final StockHoldService stockHoldService;
+
+    /**
+     * Sets stock aside for the current user's cart. Accessible by ADMIN and CLIENT users.
+     * The units are out of stock until the hold is converted, released or expires.
+     * @param request Product and units to hold
+     * @return Created hold with its expiry time, or 400 if not enough stock is available
+     */
+    @PostMapping
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<StockHold> place(@Valid @RequestBody StockHoldRequestDTO request,
+                                           @AuthenticationPrincipal Jwt jwt) {
+        StockHold hold = stockHoldService.place(jwt.getSubject(), request.getProductId(), request.getQuantity());
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves the current user's active holds. Accessible by ADMIN and CLIENT users.
+     * @return Holds that have not expired, oldest first
+     */
+    @GetMapping("/my")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<List<StockHold>> getMyHolds(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(stockHoldService.findByUser(jwt.getSubject()));
+    }
+
+    /**
+     * Restarts the expiry countdown of a hold, e.g. while the user is still
+     * checking out. Accessible by ADMIN and CLIENT users.
+     * @param id Hold ID
+     * @return Hold with its new expiry time, or 404 if it already expired
+     */
+    @PostMapping("/{id}/extend")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<StockHold> extend(@PathVariable String id, @AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(stockHoldService.extend(jwt.getSubject(), id));
+    }
+
+    /**
+     * Ends a hold once its units have been ordered; they stay out of stock.
+     * Accessible by ADMIN and CLIENT users.
+     * @param id Hold ID
+     * @return No content, or 404 if the hold already expired
+     */
+    @PostMapping("/{id}/convert")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<Void> convert(@PathVariable String id, @AuthenticationPrincipal Jwt jwt) {
+        stockHoldService.convert(jwt.getSubject(), id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Ends a hold and puts its units back into stock. Accessible by ADMIN and CLIENT users.
+     * @param id Hold ID
+     * @return No content response
+     */
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'CLIENT')")
+    public ResponseEntity<Void> release(@PathVariable String id, @AuthenticationPrincipal Jwt jwt) {
+        stockHoldService.release(jwt.getSubject(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
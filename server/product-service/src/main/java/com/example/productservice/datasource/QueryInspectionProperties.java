@@ -0,0 +1,27 @@
+package com.example.productservice.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for {@link QueryInspector}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datasource.inspection")
+public class QueryInspectionProperties {
+
+    private boolean enabled = true;
+
+    /** Statements taking at least this long are logged on {@code SLOW_QUERY}. */
+    private Duration slowQueryThreshold = Duration.ofMillis(200);
+
+    /**
+     * A statement run more often than this within one request is reported as
+     * a suspected N+1 query.
+     */
+    private int repeatedStatementThreshold = 10;
+}
@@ -0,0 +1,150 @@
+package com.example.productservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.StatementType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Watches every statement run through the application's datasource (it is
+ * registered with the datasource proxy that also records the JDBC spans).
+ *
+ * <ul>
+ *   <li>Counts statements and their time in the {@link QueryStats} scopes
+ *       open on the calling thread; {@code LoggingFilter} opens one per
+ *       request and adds the totals to the access log.</li>
+ *   <li>Logs statements slower than the threshold on {@code SLOW_QUERY}, with
+ *       the types of their bind parameters but never the values.</li>
+ *   <li>Warns once per request about a statement that runs more often than
+ *       the repeated-statement threshold, the mark of an N+1 query.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(QueryInspectionProperties.class)
+public class QueryInspector implements QueryExecutionListener {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("SLOW_QUERY");
+    private static final String START_NANOS = QueryInspector.class.getName() + ".start";
+    /** Literals in plain (not prepared) statements, so that they group by shape. */
+    private static final Pattern LITERAL = Pattern.compile("'(?:[^']|'')*'|\\b\\d+(?:\\.\\d+)?\\b");
+
+    private final boolean enabled;
+    private final long slowQueryNanos;
+    private final int repeatedStatementThreshold;
+    private final MeterRegistry registry;
+    private final Counter slowQueries;
+
+    public QueryInspector(QueryInspectionProperties properties, MeterRegistry registry) {
+        this.enabled = properties.isEnabled();
+        this.slowQueryNanos = properties.getSlowQueryThreshold().toNanos();
+        this.repeatedStatementThreshold = properties.getRepeatedStatementThreshold();
+        this.registry = registry;
+        this.slowQueries = Counter.builder("db.statements.slow")
+                .description("Statements slower than the slow-query threshold")
+                .register(registry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (enabled) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            long share = nanos / queryInfoList.size();
+            for (QueryInfo query : queryInfoList) {
+                String statement = shape(execInfo.getStatementType(), query.getQuery());
+                if (stats.record(statement, share) == repeatedStatementThreshold + 1) {
+                    stats.markRepeated();
+                    log.warn("Suspected N+1: statement ran more than {} times during {}: {}",
+                            repeatedStatementThreshold, stats.label(), statement);
+                }
+            }
+        }
+        if (nanos >= slowQueryNanos) {
+            slowQueries.increment();
+            if (slowQueryLog.isWarnEnabled()) {
+                QueryInfo query = queryInfoList.get(0);
+                slowQueryLog.warn("{} ms{}: {} parameters {}", TimeUnit.NANOSECONDS.toMillis(nanos),
+                        execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "",
+                        shape(execInfo.getStatementType(), query.getQuery()), parameterTypes(query));
+            }
+        }
+    }
+
+    /**
+     * Records a finished request's totals, tagged with its URI template.
+     */
+    public void requestCompleted(QueryStats stats, String uri) {
+        DistributionSummary.builder("db.request.statements")
+                .description("Statements run per request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.count());
+        Timer.builder("db.request.time")
+                .description("Time spent in statements per request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(stats.nanos(), TimeUnit.NANOSECONDS);
+        if (stats.repeatedStatements() > 0) {
+            Counter.builder("db.request.repeated.statements")
+                    .description("Statements run more often than the repeated-statement threshold in one request")
+                    .tag("uri", uri)
+                    .register(registry)
+                    .increment(stats.repeatedStatements());
+        }
+    }
+
+    private static String shape(StatementType type, String sql) {
+        return type == StatementType.STATEMENT ? LITERAL.matcher(sql).replaceAll("?") : sql;
+    }
+
+    /**
+     * Types of the first parameter set, in parameter order, e.g.
+     * {@code (String, Long, null)}.
+     */
+    private static String parameterTypes(QueryInfo query) {
+        StringJoiner types = new StringJoiner(", ", "(", ")");
+        if (!query.getParametersList().isEmpty()) {
+            query.getParametersList().get(0).stream()
+                    .filter(operation -> operation.getArgs().length > 0 && operation.getArgs()[0] instanceof Integer)
+                    .sorted(Comparator.comparingInt(operation -> (Integer) operation.getArgs()[0]))
+                    .forEach(operation -> types.add(parameterType(operation)));
+        }
+        return types.toString();
+    }
+
+    private static String parameterType(ParameterSetOperation operation) {
+        if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+            return "null";
+        }
+        Object[] args = operation.getArgs();
+        return args.length > 1 && args[1] != null ? args[1].getClass().getSimpleName() : "null";
+    }
+}
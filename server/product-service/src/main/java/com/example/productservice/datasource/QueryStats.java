@@ -0,0 +1,162 @@
+package com.example.productservice.datasource;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statements run on one thread between {@link #start} and {@link #close}:
+ * one HTTP request for {@code LoggingFilter}, or a block of code under test.
+ * Scopes nest, and a statement counts in every scope open on the thread.
+ *
+ * <p>Tests can use a scope to hold code to a query budget:
+ * <pre>{@code
+ * try (QueryStats queries = QueryStats.start()) {
+ *     productService.getByIds(ids);
+ *     queries.assertAtMost(1).assertNoStatementRepeatedMoreThan(1);
+ * }
+ * }</pre>
+ */
+public final class QueryStats implements AutoCloseable {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+    /** Distinct statements counted per scope; later ones only add to the totals. */
+    private static final int MAX_TRACKED_STATEMENTS = 256;
+
+    private final QueryStats parent;
+    private final String label;
+    private final Map<String, Integer> statements = new LinkedHashMap<>();
+    private int count;
+    private long nanos;
+    private int repeatedStatements;
+    private boolean closed;
+
+    private QueryStats(QueryStats parent, String label) {
+        this.parent = parent;
+        this.label = label;
+    }
+
+    public static QueryStats start() {
+        return start("this scope");
+    }
+
+    /**
+     * @param label what the scope covers, e.g. {@code "GET /api/products"}; used in log messages
+     */
+    public static QueryStats start(String label) {
+        QueryStats stats = new QueryStats(CURRENT.get(), label);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** The innermost open scope on this thread, or {@code null}. */
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Counts one statement in this scope and the enclosing ones.
+     *
+     * @return how many times this scope has now run the statement, or 0 once
+     * too many distinct statements are being tracked
+     */
+    int record(String statement, long statementNanos) {
+        for (QueryStats scope = parent; scope != null; scope = scope.parent) {
+            scope.add(statement, statementNanos);
+        }
+        return add(statement, statementNanos);
+    }
+
+    private int add(String statement, long statementNanos) {
+        count++;
+        nanos += statementNanos;
+        Integer times = statements.get(statement);
+        if (times == null && statements.size() >= MAX_TRACKED_STATEMENTS) {
+            return 0;
+        }
+        int updated = times == null ? 1 : times + 1;
+        statements.put(statement, updated);
+        return updated;
+    }
+
+    void markRepeated() {
+        repeatedStatements++;
+    }
+
+    String label() {
+        return label;
+    }
+
+    /** Statements run so far. */
+    public int count() {
+        return count;
+    }
+
+    /** Time spent executing them, measured around each JDBC call. */
+    public Duration time() {
+        return Duration.ofNanos(nanos);
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    /** How many times each statement ran, in order of first execution. */
+    public Map<String, Integer> statements() {
+        return Collections.unmodifiableMap(statements);
+    }
+
+    /** Statements that crossed the repeated-statement threshold (suspected N+1). */
+    public int repeatedStatements() {
+        return repeatedStatements;
+    }
+
+    /**
+     * Fails with the statements run so far if there were more than {@code max}.
+     */
+    public QueryStats assertAtMost(int max) {
+        if (count > max) {
+            throw new AssertionError("Expected at most " + max + " statements but " + count + " ran" + summary());
+        }
+        return this;
+    }
+
+    /**
+     * Fails if any statement ran more than {@code max} times, the usual sign
+     * of an N+1 query.
+     */
+    public QueryStats assertNoStatementRepeatedMoreThan(int max) {
+        if (statements.values().stream().anyMatch(times -> times > max)) {
+            throw new AssertionError("Expected no statement to run more than " + max + " times" + summary());
+        }
+        return this;
+    }
+
+    private String summary() {
+        StringBuilder summary = new StringBuilder(":");
+        statements.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> summary.append("\n  ").append(entry.getValue()).append(" x ").append(entry.getKey()));
+        return summary.toString();
+    }
+
+    /**
+     * Ends the scope; the enclosing one, if any, becomes current again.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() == this) {
+            if (parent != null) {
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.productservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the replica is behind the primary and decides whether
+ * reads may go to it. The replica starts out unusable until the first
+ * measurement, and becomes unusable whenever it cannot be reached.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements DisposableBean {
+
+    /**
+     * Zero when the replica has replayed everything it received and is still
+     * streaming; otherwise the age of the last replayed transaction. A
+     * database that is not a standby (e.g. a second local instance) has no lag.
+     */
+    private static final String LAG_SQL = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn()
+                     AND EXISTS (SELECT 1 FROM pg_stat_wal_receiver) THEN 0
+                ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp())::float8, 'Infinity')
+            END""";
+
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean usable;
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(DataSource replica, ReplicaProperties properties, MeterRegistry registry) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout((int) Math.max(1, properties.getLagCheckInterval().toSeconds()));
+        this.maxLag = properties.getMaxLag();
+        this.checkInterval = properties.getLagCheckInterval();
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("Whether read-only transactions currently go to the replica")
+                .register(registry);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::check, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * Longest a read served by the replica can lag behind a committed write:
+     * the lag allowed plus the time until a higher lag is noticed.
+     */
+    public Duration getStaleReadBound() {
+        return maxLag.plus(checkInterval);
+    }
+
+    /**
+     * Stops reads from going to the replica until the next successful check.
+     */
+    void markUnusable(Exception cause) {
+        if (usable) {
+            log.warn("Read replica unavailable, reading from the primary: {}", cause.getMessage());
+        }
+        usable = false;
+    }
+
+    private void check() {
+        try {
+            Double lag = replica.queryForObject(LAG_SQL, Double.class);
+            lagSeconds = lag != null ? lag : Double.POSITIVE_INFINITY;
+            boolean caughtUp = lagSeconds * 1000 <= maxLag.toMillis();
+            if (caughtUp != usable) {
+                if (caughtUp) {
+                    log.info("Read replica caught up (lag {}s), reading from the replica", lagSeconds);
+                } else {
+                    log.warn("Read replica is {}s behind, reading from the primary", lagSeconds);
+                }
+            }
+            usable = caughtUp;
+        } catch (DataAccessException ex) {
+            lagSeconds = Double.NaN;
+            markUnusable(ex);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
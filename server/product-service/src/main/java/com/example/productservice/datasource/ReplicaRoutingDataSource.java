@@ -0,0 +1,211 @@
+package com.example.productservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Hands out replica connections to read-only transactions and primary
+ * connections to everything else.
+ * <p>
+ * Read-only transactions still use the primary while the
+ * {@link ReplicaLagMonitor} finds the replica too far behind or unreachable,
+ * and for {@code read-your-writes-window} after the current user committed a
+ * write, so that users always see their own changes. Only read-write
+ * transactions that ran a data-changing statement and committed open the
+ * window. The window is tracked per instance. If the replica refuses a connection, the read falls back to
+ * the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}:
+ * a transaction is only marked read-only after it has asked for its connection.
+ * With open-in-view, a request keeps the connection of its first transaction,
+ * so a request that writes must not start with a read-only transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    /** First keyword of a statement, after leading whitespace, comments and parentheses. */
+    private static final Pattern FIRST_KEYWORD = Pattern.compile("^(?:\\s|\\(|/\\*.*?\\*/|--[^\\n]*\\n)*(\\w+)",
+            Pattern.DOTALL);
+    private static final Pattern DATA_CHANGE = Pattern.compile("\\b(?:insert|update|delete|merge)\\b",
+            Pattern.CASE_INSENSITIVE);
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagMonitor lagMonitor;
+    private final long readYourWritesNanos;
+    /** Binds the current transaction's {@link WriteTracker}. */
+    private final Object writeTrackerKey = new Object();
+
+    /** When each user last committed a write, in {@link System#nanoTime()}. */
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private volatile long nextPurge = System.nanoTime();
+
+    private final Counter replicaReads;
+    private final Counter laggingReads;
+    private final Counter ownWriteReads;
+    private final Counter fallbackReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration readYourWritesWindow, MeterRegistry registry) {
+        this.primary = ProxyDataSourceBuilder.create(primary)
+                .afterQuery(this::onPrimaryStatement)
+                .build();
+        this.replica = replica;
+        this.lagMonitor = lagMonitor;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.replicaReads = reads(registry, "replica");
+        this.laggingReads = reads(registry, "primary_replica_behind");
+        this.ownWriteReads = reads(registry, "primary_own_write");
+        this.fallbackReads = reads(registry, "primary_replica_down");
+    }
+
+    private static Counter reads(MeterRegistry registry, String route) {
+        return Counter.builder("datasource.reads")
+                .description("Read-only transactions by the database that served them")
+                .tag("route", route)
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            trackWrites();
+            return primary.getConnection();
+        }
+        String user = currentUser();
+        if (user != null && wroteRecently(user)) {
+            ownWriteReads.increment();
+            return primary.getConnection();
+        }
+        if (!lagMonitor.isUsable()) {
+            laggingReads.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaReads.increment();
+            return connection;
+        } catch (SQLException ex) {
+            lagMonitor.markUnusable(ex);
+            fallbackReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Connections use the configured credentials");
+    }
+
+    /**
+     * Starts the user's read-your-writes window when the current transaction
+     * commits, provided it changed data by then.
+     */
+    private void trackWrites() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.hasResource(writeTrackerKey)) {
+            return;
+        }
+        String user = currentUser();
+        if (user == null) {
+            return;
+        }
+        WriteTracker tracker = new WriteTracker();
+        TransactionSynchronizationManager.bindResource(writeTrackerKey, tracker);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTrackerKey);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(writeTrackerKey, tracker);
+            }
+
+            @Override
+            public void afterCommit() {
+                if (tracker.changedData) {
+                    rememberWrite(user);
+                }
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writeTrackerKey);
+            }
+        });
+    }
+
+    private void onPrimaryStatement(ExecutionInfo execution, List<QueryInfo> queries) {
+        if (execution.isSuccess()
+                && TransactionSynchronizationManager.getResource(writeTrackerKey) instanceof WriteTracker tracker
+                && !tracker.changedData
+                && queries.stream().anyMatch(query -> changesData(query.getQuery()))) {
+            tracker.changedData = true;
+        }
+    }
+
+    /**
+     * Whether a statement may change data. Anything but a query counts, and a
+     * {@code WITH} query counts when it contains a data-modifying statement.
+     */
+    static boolean changesData(String sql) {
+        Matcher keyword = FIRST_KEYWORD.matcher(sql);
+        if (!keyword.find()) {
+            return false;
+        }
+        return switch (keyword.group(1).toLowerCase(Locale.ROOT)) {
+            case "select", "show", "values", "explain", "set" -> false;
+            case "with" -> DATA_CHANGE.matcher(sql).find();
+            default -> true;
+        };
+    }
+
+    private void rememberWrite(String user) {
+        long now = System.nanoTime();
+        lastWrites.put(user, now);
+        if (now - nextPurge > 0) {
+            nextPurge = now + readYourWritesNanos;
+            lastWrites.values().removeIf(at -> now - at > readYourWritesNanos);
+        }
+    }
+
+    private boolean wroteRecently(String user) {
+        Long at = lastWrites.get(user);
+        return at != null && System.nanoTime() - at <= readYourWritesNanos;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static final class WriteTracker {
+        boolean changedData;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.productservice.dto;
+
+import com.example.productservice.entities.ProductChange;
+
+import java.util.List;
+
+/**
+ * One page of the product change feed.
+ *
+ * @param changes changes in sequence order
+ * @param lastSequence value to pass as {@code since} for the next page
+ * @param hasMore whether more changes are already available
+ */
+public record ProductChangePage(List<ProductChange> changes, long lastSequence, boolean hasMore) {
+}
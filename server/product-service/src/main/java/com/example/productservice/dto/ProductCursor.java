@@ -0,0 +1,40 @@
+package com.example.productservice.dto;
+
+import com.example.productservice.exceptions.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a product listing: the sort value and ID of the last
+ * product returned. Serialized as an opaque URL-safe token that also records
+ * the sort order, so a cursor cannot be replayed against a different one.
+ *
+ * @param sortField field the listing is sorted by
+ * @param descending sort direction
+ * @param sortValue last sort value ({@link String} for name, {@link Double} for price)
+ * @param id last product ID
+ */
+public record ProductCursor(String sortField, boolean descending, Object sortValue, String id) {
+
+    private static final char SEPARATOR = '\n';
+
+    public String encode() {
+        String raw = sortField + SEPARATOR + (descending ? "desc" : "asc") + SEPARATOR + id + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ProductCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(String.valueOf(SEPARATOR), 4);
+            if (parts.length != 4) {
+                throw new InvalidRequestException("Invalid cursor");
+            }
+            Object sortValue = "price".equals(parts[0]) ? Double.valueOf(parts[3]) : parts[3];
+            return new ProductCursor(parts[0], "desc".equals(parts[1]), sortValue, parts[2]);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidRequestException("Invalid cursor", ex);
+        }
+    }
+}
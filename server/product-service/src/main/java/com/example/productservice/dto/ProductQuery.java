@@ -0,0 +1,41 @@
+package com.example.productservice.dto;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Listing request for {@code GET /api/products}: filters, sort order, page
+ * (offset or keyset cursor) and the fields to return. Immutable, as it is
+ * part of the page cache key.
+ */
+@Value
+@Builder(toBuilder = true)
+public class ProductQuery {
+
+    public static final List<String> ALL_FIELDS = List.of("id", "name", "description", "price", "quantity");
+    public static final List<String> SORTABLE_FIELDS = List.of("name", "price");
+
+    private Double minPrice;
+    private Double maxPrice;
+    private boolean inStockOnly;
+
+    /** {@code name} or {@code price}; ties are broken by {@code id}. */
+    private String sortField;
+    private boolean descending;
+
+    private int size;
+    /** Offset page, used when {@link #cursor} is absent. */
+    private int page;
+    /** Position after which to continue, from a previous {@code X-Next-Cursor}. */
+    private ProductCursor cursor;
+
+    /** Fields to return, in {@link #ALL_FIELDS} order. */
+    private List<String> fields;
+
+    /** Rows skipped by an offset page; a long, since {@code page * size} can exceed an int. */
+    public long offset() {
+        return (long) page * size;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.productservice.dto;
+
+/**
+ * One product search result.
+ *
+ * @param id product ID
+ * @param name product name
+ * @param price product price
+ * @param score relevance; only meaningful relative to other hits of the same query
+ */
+public record ProductSearchHit(String id, String name, Double price, float score) {
+}
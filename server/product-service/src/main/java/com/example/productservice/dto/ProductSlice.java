@@ -0,0 +1,14 @@
+package com.example.productservice.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a product listing.
+ *
+ * @param products products with only the requested fields
+ * @param total number of products matching the filters, or {@code null} for cursor pages
+ * @param nextCursor cursor for the following page, or {@code null} on the last page
+ */
+public record ProductSlice(List<Map<String, Object>> products, Long total, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package com.example.productservice.dto;
+
+/**
+ * Exact stock of one product.
+ *
+ * @param productId product ID
+ * @param quantity units available, summed over all stripes
+ * @param stripes number of stripes, 0 when the stock is a single counter
+ */
+public record StockLevel(String productId, int quantity, int stripes) {
+}
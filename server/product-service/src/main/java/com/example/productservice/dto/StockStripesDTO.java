@@ -0,0 +1,19 @@
+package com.example.productservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStripesDTO {
+
+    @NotNull(message = "Stripes is required")
+    @Min(value = 0, message = "Stripes cannot be negative")
+    @Max(value = 64, message = "At most 64 stripes")
+    private Integer stripes;
+}
@@ -1,7 +1,11 @@
 package com.example.productservice.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
@@ -9,7 +13,12 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Listing sorts are (field, id) so keyset pages are index range scans
+        @Index(name = "idx_products_name_id", columnList = "name, id"),
+        @Index(name = "idx_products_price_id", columnList = "price, id")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "products")
 public class Product {
     
     @Id
@@ -26,4 +35,16 @@ public class Product {
     
     @Column(nullable = false)
     private Integer quantity;
+
+    /**
+     * Number of {@link ProductStockStripe} rows holding this product's stock,
+     * or 0 when {@link #quantity} is the stock itself. While striped,
+     * {@code quantity} is the stripe total as of the last rebalance.
+     * Only ever changed with SQL under the row lock, never by saving the
+     * entity, which may be a stale copy.
+     */
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(nullable = false, updatable = false)
+    private int stockStripes;
 }
@@ -0,0 +1,49 @@
+package com.example.productservice.entities;
+
+import com.example.productservice.services.ProductChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * One entry of the product change log. {@code seq} increases in the order
+ * entries become visible, so a consumer that has applied every change up to some {@code seq} only needs
+ * the entries after it. Entries carry the product as it was after the change;
+ * a {@code DELETED} entry (tombstone) carries only the ID.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "product_changes", indexes = {
+        // Compaction looks for later entries of the same product
+        @Index(name = "idx_product_changes_product_seq", columnList = "productId, seq"),
+        @Index(name = "idx_product_changes_changed_at", columnList = "changedAt")
+})
+public class ProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false)
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangedEvent.Type type;
+
+    private String name;
+
+    private String description;
+
+    private Double price;
+
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
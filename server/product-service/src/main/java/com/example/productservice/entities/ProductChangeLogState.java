@@ -0,0 +1,28 @@
+package com.example.productservice.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row bookkeeping for the product change log.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_change_log_state")
+public class ProductChangeLogState {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    /**
+     * Highest sequence of a tombstone removed by compaction. A consumer that
+     * last synced before it may have missed a delete and must start over.
+     */
+    @Column(nullable = false)
+    private long purgedThrough;
+}
@@ -0,0 +1,37 @@
+package com.example.productservice.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * One slice of a striped product's stock. Reservations update a single
+ * stripe, so concurrent buyers of the same product lock different rows.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@IdClass(ProductStockStripe.Key.class)
+@Table(name = "product_stock_stripes")
+public class ProductStockStripe {
+
+    @Id
+    private String productId;
+
+    @Id
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String productId;
+        private Integer stripe;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productservice.entities;
+
+import com.example.productservice.services.ProductChangedEvent;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A committed product change not yet given its {@link ProductChange#getSeq()}.
+ * Writers only insert here, so they never wait for each other; the change log
+ * moves the entries into {@code product_changes} in batches.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "product_change_queue")
+public class QueuedProductChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ProductChangedEvent.Type type;
+
+    private String name;
+
+    private String description;
+
+    private Double price;
+
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Instant changedAt;
+}
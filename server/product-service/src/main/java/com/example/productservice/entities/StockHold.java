@@ -0,0 +1,42 @@
+package com.example.productservice.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Stock set aside for one user's cart. The quantity is taken out of stock when
+ * the hold is placed and returned when it is released or expires; converting
+ * the hold into an order keeps it taken.
+ */
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table(name = "stock_holds", indexes = {
+        @Index(name = "idx_stock_holds_user_id", columnList = "userId"),
+        @Index(name = "idx_stock_holds_expires_at", columnList = "expiresAt")
+})
+public class StockHold {
+
+    @Id
+    private String id;
+
+    @Column(nullable = false)
+    private String productId;
+
+    @Column(nullable = false)
+    private String userId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
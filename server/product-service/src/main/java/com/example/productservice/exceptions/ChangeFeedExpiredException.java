@@ -0,0 +1,7 @@
+package com.example.productservice.exceptions;
+
+public class ChangeFeedExpiredException extends RuntimeException {
+    public ChangeFeedExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.productservice.exceptions;
+
+/**
+ * A request parameter or body the caller has to fix; mapped to 400 Bad Request.
+ */
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+
+    public InvalidRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.productservice.holds;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Lifetime limits of cart stock holds.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "holds")
+public class StockHoldProperties {
+
+    /** How long a hold lasts after it is placed or extended. */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /** Extending never keeps a hold beyond this age. */
+    private Duration maxLifetime = Duration.ofHours(1);
+
+    /** Active holds one user may have at a time. */
+    private int maxPerUser = 50;
+
+    /** Resolution of expiry; holds are released at most one tick late. */
+    private Duration tick = Duration.ofMillis(100);
+
+    /**
+     * How often the database is checked for expired holds that no instance
+     * has released, e.g. because the instance that placed them is down.
+     */
+    private Duration sweepInterval = Duration.ofMinutes(1);
+}
@@ -0,0 +1,330 @@
+package com.example.productservice.holds;
+
+import com.example.productservice.entities.StockHold;
+import com.example.productservice.exceptions.InvalidRequestException;
+import com.example.productservice.exceptions.ResourceNotFoundException;
+import com.example.productservice.inventory.InventoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Time-limited stock holds for shopping carts.
+ * <p>
+ * Placing a hold reserves its quantity through {@link InventoryService} and
+ * writes a {@code stock_holds} row in the same transaction. The row is the
+ * hold; expiry timers only say when to look at it again. Each instance keeps
+ * a {@link TimingWheel} of the holds it placed or extended, and a
+ * {@code stock-hold-expiry} thread advances it every tick and releases the
+ * holds that came due. Expiring deletes the row only if it is still past its
+ * deadline, so a hold extended elsewhere or already released is left alone,
+ * and stock is never returned twice.
+ * <p>
+ * On startup every stored hold is put back on the wheel. Holds whose instance
+ * is down are picked up by a periodic sweep over the {@code expires_at} index.
+ */
+@Slf4j
+@Service
+public class StockHoldService implements DisposableBean {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int RECOVERY_PAGE_SIZE = 10_000;
+
+    private static final String HOLD_COLUMNS = "id, product_id, user_id, quantity, created_at, expires_at";
+
+    private static final RowMapper<StockHold> HOLD_ROW = (rs, rowNum) -> StockHold.builder()
+            .id(rs.getString("id"))
+            .productId(rs.getString("product_id"))
+            .userId(rs.getString("user_id"))
+            .quantity(rs.getInt("quantity"))
+            .createdAt(rs.getTimestamp("created_at").toInstant())
+            .expiresAt(rs.getTimestamp("expires_at").toInstant())
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryService inventoryService;
+    private final StockHoldProperties properties;
+
+    private final TimingWheel<String> wheel;
+    /** Pending expiry timer of each hold this instance placed, extended or recovered. */
+    private final Map<String, TimingWheel.Timeout<String>> timers = new ConcurrentHashMap<>();
+    private final long tickNanos;
+    private final Thread ticker;
+    private volatile boolean running = true;
+
+    private final Counter placed;
+    private final Counter extended;
+    private final Counter converted;
+    private final Counter released;
+    private final Counter expired;
+
+    public StockHoldService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            InventoryService inventoryService, StockHoldProperties properties, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.inventoryService = inventoryService;
+        this.properties = properties;
+        this.wheel = new TimingWheel<>(properties.getTick().toMillis(), System.currentTimeMillis());
+        this.tickNanos = properties.getTick().toNanos();
+
+        this.placed = holds(registry, "placed");
+        this.extended = holds(registry, "extended");
+        this.converted = holds(registry, "converted");
+        this.released = holds(registry, "released");
+        this.expired = holds(registry, "expired");
+        Gauge.builder("stock.holds.scheduled", wheel, TimingWheel::size)
+                .description("Hold expiry timers pending on this instance")
+                .register(registry);
+
+        this.ticker = new Thread(this::tickLoop, "stock-hold-expiry");
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    private static Counter holds(MeterRegistry registry, String outcome) {
+        return Counter.builder("stock.holds")
+                .description("Stock holds by what happened to them")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /**
+     * Takes {@code quantity} units of a product out of stock for
+     * {@link StockHoldProperties#getTtl()}.
+     * @throws com.example.productservice.exceptions.InsufficientStockException if fewer units are available
+     * @throws ResourceNotFoundException if the product does not exist
+     * @throws InvalidRequestException if the user already has the maximum number of holds
+     */
+    public StockHold place(String userId, String productId, int quantity) {
+        Instant now = Instant.now();
+        StockHold hold = StockHold.builder()
+                .id(UUID.randomUUID().toString())
+                .productId(productId)
+                .userId(userId)
+                .quantity(quantity)
+                .createdAt(now)
+                .expiresAt(now.plus(properties.getTtl()))
+                .build();
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer active = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM stock_holds WHERE user_id = ? AND expires_at > ?",
+                    Integer.class, userId, Timestamp.from(now));
+            if (active != null && active >= properties.getMaxPerUser()) {
+                throw new InvalidRequestException("A user can have at most " + properties.getMaxPerUser()
+                        + " stock holds at a time");
+            }
+            inventoryService.reserve(productId, quantity);
+            jdbcTemplate.update("INSERT INTO stock_holds (" + HOLD_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?)",
+                    hold.getId(), productId, userId, quantity,
+                    Timestamp.from(hold.getCreatedAt()), Timestamp.from(hold.getExpiresAt()));
+        });
+        schedule(hold.getId(), hold.getExpiresAt());
+        placed.increment();
+        return hold;
+    }
+
+    /**
+     * @return the user's holds that have not expired, oldest first
+     */
+    public List<StockHold> findByUser(String userId) {
+        return jdbcTemplate.query("SELECT " + HOLD_COLUMNS + " FROM stock_holds WHERE user_id = ? AND expires_at > ? "
+                + "ORDER BY created_at", HOLD_ROW, userId, Timestamp.from(Instant.now()));
+    }
+
+    /**
+     * Restarts the time-to-live of a hold, up to
+     * {@link StockHoldProperties#getMaxLifetime()} after it was placed.
+     * @throws ResourceNotFoundException if the user has no such hold or it expired
+     */
+    public StockHold extend(String userId, String holdId) {
+        Instant now = Instant.now();
+        List<StockHold> holds = jdbcTemplate.query(
+                "UPDATE stock_holds SET expires_at = LEAST(?, created_at + ? * interval '1 millisecond') "
+                        + "WHERE id = ? AND user_id = ? AND expires_at > ? RETURNING " + HOLD_COLUMNS, HOLD_ROW,
+                Timestamp.from(now.plus(properties.getTtl())), properties.getMaxLifetime().toMillis(),
+                holdId, userId, Timestamp.from(now));
+        if (holds.isEmpty()) {
+            throw notFound(holdId);
+        }
+        StockHold hold = holds.get(0);
+        schedule(hold.getId(), hold.getExpiresAt());
+        extended.increment();
+        return hold;
+    }
+
+    /**
+     * Ends a hold whose units were ordered; they stay out of stock.
+     * @throws ResourceNotFoundException if the user has no such hold or it expired
+     */
+    public void convert(String userId, String holdId) {
+        int deleted = jdbcTemplate.update("DELETE FROM stock_holds WHERE id = ? AND user_id = ? AND expires_at > ?",
+                holdId, userId, Timestamp.from(Instant.now()));
+        if (deleted == 0) {
+            throw notFound(holdId);
+        }
+        cancel(holdId);
+        converted.increment();
+    }
+
+    /**
+     * Ends a hold and puts its units back into stock.
+     * @throws ResourceNotFoundException if the user has no such hold
+     */
+    public void release(String userId, String holdId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<StockHold> holds = jdbcTemplate.query("DELETE FROM stock_holds WHERE id = ? AND user_id = ? "
+                    + "RETURNING " + HOLD_COLUMNS, HOLD_ROW, holdId, userId);
+            if (holds.isEmpty()) {
+                throw notFound(holdId);
+            }
+            returnStock(holds.get(0).getProductId(), holds.get(0).getQuantity());
+        });
+        cancel(holdId);
+        released.increment();
+    }
+
+    /**
+     * Puts every stored hold on this instance's wheel, so holds survive a
+     * restart. Holds that expired while the service was down fire on the first tick.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        String after = "";
+        int recovered = 0;
+        while (true) {
+            List<StockHold> page = jdbcTemplate.query(
+                    "SELECT id, expires_at FROM stock_holds WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> StockHold.builder()
+                            .id(rs.getString("id"))
+                            .expiresAt(rs.getTimestamp("expires_at").toInstant())
+                            .build(),
+                    after, RECOVERY_PAGE_SIZE);
+            page.forEach(hold -> schedule(hold.getId(), hold.getExpiresAt()));
+            recovered += page.size();
+            if (page.size() < RECOVERY_PAGE_SIZE) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+        if (recovered > 0) {
+            log.info("Recovered {} stock holds", recovered);
+        }
+    }
+
+    /**
+     * Releases holds that stayed past their deadline for longer than one
+     * sweep interval, which only happens when no running instance has a timer
+     * for them.
+     */
+    @Scheduled(fixedDelayString = "${holds.sweep-interval:1m}", initialDelayString = "${holds.sweep-interval:1m}")
+    public void sweep() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(properties.getSweepInterval()));
+        List<String> overdue;
+        do {
+            overdue = jdbcTemplate.queryForList(
+                    "SELECT id FROM stock_holds WHERE expires_at < ? ORDER BY expires_at LIMIT ?",
+                    String.class, cutoff, BATCH_SIZE);
+            if (!overdue.isEmpty()) {
+                log.info("Releasing {} overdue stock holds", overdue.size());
+                expire(overdue);
+            }
+        } while (overdue.size() == BATCH_SIZE);
+    }
+
+    private void tickLoop() {
+        while (running) {
+            List<TimingWheel.Timeout<String>> fired = wheel.advance(System.currentTimeMillis());
+            if (!fired.isEmpty()) {
+                fired.forEach(timeout -> timers.remove(timeout.task(), timeout));
+                List<String> holdIds = fired.stream().map(TimingWheel.Timeout::task).toList();
+                for (int from = 0; from < holdIds.size(); from += BATCH_SIZE) {
+                    try {
+                        expire(holdIds.subList(from, Math.min(from + BATCH_SIZE, holdIds.size())));
+                    } catch (RuntimeException ex) {
+                        // Left for the sweep
+                        log.warn("Expiring stock holds failed: {}", ex.getMessage());
+                    }
+                }
+            }
+            LockSupport.parkNanos(this, tickNanos);
+        }
+    }
+
+    /**
+     * Deletes the given holds that are past their deadline and returns their
+     * units to stock, one release per product.
+     */
+    private void expire(List<String> holdIds) {
+        Object[] ids = holdIds.toArray();
+        Timestamp now = Timestamp.from(Instant.now());
+        Integer count = transactionTemplate.execute(status -> {
+            List<StockHold> holds = jdbcTemplate.query(
+                    "DELETE FROM stock_holds WHERE id = ANY(?) AND expires_at <= ? RETURNING " + HOLD_COLUMNS,
+                    ps -> {
+                        ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids));
+                        ps.setTimestamp(2, now);
+                    }, HOLD_ROW);
+            // Sorted, so concurrent expiry batches lock products in the same order
+            Map<String, Integer> byProduct = new TreeMap<>();
+            holds.forEach(hold -> byProduct.merge(hold.getProductId(), hold.getQuantity(), Integer::sum));
+            byProduct.forEach(this::returnStock);
+            return holds.size();
+        });
+        if (count != null && count > 0) {
+            expired.increment(count);
+        }
+    }
+
+    private void returnStock(String productId, int quantity) {
+        try {
+            inventoryService.release(productId, quantity);
+        } catch (ResourceNotFoundException ex) {
+            log.debug("Held product {} no longer exists", productId);
+        }
+    }
+
+    private void schedule(String holdId, Instant expiresAt) {
+        TimingWheel.Timeout<String> previous = timers.put(holdId, wheel.schedule(holdId, expiresAt.toEpochMilli()));
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    private void cancel(String holdId) {
+        TimingWheel.Timeout<String> timeout = timers.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private static ResourceNotFoundException notFound(String holdId) {
+        return new ResourceNotFoundException("Stock hold not found with id: " + holdId);
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(ticker);
+        ticker.join(TimeUnit.SECONDS.toMillis(2));
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.productservice.holds;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel: schedules, cancels and fires timers in constant
+ * time, however many are pending.
+ * <p>
+ * Time advances in ticks. Level 0 has one slot per tick for the next 64
+ * ticks; each higher level has 64 slots that each cover 64 slots of the level
+ * below. A timer is filed in the lowest level whose span reaches its deadline.
+ * Whenever a lower level wraps around, the next slot of the level above is
+ * emptied and its timers are filed again one level further down, so every
+ * timer moves at most once per level before it fires. A tick only visits one
+ * level-0 slot plus, every 64 ticks, one slot per higher level.
+ * <p>
+ * Four levels span 2<sup>24</sup> ticks (19 days at 100 ms). Timers further
+ * out wait in the last slot and are filed again when it comes round.
+ * <p>
+ * Thread-safe; all operations take the wheel's monitor.
+ */
+public final class TimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long SPAN = 1L << (SLOT_BITS * LEVELS);
+
+    private final long tickMillis;
+    /** Circular list heads, {@code [level][slot]}. */
+    private final Timeout<T>[][] slots;
+    /** The next tick to process; every timer due before it has fired. */
+    private long nextTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.nextTick = startMillis / tickMillis;
+        this.slots = new Timeout[LEVELS][SLOTS];
+        for (Timeout<T>[] level : slots) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                level[slot] = new Timeout<>(this, null, 0);
+            }
+        }
+    }
+
+    /**
+     * Schedules {@code task} to fire on the first {@link #advance} at or after
+     * {@code deadlineMillis}. Deadlines in the past fire on the next tick.
+     */
+    public synchronized Timeout<T> schedule(T task, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(this, task, -Math.floorDiv(-deadlineMillis, tickMillis));
+        file(timeout);
+        size++;
+        return timeout;
+    }
+
+    /**
+     * Processes every tick up to {@code nowMillis}.
+     * @return the timers that fired, earliest tick first
+     */
+    public synchronized List<Timeout<T>> advance(long nowMillis) {
+        long target = nowMillis / tickMillis;
+        List<Timeout<T>> fired = new ArrayList<>();
+        while (nextTick <= target) {
+            int slot = (int) (nextTick & SLOT_MASK);
+            // Level 0 wrapped: pull down the next slot of each level above, as far as they wrapped too
+            int level = 1;
+            while (level < LEVELS && cascade(level)) {
+                level++;
+            }
+            Timeout<T> head = slots[0][slot];
+            while (head.next != head) {
+                Timeout<T> timeout = head.next;
+                timeout.unlink();
+                if (timeout.tick > nextTick) {
+                    // Beyond the wheel's span when it was filed
+                    file(timeout);
+                } else {
+                    size--;
+                    fired.add(timeout);
+                }
+            }
+            nextTick++;
+        }
+        return fired;
+    }
+
+    /** Number of pending timers. */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Refiles the slot of {@code level} that starts at {@link #nextTick}, if
+     * the levels below have just wrapped around.
+     * @return {@code true} if this level wrapped as well
+     */
+    private boolean cascade(int level) {
+        int shift = SLOT_BITS * level;
+        if ((nextTick & ((1L << shift) - 1)) != 0) {
+            return false;
+        }
+        int slot = (int) ((nextTick >>> shift) & SLOT_MASK);
+        Timeout<T> head = slots[level][slot];
+        while (head.next != head) {
+            Timeout<T> timeout = head.next;
+            timeout.unlink();
+            file(timeout);
+        }
+        return slot == 0;
+    }
+
+    private void file(Timeout<T> timeout) {
+        long tick = Math.max(timeout.tick, nextTick);
+        long delta = tick - nextTick;
+        if (delta >= SPAN) {
+            tick = nextTick + SPAN - 1;
+            delta = SPAN - 1;
+        }
+        int level = 0;
+        while (delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+        timeout.linkBefore(slots[level][slot]);
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static final class Timeout<T> {
+
+        private final TimingWheel<T> wheel;
+        private final T task;
+        private final long tick;
+        private Timeout<T> prev = this;
+        private Timeout<T> next = this;
+        private boolean pending;
+
+        private Timeout(TimingWheel<T> wheel, T task, long tick) {
+            this.wheel = wheel;
+            this.task = task;
+            this.tick = tick;
+        }
+
+        public T task() {
+            return task;
+        }
+
+        /**
+         * @return {@code false} if the timer already fired or was cancelled
+         */
+        public boolean cancel() {
+            synchronized (wheel) {
+                if (!pending) {
+                    return false;
+                }
+                unlink();
+                wheel.size--;
+                return true;
+            }
+        }
+
+        private void linkBefore(Timeout<T> head) {
+            prev = head.prev;
+            next = head;
+            head.prev.next = this;
+            head.prev = this;
+            pending = true;
+        }
+
+        private void unlink() {
+            prev.next = next;
+            next.prev = prev;
+            prev = this;
+            next = this;
+            pending = false;
+        }
+    }
+}
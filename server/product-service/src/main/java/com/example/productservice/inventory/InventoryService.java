@@ -0,0 +1,382 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.dto.StockLevel;
+import com.example.productservice.entities.Product;
+import com.example.productservice.exceptions.InsufficientStockException;
+import com.example.productservice.exceptions.ResourceNotFoundException;
+import com.example.productservice.services.ProductChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+/**
+ * Reserves and releases product stock.
+ * <p>
+ * By default a product's stock is its {@code quantity} column, and every
+ * reservation updates that one row. A product switched to striped mode
+ * ({@link #setStripes}) keeps its stock in N {@code product_stock_stripes}
+ * rows instead. A reservation takes a random stripe, skipping stripes that are
+ * locked or too low, and only locks all stripes when no
+ * single stripe can serve it. Concurrent buyers of a hot product therefore
+ * mostly lock different rows.
+ * <p>
+ * A background task evens out the stripes and copies their total into
+ * {@code products.quantity}, so product reads show striped stock with at
+ * most one rebalance interval of delay. {@link #getStock} is always exact.
+ * <p>
+ * Switching, rebalancing and redistributing lock the product row before its
+ * stripes. Reservations and releases only lock stripes, in stripe order, and
+ * never wait for the product row, so the two cannot deadlock.
+ */
+@Slf4j
+@Service
+public class InventoryService {
+
+    private static final String PRODUCT_COLUMNS = "id, name, description, price, quantity";
+
+    private static final String SINGLE_RESERVE_SQL = "UPDATE products SET quantity = quantity - ? "
+            + "WHERE id = ? AND stock_stripes = 0 AND quantity >= ? RETURNING " + PRODUCT_COLUMNS;
+    private static final String SINGLE_RELEASE_SQL = "UPDATE products SET quantity = quantity + ? "
+            + "WHERE id = ? AND stock_stripes = 0 RETURNING " + PRODUCT_COLUMNS;
+
+    /**
+     * Adjusts a random stripe among those that hold at least the given
+     * quantity and are not locked by another transaction.
+     */
+    private static final String STRIPE_ADJUST_SQL = """
+            UPDATE product_stock_stripes SET quantity = quantity + ?
+            WHERE product_id = ? AND stripe = (
+                SELECT stripe FROM product_stock_stripes
+                WHERE product_id = ? AND quantity >= ?
+                ORDER BY random() LIMIT 1 FOR UPDATE SKIP LOCKED)""";
+
+    private static final String STRIPE_WAIT_AND_ADD_SQL = """
+            UPDATE product_stock_stripes SET quantity = quantity + ?
+            WHERE product_id = ? AND stripe = (
+                SELECT stripe FROM product_stock_stripes WHERE product_id = ?
+                ORDER BY random() LIMIT 1)""";
+
+    private static final String REDISTRIBUTE_SQL = """
+            UPDATE product_stock_stripes s
+            SET quantity = p.quantity / p.stock_stripes + CASE WHEN s.stripe < p.quantity % p.stock_stripes THEN 1 ELSE 0 END
+            FROM products p WHERE p.id = s.product_id AND p.id = ANY(?)""";
+
+    private static final RowMapper<Product> PRODUCT_ROW = (rs, rowNum) -> Product.builder()
+            .id(rs.getString("id"))
+            .name(rs.getString("name"))
+            .description(rs.getString("description"))
+            .price(rs.getDouble("price"))
+            .quantity(rs.getInt("quantity"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /** Products last seen striped on this instance; only decides which path to try first. */
+    private final Set<String> stripedHint = ConcurrentHashMap.newKeySet();
+
+    private final Counter singleReserved;
+    private final Counter stripedReserved;
+    private final Counter allStripesReserved;
+    private final Counter insufficient;
+
+    public InventoryService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                            ApplicationEventPublisher eventPublisher, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.singleReserved = reservations(registry, "single_row");
+        this.stripedReserved = reservations(registry, "one_stripe");
+        this.allStripesReserved = reservations(registry, "all_stripes");
+        this.insufficient = reservations(registry, "insufficient");
+    }
+
+    private static Counter reservations(MeterRegistry registry, String path) {
+        return Counter.builder("inventory.reservations")
+                .description("Stock reservations by how they were served")
+                .tag("path", path)
+                .register(registry);
+    }
+
+    /**
+     * Takes {@code quantity} units of stock.
+     * @throws InsufficientStockException if fewer units are available
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public void reserve(String productId, int quantity) {
+        boolean hintedStriped = stripedHint.contains(productId);
+        if (!hintedStriped && adjustSingle(true, productId, quantity)) {
+            singleReserved.increment();
+            return;
+        }
+        if (adjustOneStripe(productId, -quantity, quantity)) {
+            stripedHint.add(productId);
+            stripedReserved.increment();
+            return;
+        }
+        Boolean reserved = transactionTemplate.execute(status -> reserveAcrossStripes(productId, quantity));
+        if (reserved != null) {
+            if (reserved) {
+                allStripesReserved.increment();
+                return;
+            }
+            insufficient.increment();
+            throw insufficientStock(productId, quantity);
+        }
+        // Not striped (any more)
+        stripedHint.remove(productId);
+        if (hintedStriped && adjustSingle(true, productId, quantity)) {
+            singleReserved.increment();
+            return;
+        }
+        insufficient.increment();
+        throw insufficientStock(productId, quantity);
+    }
+
+    /**
+     * Returns {@code quantity} units to stock.
+     * @throws ResourceNotFoundException if the product does not exist
+     */
+    public void release(String productId, int quantity) {
+        boolean hintedStriped = stripedHint.contains(productId);
+        if (!hintedStriped && adjustSingle(false, productId, quantity)) {
+            return;
+        }
+        if (adjustOneStripe(productId, quantity, 0)) {
+            stripedHint.add(productId);
+            return;
+        }
+        // Every stripe is locked right now: wait for one
+        int updated = jdbcTemplate.update(STRIPE_WAIT_AND_ADD_SQL, quantity, productId, productId);
+        if (updated > 0) {
+            return;
+        }
+        stripedHint.remove(productId);
+        if (!adjustSingle(false, productId, quantity)) {
+            throw notFound(productId);
+        }
+    }
+
+    /**
+     * @return exact stock, summed over the stripes of a striped product
+     */
+    public StockLevel getStock(String productId) {
+        List<StockLevel> levels = jdbcTemplate.query("""
+                SELECT p.id, p.stock_stripes,
+                    CASE WHEN p.stock_stripes = 0 THEN p.quantity
+                         ELSE (SELECT coalesce(sum(s.quantity), 0) FROM product_stock_stripes s WHERE s.product_id = p.id)
+                    END AS quantity
+                FROM products p WHERE p.id = ?""",
+                (rs, rowNum) -> new StockLevel(rs.getString("id"), rs.getInt("quantity"), rs.getInt("stock_stripes")),
+                productId);
+        if (levels.isEmpty()) {
+            throw notFound(productId);
+        }
+        return levels.get(0);
+    }
+
+    /**
+     * Switches a product between single-row stock ({@code stripes == 0}) and
+     * stock split across {@code stripes} rows. The total is preserved.
+     */
+    public StockLevel setStripes(String productId, int stripes) {
+        StockLevel level = transactionTemplate.execute(status -> {
+            List<Integer> current = jdbcTemplate.query(
+                    "SELECT stock_stripes FROM products WHERE id = ? FOR UPDATE",
+                    (rs, rowNum) -> rs.getInt(1), productId);
+            if (current.isEmpty()) {
+                throw notFound(productId);
+            }
+            int total = current.get(0) > 0
+                    ? lockStripes(productId).stream().mapToInt(Stripe::quantity).sum()
+                    : jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, productId);
+            jdbcTemplate.update("DELETE FROM product_stock_stripes WHERE product_id = ?", productId);
+            if (stripes > 0) {
+                jdbcTemplate.batchUpdate("INSERT INTO product_stock_stripes (product_id, stripe, quantity) VALUES (?, ?, ?)",
+                        IntStream.range(0, stripes).boxed().toList(), stripes, (ps, stripe) -> {
+                            ps.setString(1, productId);
+                            ps.setInt(2, stripe);
+                            ps.setInt(3, share(total, stripes, stripe));
+                        });
+            }
+            Product product = jdbcTemplate.queryForObject("UPDATE products SET stock_stripes = ?, quantity = ? "
+                    + "WHERE id = ? RETURNING " + PRODUCT_COLUMNS, PRODUCT_ROW, stripes, total, productId);
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, product));
+            return new StockLevel(productId, total, stripes);
+        });
+        if (stripes > 0) {
+            stripedHint.add(productId);
+        } else {
+            stripedHint.remove(productId);
+        }
+        log.info("Stock of product {} now held in {} stripes", productId, stripes);
+        return level;
+    }
+
+    /**
+     * Re-splits the stripes of the given products from their current
+     * {@code products.quantity}, after that column was overwritten (product
+     * update, bulk import). Must run in the transaction that wrote it.
+     * Products without stripes are left alone.
+     */
+    public void redistribute(Collection<String> productIds) {
+        Object[] ids = productIds.toArray();
+        jdbcTemplate.update(REDISTRIBUTE_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)));
+    }
+
+    /**
+     * Removes the stripes of a deleted product, in the deleting transaction.
+     */
+    public void deleteStripes(String productId) {
+        jdbcTemplate.update("DELETE FROM product_stock_stripes WHERE product_id = ?", productId);
+        stripedHint.remove(productId);
+    }
+
+    /**
+     * Copies each striped product's total into {@code products.quantity} and
+     * evens out stripes that reservations have drained unevenly, so that
+     * single-stripe reservations keep succeeding.
+     */
+    @Scheduled(fixedDelayString = "${inventory.rebalance-interval:5s}")
+    public void rebalance() {
+        List<Map<String, Object>> products = jdbcTemplate.queryForList("""
+                SELECT s.product_id, p.quantity AS shown, sum(s.quantity) AS total, min(s.quantity) AS lowest, count(*) AS stripes
+                FROM product_stock_stripes s JOIN products p ON p.id = s.product_id
+                GROUP BY s.product_id, p.quantity""");
+        for (Map<String, Object> row : products) {
+            String productId = (String) row.get("product_id");
+            long total = ((Number) row.get("total")).longValue();
+            long stripes = ((Number) row.get("stripes")).longValue();
+            // A stripe under half its fair share makes one-stripe reservations miss
+            boolean skewed = total >= stripes && ((Number) row.get("lowest")).longValue() * 2 * stripes < total;
+            boolean stale = total != ((Number) row.get("shown")).longValue();
+            if (!skewed && !stale) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> rebalance(productId, skewed));
+            } catch (RuntimeException ex) {
+                log.warn("Rebalancing stock of product {} failed: {}", productId, ex.getMessage());
+            }
+        }
+    }
+
+    private void rebalance(String productId, boolean resplit) {
+        List<Integer> locked = jdbcTemplate.query(
+                "SELECT stock_stripes FROM products WHERE id = ? AND stock_stripes > 0 FOR UPDATE",
+                (rs, rowNum) -> rs.getInt(1), productId);
+        if (locked.isEmpty()) {
+            return;
+        }
+        int total;
+        if (resplit) {
+            List<Stripe> stripes = lockStripes(productId);
+            total = stripes.stream().mapToInt(Stripe::quantity).sum();
+            jdbcTemplate.batchUpdate("UPDATE product_stock_stripes SET quantity = ? WHERE product_id = ? AND stripe = ?",
+                    stripes, stripes.size(), (ps, stripe) -> {
+                        ps.setInt(1, share(total, stripes.size(), stripe.stripe()));
+                        ps.setString(2, productId);
+                        ps.setInt(3, stripe.stripe());
+                    });
+        } else {
+            total = jdbcTemplate.queryForObject(
+                    "SELECT coalesce(sum(quantity), 0) FROM product_stock_stripes WHERE product_id = ?",
+                    Integer.class, productId);
+        }
+        List<Product> updated = jdbcTemplate.query("UPDATE products SET quantity = ? WHERE id = ? AND quantity <> ? "
+                + "RETURNING " + PRODUCT_COLUMNS, PRODUCT_ROW, total, productId, total);
+        if (!updated.isEmpty()) {
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, updated.get(0)));
+        }
+    }
+
+    /**
+     * Single-row update of {@code products.quantity}; publishes the change.
+     * @return {@code false} if no row matched (unknown, striped or too little stock)
+     */
+    private boolean adjustSingle(boolean reserve, String productId, int quantity) {
+        Boolean adjusted = transactionTemplate.execute(status -> {
+            List<Product> updated = reserve
+                    ? jdbcTemplate.query(SINGLE_RESERVE_SQL, PRODUCT_ROW, quantity, productId, quantity)
+                    : jdbcTemplate.query(SINGLE_RELEASE_SQL, PRODUCT_ROW, quantity, productId);
+            if (updated.isEmpty()) {
+                return false;
+            }
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, updated.get(0)));
+            return true;
+        });
+        return Boolean.TRUE.equals(adjusted);
+    }
+
+    private boolean adjustOneStripe(String productId, int delta, int minQuantity) {
+        return jdbcTemplate.update(STRIPE_ADJUST_SQL, delta, productId, productId, minQuantity) > 0;
+    }
+
+    /**
+     * Takes the quantity from several stripes, largest first, with all of them locked.
+     * @return {@code null} if the product has no stripes
+     */
+    private Boolean reserveAcrossStripes(String productId, int quantity) {
+        List<Stripe> stripes = lockStripes(productId);
+        if (stripes.isEmpty()) {
+            return null;
+        }
+        if (stripes.stream().mapToInt(Stripe::quantity).sum() < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        List<Stripe> largestFirst = stripes.stream()
+                .sorted((a, b) -> Integer.compare(b.quantity(), a.quantity()))
+                .toList();
+        for (Stripe stripe : largestFirst) {
+            int take = Math.min(remaining, stripe.quantity());
+            jdbcTemplate.update("UPDATE product_stock_stripes SET quantity = quantity - ? WHERE product_id = ? AND stripe = ?",
+                    take, productId, stripe.stripe());
+            remaining -= take;
+            if (remaining == 0) {
+                break;
+            }
+        }
+        return true;
+    }
+
+    private List<Stripe> lockStripes(String productId) {
+        return jdbcTemplate.query(
+                "SELECT stripe, quantity FROM product_stock_stripes WHERE product_id = ? ORDER BY stripe FOR UPDATE",
+                (rs, rowNum) -> new Stripe(rs.getInt(1), rs.getInt(2)), productId);
+    }
+
+    private static int share(int total, int stripes, int stripe) {
+        return total / stripes + (stripe < total % stripes ? 1 : 0);
+    }
+
+    private RuntimeException insufficientStock(String productId, int quantity) {
+        List<Integer> exists = jdbcTemplate.query("SELECT 1 FROM products WHERE id = ?", (rs, rowNum) -> 1, productId);
+        if (exists.isEmpty()) {
+            return notFound(productId);
+        }
+        return new InsufficientStockException(
+                String.format("Insufficient stock for product '%s'. Requested: %d", productId, quantity));
+    }
+
+    private static ResourceNotFoundException notFound(String productId) {
+        return new ResourceNotFoundException("Product not found with id: " + productId);
+    }
+
+    private record Stripe(int stripe, int quantity) {
+    }
+}
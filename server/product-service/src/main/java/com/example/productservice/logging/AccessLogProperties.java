@@ -0,0 +1,64 @@
+package com.example.productservice.logging;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the access log written by {@link LoggingFilter}.
+ */
+@ConfigurationProperties(prefix = "access-log")
+public class AccessLogProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Fraction (0.0 - 1.0) of successful, fast requests that are logged.
+     * Errors (5xx or a thrown exception) and slow requests are always logged.
+     */
+    private double sampleRate = 1.0;
+
+    /**
+     * Requests taking at least this long are always logged.
+     */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /**
+     * Capacity of the ring buffer between request threads and the writer
+     * thread, rounded up to a power of two. Events are dropped (and counted)
+     * when it is full.
+     */
+    private int bufferSize = 8192;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    public void setSampleRate(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public Duration getSlowThreshold() {
+        return slowThreshold;
+    }
+
+    public void setSlowThreshold(Duration slowThreshold) {
+        this.slowThreshold = slowThreshold;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+}
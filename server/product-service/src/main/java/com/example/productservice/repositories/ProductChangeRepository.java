@@ -0,0 +1,18 @@
+package com.example.productservice.repositories;
+
+import com.example.productservice.entities.ProductChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductChangeRepository extends JpaRepository<ProductChange, Long> {
+
+    List<ProductChange> findBySeqGreaterThanOrderBySeqAsc(long seq, Limit limit);
+
+    @Query("select coalesce(max(c.seq), 0) from ProductChange c")
+    long findLastSeq();
+}
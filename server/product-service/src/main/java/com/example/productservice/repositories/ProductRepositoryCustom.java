@@ -0,0 +1,12 @@
+package com.example.productservice.repositories;
+
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductSlice;
+
+public interface ProductRepositoryCustom {
+
+    /**
+     * Runs a filtered, sorted listing that selects only the requested columns.
+     */
+    ProductSlice findSlice(ProductQuery query);
+}
@@ -0,0 +1,137 @@
+package com.example.productservice.repositories;
+
+import com.example.productservice.dto.ProductCursor;
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Listing queries for {@link ProductRepository}. Results are ordered by
+ * {@code (sortField, id)}, matching the {@code idx_products_name_id} and
+ * {@code idx_products_price_id} indexes, so both offset and keyset pages are
+ * index range scans. Cursor pages skip the count query.
+ */
+class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public ProductSlice findSlice(ProductQuery query) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Product> root = select.from(Product.class);
+        List<String> columns = selectedColumns(query);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String column : columns) {
+            selections.add(root.get(column).alias(column));
+        }
+        select.multiselect(selections);
+
+        List<Predicate> predicates = filters(cb, root, query);
+        if (query.getCursor() != null) {
+            predicates.add(after(cb, root, query.getCursor()));
+        }
+        select.where(predicates.toArray(Predicate[]::new));
+
+        Path<?> sortPath = root.get(query.getSortField());
+        Path<?> idPath = root.get("id");
+        select.orderBy(query.isDescending()
+                ? List.of(cb.desc(sortPath), cb.desc(idPath))
+                : List.of(cb.asc(sortPath), cb.asc(idPath)));
+
+        TypedQuery<Tuple> typed = entityManager.createQuery(select)
+                .setMaxResults(query.getSize() + 1);
+        if (query.getCursor() == null) {
+            typed.setFirstResult(Math.toIntExact(query.offset()));
+        }
+        List<Tuple> rows = typed.getResultList();
+
+        boolean hasMore = rows.size() > query.getSize();
+        List<Tuple> page = hasMore ? rows.subList(0, query.getSize()) : rows;
+
+        List<Map<String, Object>> products = new ArrayList<>(page.size());
+        for (Tuple row : page) {
+            Map<String, Object> product = new LinkedHashMap<>();
+            for (String field : query.getFields()) {
+                product.put(field, row.get(field));
+            }
+            products.add(product);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Tuple last = page.get(page.size() - 1);
+            nextCursor = new ProductCursor(query.getSortField(), query.isDescending(),
+                    last.get(query.getSortField()), last.get("id", String.class)).encode();
+        }
+
+        Long total = query.getCursor() == null ? count(cb, query) : null;
+        return new ProductSlice(products, total, nextCursor);
+    }
+
+    private long count(CriteriaBuilder cb, ProductQuery query) {
+        CriteriaQuery<Long> count = cb.createQuery(Long.class);
+        Root<Product> root = count.from(Product.class);
+        count.select(cb.count(root)).where(filters(cb, root, query).toArray(Predicate[]::new));
+        return entityManager.createQuery(count).getSingleResult();
+    }
+
+    private static List<String> selectedColumns(ProductQuery query) {
+        List<String> columns = new ArrayList<>(query.getFields());
+        for (String required : List.of("id", query.getSortField())) {
+            if (!columns.contains(required)) {
+                columns.add(required);
+            }
+        }
+        return columns;
+    }
+
+    private static List<Predicate> filters(CriteriaBuilder cb, Root<Product> root, ProductQuery query) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("price"), query.getMinPrice()));
+        }
+        if (query.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("price"), query.getMaxPrice()));
+        }
+        if (query.isInStockOnly()) {
+            predicates.add(cb.greaterThan(root.get("quantity"), 0));
+        }
+        return predicates;
+    }
+
+    /**
+     * Keyset condition {@code (sort, id) > (cursorSort, cursorId)}, or {@code <}
+     * when descending.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(CriteriaBuilder cb, Root<Product> root, ProductCursor cursor) {
+        Expression sortPath = root.get(cursor.sortField());
+        Expression<String> idPath = root.get("id");
+        Comparable sortValue = (Comparable) cursor.sortValue();
+        if (cursor.descending()) {
+            return cb.or(cb.lessThan(sortPath, sortValue),
+                    cb.and(cb.equal(sortPath, sortValue), cb.lessThan(idPath, cursor.id())));
+        }
+        return cb.or(cb.greaterThan(sortPath, sortValue),
+                cb.and(cb.equal(sortPath, sortValue), cb.greaterThan(idPath, cursor.id())));
+    }
+}
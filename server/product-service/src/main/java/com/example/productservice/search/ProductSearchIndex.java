@@ -0,0 +1,429 @@
+package com.example.productservice.search;
+
+import com.example.productservice.dto.ProductSearchHit;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name and description.
+ *
+ * <p>Terms are lower-cased, accent-folded runs of letters and digits. Each
+ * term keeps a posting list of documents sorted by document number, with a
+ * term frequency in which a name occurrence counts {@value #NAME_BOOST} times.
+ * Queries require every term to match; the last term also matches as a
+ * prefix (typeahead). Hits are ranked with BM25.
+ *
+ * <p>Every document keeps references to its own posting lists, so a product
+ * can be removed or replaced by ID alone. Searches take a shared lock and
+ * writes an exclusive one.
+ */
+public class ProductSearchIndex {
+
+    static final int NAME_BOOST = 3;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final Postings[] NO_POSTINGS = new Postings[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Integer> docByProductId = new HashMap<>();
+
+    private String[] productIds = new String[1024];
+    private String[] names = new String[1024];
+    private Double[] prices = new Double[1024];
+    private int[] lengths = new int[1024];
+    private Postings[][] docPostings = new Postings[1024][];
+    private int[] freeDocs = new int[16];
+    private int freeCount;
+    private int nextDoc;
+    private long totalLength;
+
+    /**
+     * Adds a product, replacing any previous version with the same ID.
+     */
+    public void put(String productId, String name, String description, Double price) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (String token : tokenize(name)) {
+            frequencies.merge(token, NAME_BOOST, Integer::sum);
+            length += NAME_BOOST;
+        }
+        for (String token : tokenize(description)) {
+            frequencies.merge(token, 1, Integer::sum);
+            length += 1;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+            int doc = allocateDoc();
+            productIds[doc] = productId;
+            names[doc] = name;
+            prices[doc] = price;
+            lengths[doc] = length;
+            Postings[] postings = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings termPostings = terms.computeIfAbsent(entry.getKey(), Postings::new);
+                termPostings.insert(doc, entry.getValue());
+                postings[i++] = termPostings;
+            }
+            docPostings[doc] = postings;
+            docByProductId.put(productId, doc);
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String productId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the best {@code limit} products matching every term of {@code query},
+     * highest score first.
+     */
+    public List<ProductSearchHit> search(String query, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docByProductId.size();
+            if (liveDocs == 0) {
+                return List.of();
+            }
+            float averageLength = (float) totalLength / liveDocs;
+
+            // Each query word matches a set of terms: itself, or up to
+            // MAX_PREFIX_EXPANSIONS completions for the last word
+            List<List<Postings>> words = new ArrayList<>(tokens.size());
+            List<Integer> wordSizes = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                List<Postings> matching = matchingTerms(tokens.get(i), i == tokens.size() - 1);
+                if (matching.isEmpty()) {
+                    return List.of();
+                }
+                words.add(matching);
+                wordSizes.add(matching.stream().mapToInt(postings -> postings.size).sum());
+            }
+
+            // Only the rarest word is expanded into a candidate list; the other
+            // words are probed for those candidates alone
+            Integer[] order = new Integer[words.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Integer.compare(wordSizes.get(a), wordSizes.get(b)));
+            ScoredDocs candidates = union(words.get(order[0]), liveDocs, averageLength);
+            for (int i = 1; i < order.length && candidates.size > 0; i++) {
+                candidates = restrict(candidates, words.get(order[i]), liveDocs, averageLength);
+            }
+            return topHits(candidates, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> matchingTerms(String token, boolean prefix) {
+        if (!prefix) {
+            Postings postings = terms.get(token);
+            return postings != null ? List.of(postings) : List.of();
+        }
+        List<Postings> matching = new ArrayList<>();
+        for (Postings postings : terms.subMap(token, true, token + Character.MAX_VALUE, false).values()) {
+            matching.add(postings);
+            if (matching.size() == MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+        return matching;
+    }
+
+    /**
+     * All documents containing any of the terms, scored by their best-matching term.
+     */
+    private ScoredDocs union(List<Postings> alternatives, int liveDocs, float averageLength) {
+        if (alternatives.size() == 1) {
+            Postings postings = alternatives.get(0);
+            float idf = idf(postings, liveDocs);
+            float[] scores = new float[postings.size];
+            for (int i = 0; i < postings.size; i++) {
+                scores[i] = score(idf, postings.frequencies[i], postings.docs[i], averageLength);
+            }
+            return new ScoredDocs(Arrays.copyOf(postings.docs, postings.size), scores, postings.size);
+        }
+
+        int total = 0;
+        for (Postings postings : alternatives) {
+            total += postings.size;
+        }
+        // Sort (doc, entry) pairs by doc, then keep the best score per doc
+        long[] keyed = new long[total];
+        float[] entryScores = new float[total];
+        int n = 0;
+        for (Postings postings : alternatives) {
+            float idf = idf(postings, liveDocs);
+            for (int i = 0; i < postings.size; i++) {
+                keyed[n] = ((long) postings.docs[i] << 32) | n;
+                entryScores[n] = score(idf, postings.frequencies[i], postings.docs[i], averageLength);
+                n++;
+            }
+        }
+        Arrays.sort(keyed);
+        int[] docs = new int[total];
+        float[] scores = new float[total];
+        int size = 0;
+        for (long key : keyed) {
+            int doc = (int) (key >>> 32);
+            float score = entryScores[(int) key];
+            if (size > 0 && docs[size - 1] == doc) {
+                scores[size - 1] = Math.max(scores[size - 1], score);
+            } else {
+                docs[size] = doc;
+                scores[size] = score;
+                size++;
+            }
+        }
+        return new ScoredDocs(docs, scores, size);
+    }
+
+    /**
+     * Keeps the candidates that contain any of the terms, adding their best term score.
+     * The shorter of the two lists drives the intersection and the longer one is
+     * searched by galloping from the previous match, so the cost follows the
+     * shorter list rather than the longer one.
+     */
+    private ScoredDocs restrict(ScoredDocs candidates, List<Postings> alternatives, int liveDocs, float averageLength) {
+        float[] best = new float[candidates.size];
+        Arrays.fill(best, -1f);
+        for (Postings postings : alternatives) {
+            float idf = idf(postings, liveDocs);
+            int from = 0;
+            if (postings.size <= candidates.size) {
+                for (int j = 0; j < postings.size && from < candidates.size; j++) {
+                    int at = gallop(candidates.docs, from, candidates.size, postings.docs[j]);
+                    if (at >= 0) {
+                        float score = score(idf, postings.frequencies[j], postings.docs[j], averageLength);
+                        best[at] = Math.max(best[at], score);
+                        from = at + 1;
+                    } else {
+                        from = -at - 1;
+                    }
+                }
+            } else {
+                for (int i = 0; i < candidates.size && from < postings.size; i++) {
+                    int at = gallop(postings.docs, from, postings.size, candidates.docs[i]);
+                    if (at >= 0) {
+                        float score = score(idf, postings.frequencies[at], postings.docs[at], averageLength);
+                        best[i] = Math.max(best[i], score);
+                        from = at + 1;
+                    } else {
+                        from = -at - 1;
+                    }
+                }
+            }
+        }
+        int[] docs = new int[candidates.size];
+        float[] scores = new float[candidates.size];
+        int size = 0;
+        for (int i = 0; i < candidates.size; i++) {
+            if (best[i] >= 0) {
+                docs[size] = candidates.docs[i];
+                scores[size] = candidates.scores[i] + best[i];
+                size++;
+            }
+        }
+        return new ScoredDocs(docs, scores, size);
+    }
+
+    /**
+     * Exponential then binary search for {@code doc} in {@code docs[from, to)};
+     * same return convention as {@link Arrays#binarySearch(int[], int, int, int)}.
+     */
+    private static int gallop(int[] docs, int from, int to, int doc) {
+        int step = 1;
+        int high = from;
+        while (high < to && docs[high] < doc) {
+            from = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(docs, from, Math.min(high + 1, to), doc);
+    }
+
+    private static float idf(Postings postings, int liveDocs) {
+        return (float) Math.log(1 + (liveDocs - postings.size + 0.5) / (postings.size + 0.5));
+    }
+
+    /** BM25 contribution of one term occurrence count in one document. */
+    private float score(float idf, int frequency, int doc, float averageLength) {
+        float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private List<ProductSearchHit> topHits(ScoredDocs candidates, int limit) {
+        // Min-heap of (score, doc) keeping the best `limit` candidates
+        PriorityQueue<long[]> heap = new PriorityQueue<>(limit + 1, (a, b) -> a[0] != b[0]
+                ? Long.compare(a[0], b[0]) : Long.compare(b[1], a[1]));
+        for (int i = 0; i < candidates.size; i++) {
+            // Scores are positive, so their IEEE bits order like the floats themselves
+            long score = Float.floatToIntBits(candidates.scores[i]);
+            if (heap.size() < limit) {
+                heap.add(new long[]{score, candidates.docs[i]});
+            } else if (score > heap.peek()[0]) {
+                heap.poll();
+                heap.add(new long[]{score, candidates.docs[i]});
+            }
+        }
+        ProductSearchHit[] hits = new ProductSearchHit[heap.size()];
+        for (int i = hits.length - 1; i >= 0; i--) {
+            long[] entry = heap.poll();
+            int doc = (int) entry[1];
+            hits[i] = new ProductSearchHit(productIds[doc], names[doc], prices[doc],
+                    Float.intBitsToFloat((int) entry[0]));
+        }
+        return List.of(hits);
+    }
+
+    private void removeLocked(String productId) {
+        Integer doc = docByProductId.remove(productId);
+        if (doc == null) {
+            return;
+        }
+        for (Postings postings : docPostings[doc]) {
+            postings.delete(doc);
+            if (postings.size == 0) {
+                terms.remove(postings.term);
+            }
+        }
+        totalLength -= lengths[doc];
+        productIds[doc] = null;
+        names[doc] = null;
+        prices[doc] = null;
+        docPostings[doc] = NO_POSTINGS;
+        if (freeCount == freeDocs.length) {
+            freeDocs = Arrays.copyOf(freeDocs, freeCount * 2);
+        }
+        freeDocs[freeCount++] = doc;
+    }
+
+    private int allocateDoc() {
+        if (freeCount > 0) {
+            return freeDocs[--freeCount];
+        }
+        if (nextDoc == productIds.length) {
+            int capacity = nextDoc + (nextDoc >> 1);
+            productIds = Arrays.copyOf(productIds, capacity);
+            names = Arrays.copyOf(names, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            docPostings = Arrays.copyOf(docPostings, capacity);
+        }
+        return nextDoc++;
+    }
+
+    /**
+     * Splits text into lower-case, accent-free runs of letters and digits.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        String folded = text;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7f) {
+                folded = Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll("\\p{M}+", "");
+                break;
+            }
+        }
+        folded = folded.toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Documents containing one term, sorted by document number.
+     */
+    private static final class Postings {
+        final String term;
+        int[] docs = new int[4];
+        int[] frequencies = new int[4];
+        int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        void insert(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            // Documents are mostly appended; reused numbers need a sorted insert
+            int at = size == 0 || docs[size - 1] < doc ? size : -Arrays.binarySearch(docs, 0, size, doc) - 1;
+            System.arraycopy(docs, at, docs, at + 1, size - at);
+            System.arraycopy(frequencies, at, frequencies, at + 1, size - at);
+            docs[at] = doc;
+            frequencies[at] = frequency;
+            size++;
+        }
+
+        void delete(int doc) {
+            int at = Arrays.binarySearch(docs, 0, size, doc);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(docs, at + 1, docs, at, size - at - 1);
+            System.arraycopy(frequencies, at + 1, frequencies, at, size - at - 1);
+            size--;
+        }
+    }
+
+    /**
+     * Matching documents, sorted by document number, with their scores so far.
+     */
+    private record ScoredDocs(int[] docs, float[] scores, int size) {
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.productservice.search;
+
+import com.example.productservice.changes.ProductChangeLog;
+import com.example.productservice.dto.ProductChangePage;
+import com.example.productservice.dto.ProductCursor;
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.ProductChange;
+import com.example.productservice.exceptions.ChangeFeedExpiredException;
+import com.example.productservice.repositories.ProductRepository;
+import com.example.productservice.services.ProductChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the {@link ProductSearchIndex} in sync with the products table.
+ * The index is loaded once at startup, before the service reports itself ready,
+ * and then follows the {@link ProductChangeLog}, which has the changes made
+ * through every instance. It catches up every {@code product-changes.poll-interval},
+ * and right after a local commit so that this instance's changes are
+ * searchable at once.
+ * <p>
+ * The load starts at the log's current sequence and the changes after it are
+ * applied in order afterwards, so a change that commits while the load runs
+ * wins over the row the load read for the same product, which may be older.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductSearchService {
+
+    private static final int LOAD_BATCH_SIZE = 5_000;
+    private static final int CHANGE_BATCH_SIZE = 1_000;
+    private static final List<String> INDEXED_FIELDS = List.of("id", "name", "description", "price");
+
+    private final ProductRepository productRepository;
+    private final ProductChangeLog changeLog;
+
+    private volatile ProductSearchIndex index = new ProductSearchIndex();
+
+    private final Object followLock = new Object();
+    /** Sequence of the last change applied; -1 until the index is loaded. */
+    private long position = -1;
+
+    public List<ProductSearchHit> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIndex() {
+        long start = System.nanoTime();
+        synchronized (followLock) {
+            ProductSearchIndex loaded = new ProductSearchIndex();
+            changeLog.publishPending();
+            long from = changeLog.lastSequence();
+            load(loaded);
+            index = loaded;
+            position = from;
+            followChangeLog();
+        }
+        log.info("Search index loaded with {} products in {} ms", index.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void load(ProductSearchIndex into) {
+        ProductCursor cursor = null;
+        do {
+            ProductSlice slice = productRepository.findSlice(ProductQuery.builder()
+                    .sortField("price")
+                    .size(LOAD_BATCH_SIZE)
+                    .cursor(cursor)
+                    .fields(INDEXED_FIELDS)
+                    .build());
+            for (Map<String, Object> product : slice.products()) {
+                into.put((String) product.get("id"), (String) product.get("name"),
+                        (String) product.get("description"), (Double) product.get("price"));
+            }
+            cursor = slice.nextCursor() != null ? ProductCursor.decode(slice.nextCursor()) : null;
+        } while (cursor != null);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.STOCK_CHANGED) {
+            // Nothing indexed depends on the quantity
+            return;
+        }
+        followChangeLog();
+    }
+
+    /**
+     * Applies the changes logged since the last call. Reloads the index if it
+     * fell so far behind that deletes it has not seen were compacted away.
+     */
+    @Scheduled(fixedDelayString = "${product-changes.poll-interval:1s}")
+    public void followChangeLog() {
+        synchronized (followLock) {
+            if (position < 0) {
+                return;
+            }
+            ProductChangePage page;
+            do {
+                try {
+                    page = changeLog.changesSince(position, CHANGE_BATCH_SIZE);
+                } catch (ChangeFeedExpiredException ex) {
+                    log.warn("Search index missed compacted changes, reloading: {}", ex.getMessage());
+                    position = -1;
+                    loadIndex();
+                    return;
+                }
+                page.changes().forEach(this::apply);
+                position = page.lastSequence();
+            } while (page.hasMore());
+        }
+    }
+
+    private void apply(ProductChange change) {
+        switch (change.getType()) {
+            case STOCK_CHANGED -> { }
+            case DELETED -> index.remove(change.getProductId());
+            default -> index.put(change.getProductId(), change.getName(), change.getDescription(), change.getPrice());
+        }
+    }
+}
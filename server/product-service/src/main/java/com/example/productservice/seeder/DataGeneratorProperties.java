@@ -0,0 +1,32 @@
+package com.example.productservice.seeder;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for {@link ProductDataGenerator}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "datagen")
+public class DataGeneratorProperties {
+
+    private boolean enabled = false;
+
+    /** Same seed, same products; order-service needs it to refer to them. */
+    private long seed = 42;
+
+    private int products = 1_000_000;
+
+    /** Products per transaction, and per chunk of a resumable run. */
+    private int batchSize = 1_000;
+
+    private int threads = 4;
+
+    /** Forget the progress of an earlier run, e.g. one with other settings. */
+    private boolean restart = false;
+
+    /** Shut down once the products are written, instead of going on to serve requests. */
+    private boolean exit = true;
+}
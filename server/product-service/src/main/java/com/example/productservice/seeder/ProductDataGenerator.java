@@ -0,0 +1,107 @@
+package com.example.productservice.seeder;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Fills the catalog with {@code datagen.products} synthetic products, written
+ * straight to the database in parallel JDBC batches, for reproducing query
+ * plans at production volume. Runs when {@code datagen.enabled} is set, then
+ * shuts the application down.
+ * <p>
+ * Product {@code i} is a pure function of the seed and {@code i}, see
+ * {@link SyntheticCatalog}. Names combine a few hundred words, prices are
+ * log-normal and about one product in twenty is out of stock. The products
+ * bypass the change feed and the caches, and the search index picks them up
+ * on the next start.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ProductDataGenerator implements ApplicationRunner {
+
+    static final String GENERATOR = "products";
+
+    private static final String INSERT_SQL = """
+            INSERT INTO products (id, name, description, price, quantity, stock_stripes) VALUES (?, ?, ?, ?, ?, 0)
+            ON CONFLICT (id) DO NOTHING""";
+
+    private static final String[] ADJECTIVES = {
+            "Compact", "Wireless", "Ergonomic", "Portable", "Premium", "Smart", "Classic", "Ultra", "Mini", "Pro",
+            "Heavy-Duty", "Slim", "Foldable", "Rugged", "Silent", "Adjustable", "Magnetic", "Rechargeable",
+            "Modular", "Vintage"};
+    private static final String[] NOUNS = {
+            "Laptop", "Mouse", "Keyboard", "Monitor", "Hub", "Webcam", "Headset", "SSD", "Stand", "Desk Mat",
+            "Lamp", "Chair", "Desk", "Speaker", "Charger", "Cable", "Router", "Tablet", "Printer", "Microphone",
+            "Backpack", "Dock", "Projector", "Drive", "Controller"};
+    private static final String[] MATERIALS = {
+            "Aluminum", "Bamboo", "Recycled plastic", "Steel", "Fabric", "Leather", "Glass", "Carbon fiber"};
+    private static final String[] FEATURES = {
+            "USB-C", "Bluetooth 5.3", "a two-year warranty", "RGB lighting", "noise cancelling", "fast charging",
+            "a carrying case", "a braided cable", "tool-free assembly", "a matte finish"};
+
+    private final DataGeneratorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long seed = properties.getSeed();
+        int batchSize = properties.getBatchSize();
+        Map<String, String> settings = new LinkedHashMap<>();
+        settings.put("seed", String.valueOf(seed));
+        settings.put("products", String.valueOf(properties.getProducts()));
+        settings.put("batch-size", String.valueOf(batchSize));
+
+        long start = System.nanoTime();
+        GeneratorRun run = new GeneratorRun(GENERATOR, settings, properties.isRestart(), jdbcTemplate,
+                transactionTemplate);
+        int chunks = (int) ((properties.getProducts() + (long) batchSize - 1) / batchSize);
+        run.execute(chunks, properties.getThreads(), chunk -> {
+            long first = (long) chunk * batchSize;
+            int count = (int) Math.min(batchSize, properties.getProducts() - first);
+            List<Object[]> rows = new ArrayList<>(count);
+            for (long index = first; index < first + count; index++) {
+                rows.add(product(seed, index));
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            return count;
+        });
+        log.info("Generated {} products in {} s", properties.getProducts(), (System.nanoTime() - start) / 1_000_000_000);
+
+        if (properties.isExit()) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /** Columns of product {@code index}: id, name, description, price, quantity. */
+    static Object[] product(long seed, long index) {
+        SplittableRandom random = new SplittableRandom(SyntheticCatalog.key(seed, SyntheticCatalog.PRODUCTS, index));
+        String noun = pick(random, NOUNS);
+        String name = pick(random, ADJECTIVES) + " " + noun + " " + (char) ('A' + random.nextInt(26))
+                + "-" + (100 + random.nextInt(900));
+        String description = pick(random, MATERIALS) + " " + noun.toLowerCase() + " with " + pick(random, FEATURES);
+        int quantity = random.nextInt(20) == 0 ? 0 : 1 + random.nextInt(500);
+        return new Object[]{SyntheticCatalog.productId(seed, index), name, description,
+                SyntheticCatalog.productPrice(seed, index), quantity};
+    }
+
+    private static String pick(SplittableRandom random, String[] words) {
+        return words[random.nextInt(words.length)];
+    }
+}
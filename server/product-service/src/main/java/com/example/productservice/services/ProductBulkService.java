@@ -0,0 +1,446 @@
+package com.example.productservice.services;
+
+import com.example.productservice.dto.ProductCursor;
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductRequestDTO;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.Product;
+import com.example.productservice.exceptions.InvalidRequestException;
+import com.example.productservice.inventory.InventoryService;
+import com.example.productservice.repositories.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk import and export of the product catalog as CSV or NDJSON.
+ * <p>
+ * Imports are read row by row from the request body and validated with the
+ * same rules as {@link ProductRequestDTO}. Valid rows are upserted by ID in
+ * chunks, each chunk one JDBC batch in its own transaction, so memory use is
+ * bounded by the chunk size and a bad chunk does not undo earlier ones.
+ * Progress, row errors and a final summary are written back as NDJSON while
+ * the import runs.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductBulkService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int CHUNK_SIZE = 1_000;
+    private static final int EXPORT_PAGE_SIZE = 5_000;
+    private static final int MAX_REPORTED_ERRORS = 1_000;
+    private static final int MAX_ID_LENGTH = 255;
+    private static final List<String> CSV_COLUMNS = ProductQuery.ALL_FIELDS;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO products (id, name, description, price, quantity) VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description,
+                price = EXCLUDED.price, quantity = EXCLUDED.quantity""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ProductRepository productRepository;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Starts reading an upload. For CSV the header row is read here, so a
+     * malformed header fails the request before any response is written.
+     * @param format {@link #CSV} or {@link #NDJSON}
+     * @throws InvalidRequestException for an unknown format or a bad CSV header
+     */
+    public RowSource open(InputStream body, String format) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+        return switch (format) {
+            case CSV -> new CsvRowSource(new CsvRecordReader(reader));
+            case NDJSON -> new NdjsonRowSource(reader);
+            default -> throw new InvalidRequestException("Unsupported import format: " + format);
+        };
+    }
+
+    /**
+     * Imports every row of {@code source}, writing NDJSON report lines to {@code out}:
+     * {@code error} per rejected row (the first {@value #MAX_REPORTED_ERRORS}),
+     * {@code progress} after each chunk and one final {@code summary}.
+     */
+    public void importRows(RowSource source, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport(out);
+        // Keyed by ID: a batch must not upsert the same row twice, the last one wins
+        Map<String, ImportRow> chunk = new LinkedHashMap<>();
+        ImportRow row;
+        while ((row = source.next()) != null) {
+            report.rows++;
+            String error = row.error() != null ? row.error() : validate(row);
+            if (error != null) {
+                report.rowError(row.line(), error);
+                continue;
+            }
+            chunk.remove(row.id());
+            chunk.put(row.id(), row);
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(chunk, report);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, report);
+        }
+
+        long elapsedMillis = Math.max((System.nanoTime() - start) / 1_000_000, 1);
+        log.info("Product import finished: {} rows, {} imported, {} failed in {} ms",
+                report.rows, report.imported, report.failed, elapsedMillis);
+        report.summary(elapsedMillis);
+    }
+
+    private String validate(ImportRow row) {
+        if (row.id().length() > MAX_ID_LENGTH) {
+            return "Product id is longer than " + MAX_ID_LENGTH + " characters";
+        }
+        Set<ConstraintViolation<ProductRequestDTO>> violations = validator.validate(row.request());
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void writeChunk(Map<String, ImportRow> chunk, ImportReport report) throws IOException {
+        List<ImportRow> rows = new ArrayList<>(chunk.values());
+        chunk.clear();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<String, Integer> existing = existingStripes(rows);
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ProductRequestDTO request = row.request();
+                    ps.setString(1, row.id());
+                    ps.setString(2, request.getName());
+                    ps.setString(3, request.getDescription());
+                    ps.setDouble(4, request.getPrice());
+                    ps.setInt(5, request.getQuantity());
+                });
+                List<String> striped = existing.entrySet().stream()
+                        .filter(entry -> entry.getValue() > 0)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                if (!striped.isEmpty()) {
+                    inventoryService.redistribute(striped);
+                }
+                // Delivered after commit, so the search index and cache follow the import
+                for (ImportRow row : rows) {
+                    ProductChangedEvent.Type type = existing.containsKey(row.id())
+                            ? ProductChangedEvent.Type.UPDATED : ProductChangedEvent.Type.CREATED;
+                    eventPublisher.publishEvent(new ProductChangedEvent(type, row.id(), toProduct(row)));
+                }
+            });
+            report.imported += rows.size();
+        } catch (RuntimeException ex) {
+            log.warn("Product import chunk at lines {}-{} failed: {}",
+                    rows.get(0).line(), rows.get(rows.size() - 1).line(), ex.getMessage());
+            report.failed += rows.size();
+            report.chunkError(rows.get(0).line(), rows.get(rows.size() - 1).line(), rows.size());
+        }
+        report.progress();
+    }
+
+    /**
+     * Products of the chunk that are already in the catalog, with their stock
+     * stripes, so each change can be reported as a create or an update and
+     * striped stock can be re-split.
+     */
+    private Map<String, Integer> existingStripes(List<ImportRow> rows) {
+        Object[] ids = rows.stream().map(ImportRow::id).toArray();
+        Map<String, Integer> existing = new HashMap<>();
+        jdbcTemplate.query("SELECT id, stock_stripes FROM products WHERE id = ANY(?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    existing.put(rs.getString(1), rs.getInt(2));
+                });
+        return existing;
+    }
+
+    private static Product toProduct(ImportRow row) {
+        ProductRequestDTO request = row.request();
+        return Product.builder()
+                .id(row.id())
+                .name(request.getName())
+                .description(request.getDescription())
+                .price(request.getPrice())
+                .quantity(request.getQuantity())
+                .build();
+    }
+
+    /**
+     * Writes the whole catalog to {@code out}, page by page in keyset order,
+     * so neither the database nor this service holds more than one page.
+     * @param format {@link #CSV} or {@link #NDJSON}
+     */
+    public void export(String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        boolean csv = CSV.equals(format);
+        if (csv) {
+            writer.write(String.join(",", CSV_COLUMNS));
+            writer.write('\n');
+        }
+        ProductCursor cursor = null;
+        do {
+            ProductSlice slice = productRepository.findSlice(ProductQuery.builder()
+                    .sortField("price")
+                    .size(EXPORT_PAGE_SIZE)
+                    .cursor(cursor)
+                    .fields(ProductQuery.ALL_FIELDS)
+                    .build());
+            for (Map<String, Object> product : slice.products()) {
+                if (csv) {
+                    writeCsvRecord(writer, product);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+            cursor = slice.nextCursor() != null ? ProductCursor.decode(slice.nextCursor()) : null;
+        } while (cursor != null);
+        writer.flush();
+    }
+
+    private static void writeCsvRecord(Writer writer, Map<String, Object> product) throws IOException {
+        for (int i = 0; i < CSV_COLUMNS.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            Object value = product.get(CSV_COLUMNS.get(i));
+            if (value == null) {
+                continue;
+            }
+            String text = value.toString();
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(text.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(text);
+            }
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * One parsed row of an upload. {@code error} is set when the row could not
+     * be parsed at all; {@code id} is generated when the row has none.
+     */
+    public record ImportRow(long line, String id, ProductRequestDTO request, String error) {
+    }
+
+    /**
+     * Rows of an upload in order; {@link #next()} returns {@code null} at the end.
+     */
+    public interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    private static String idOrNew(String id) {
+        return id == null || id.isBlank() ? UUID.randomUUID().toString() : id.trim();
+    }
+
+    private static final class CsvRowSource implements RowSource {
+
+        private final CsvRecordReader reader;
+        private final int[] columns = new int[CSV_COLUMNS.size()];
+        private long line = 1;
+
+        CsvRowSource(CsvRecordReader reader) throws IOException {
+            this.reader = reader;
+            List<String> header;
+            try {
+                header = reader.next();
+            } catch (IllegalArgumentException ex) {
+                throw new InvalidRequestException("Bad CSV header: " + ex.getMessage(), ex);
+            }
+            if (header == null) {
+                throw new InvalidRequestException("CSV upload is empty");
+            }
+            Arrays.fill(columns, -1);
+            for (int i = 0; i < header.size(); i++) {
+                String name = header.get(i).trim().toLowerCase(Locale.ROOT);
+                int column = CSV_COLUMNS.indexOf(name);
+                if (column < 0) {
+                    throw new InvalidRequestException("Unknown CSV column '" + header.get(i)
+                            + "'; allowed columns are " + CSV_COLUMNS);
+                }
+                columns[column] = i;
+            }
+            for (String required : List.of("name", "price", "quantity")) {
+                if (columns[CSV_COLUMNS.indexOf(required)] < 0) {
+                    throw new InvalidRequestException("CSV header must contain '" + required + "'");
+                }
+            }
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException ex) {
+                return new ImportRow(++line, null, null, ex.getMessage());
+            }
+            if (record == null) {
+                return null;
+            }
+            line++;
+            String id = idOrNew(field(record, "id"));
+            try {
+                ProductRequestDTO request = new ProductRequestDTO(
+                        blankToNull(field(record, "name")),
+                        blankToNull(field(record, "description")),
+                        parse(field(record, "price"), Double::valueOf),
+                        parse(field(record, "quantity"), Integer::valueOf));
+                return new ImportRow(line, id, request, null);
+            } catch (NumberFormatException ex) {
+                return new ImportRow(line, id, null, "Price and quantity must be numbers");
+            }
+        }
+
+        private String field(List<String> record, String name) {
+            int index = columns[CSV_COLUMNS.indexOf(name)];
+            return index >= 0 && index < record.size() ? record.get(index) : null;
+        }
+
+        private static String blankToNull(String value) {
+            return value == null || value.isEmpty() ? null : value;
+        }
+
+        private static <T> T parse(String value, Function<String, T> parser) {
+            return value == null || value.isBlank() ? null : parser.apply(value.trim());
+        }
+    }
+
+    private final class NdjsonRowSource implements RowSource {
+
+        private final BufferedReader reader;
+        private long line;
+
+        NdjsonRowSource(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+            try {
+                JsonNode node = objectMapper.readTree(text);
+                if (!node.isObject()) {
+                    return new ImportRow(line, null, null, "Each line must be a JSON object");
+                }
+                JsonNode id = ((ObjectNode) node).remove("id");
+                return new ImportRow(line, idOrNew(id != null && id.isTextual() ? id.asText() : null),
+                        objectMapper.treeToValue(node, ProductRequestDTO.class), null);
+            } catch (JsonProcessingException ex) {
+                return new ImportRow(line, null, null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Import counters and the NDJSON report stream.
+     */
+    private final class ImportReport {
+
+        private final OutputStream out;
+        long rows;
+        /** Distinct products written; a repeated ID within a chunk counts once. */
+        long imported;
+        long failed;
+        private long reportedErrors;
+
+        ImportReport(OutputStream out) {
+            this.out = out;
+        }
+
+        void rowError(long line, String message) throws IOException {
+            failed++;
+            if (reportedErrors++ < MAX_REPORTED_ERRORS) {
+                write(line("error", "line", line, "message", message));
+            }
+        }
+
+        void chunkError(long firstLine, long lastLine, int rowCount) throws IOException {
+            write(line("error", "line", firstLine, "lastLine", lastLine,
+                    "message", rowCount + " rows could not be written and were rolled back"));
+        }
+
+        void progress() throws IOException {
+            write(line("progress", "rows", rows, "imported", imported, "failed", failed));
+            out.flush();
+        }
+
+        void summary(long elapsedMillis) throws IOException {
+            write(line("summary", "rows", rows, "imported", imported, "failed", failed,
+                    "errorsOmitted", Math.max(reportedErrors - MAX_REPORTED_ERRORS, 0),
+                    "elapsedMs", elapsedMillis, "rowsPerSecond", rows * 1_000 / elapsedMillis));
+            out.flush();
+        }
+
+        /**
+         * Report line with {@code type} first and the other fields in the given order.
+         */
+        private static Map<String, Object> line(String type, Object... keysAndValues) {
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("type", type);
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                line.put((String) keysAndValues[i], keysAndValues[i + 1]);
+            }
+            return line;
+        }
+
+        private void write(Map<String, Object> line) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+        }
+    }
+}
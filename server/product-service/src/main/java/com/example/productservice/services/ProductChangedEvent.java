@@ -0,0 +1,31 @@
+package com.example.productservice.services;
+
+import com.example.productservice.entities.Product;
+
+/**
+ * Published by {@link ProductService} whenever a product is created, updated
+ * or deleted. Listeners that keep derived data (search index, caches) in sync
+ * should react after commit.
+ *
+ * @param type what happened to the product
+ * @param productId ID of the changed product
+ * @param product the product as saved, or {@code null} when it was deleted
+ */
+public record ProductChangedEvent(Type type, String productId, Product product) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        /** Only the quantity changed. */
+        STOCK_CHANGED,
+        DELETED
+    }
+
+    public static ProductChangedEvent deleted(String productId) {
+        return new ProductChangedEvent(Type.DELETED, productId, null);
+    }
+
+    public boolean deleted() {
+        return type == Type.DELETED;
+    }
+}
@@ -1,20 +1,36 @@
 package com.example.productservice.services;
 
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.dto.ProductCursor;
+import com.example.productservice.dto.ProductQuery;
 import com.example.productservice.dto.ProductRequestDTO;
+import com.example.productservice.dto.ProductSlice;
 import com.example.productservice.entities.Product;
+import com.example.productservice.exceptions.InvalidRequestException;
 import com.example.productservice.exceptions.ResourceNotFoundException;
+import com.example.productservice.inventory.InventoryService;
 import com.example.productservice.repositories.ProductRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
     
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final ProductRepository productRepository;
+    private final ProductCache productCache;
+    private final InventoryService inventoryService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Product create(ProductRequestDTO request) {
@@ -24,26 +40,86 @@ public class ProductService {
                 .price(request.getPrice())
                 .quantity(request.getQuantity())
                 .build();
-        return productRepository.save(product);
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.CREATED, saved.getId(), saved));
+        return saved;
     }
 
     @Transactional
     public Product update(String id, ProductRequestDTO request) {
-        Product existingProduct = getById(id);
+        // Read from the database, never the cache: cached products are shared
+        Product existingProduct = productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        boolean stockOnly = Objects.equals(existingProduct.getName(), request.getName())
+                && Objects.equals(existingProduct.getDescription(), request.getDescription())
+                && Objects.equals(existingProduct.getPrice(), request.getPrice());
         existingProduct.setName(request.getName());
         existingProduct.setDescription(request.getDescription());
         existingProduct.setPrice(request.getPrice());
         existingProduct.setQuantity(request.getQuantity());
-        return productRepository.save(existingProduct);
+        Product saved = productRepository.saveAndFlush(existingProduct);
+        // The entity's stripe count may be stale; the statement checks the row itself
+        inventoryService.redistribute(List.of(id));
+        ProductChangedEvent.Type type = stockOnly ? ProductChangedEvent.Type.STOCK_CHANGED : ProductChangedEvent.Type.UPDATED;
+        eventPublisher.publishEvent(new ProductChangedEvent(type, saved.getId(), saved));
+        return saved;
+    }
+
+    @Transactional(readOnly = true)
+    public ProductSlice list(ProductQuery query) {
+        if (!ProductQuery.SORTABLE_FIELDS.contains(query.getSortField())) {
+            throw new InvalidRequestException("Products can be sorted by " + ProductQuery.SORTABLE_FIELDS);
+        }
+        if (!ProductQuery.ALL_FIELDS.containsAll(query.getFields())) {
+            throw new InvalidRequestException("Unknown field; allowed fields are " + ProductQuery.ALL_FIELDS);
+        }
+        if (query.getCursor() == null && query.offset() > Integer.MAX_VALUE) {
+            throw new InvalidRequestException("Page is too deep; continue with X-Next-Cursor instead");
+        }
+        ProductQuery normalized = query.toBuilder()
+                .fields(ProductQuery.ALL_FIELDS.stream().filter(query.getFields()::contains).toList())
+                .build();
+        ProductCursor cursor = query.getCursor();
+        if (cursor != null && (!cursor.sortField().equals(query.getSortField())
+                || cursor.descending() != query.isDescending())) {
+            throw new InvalidRequestException("Cursor was issued for a different sort order");
+        }
+        return productCache.page(normalized, productRepository::findSlice);
     }
 
-    public List<Product> getAll() {
-        return productRepository.findAll();
+    @Transactional(readOnly = true)
+    public List<Product> getByIds(List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_BATCH_SIZE + " product IDs per batch");
+        }
+        Map<String, Product> found = productCache.getAll(new LinkedHashSet<>(ids), missing ->
+                productRepository.findAllById(List.copyOf(missing)).stream()
+                        .collect(Collectors.toMap(Product::getId, ProductService::detachedCopy)));
+        return List.copyOf(found.values());
     }
 
+    @Transactional(readOnly = true)
     public Product getById(String id) {
-        return productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        Product product = productCache.get(id, key -> productRepository.findById(key)
+                .map(ProductService::detachedCopy)
+                .orElse(null));
+        if (product == null) {
+            throw new ResourceNotFoundException("Product not found with id: " + id);
+        }
+        return product;
+    }
+
+    /**
+     * Copy safe to share through the cache, independent of any persistence context.
+     */
+    private static Product detachedCopy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .build();
     }
 
     @Transactional
@@ -52,5 +128,7 @@ public class ProductService {
             throw new ResourceNotFoundException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        inventoryService.deleteStripes(id);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 }
@@ -0,0 +1,46 @@
+package com.example.productservice.warmup;
+
+import jakarta.persistence.EntityManager;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Runs each warm-up request in a transaction that is always rolled back.
+ * The request's own transactions join it, and pending changes are flushed
+ * before the rollback so that any writes still execute. Other requests pass
+ * straight through.
+ */
+@RequiredArgsConstructor
+public class WarmupFilter extends OncePerRequestFilter {
+
+    private final WarmupRunner runner;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        if (!runner.isWarmupRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        TransactionStatus transaction = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        try {
+            filterChain.doFilter(request, response);
+            if (!transaction.isRollbackOnly()) {
+                entityManager.flush();
+            }
+        } finally {
+            transactionManager.rollback(transaction);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.productservice.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends the main requests to this instance over loopback until the JIT has
+ * compiled their paths, so that the first real requests after a deploy do
+ * not run interpreted. Application runners finish before Spring Boot
+ * publishes {@code ReadinessState.ACCEPTING_TRAFFIC}, so the instance stays
+ * out of service ({@code /actuator/health/readiness}) until warm-up is done.
+ *
+ * <p>Each round lists the first catalog page, a filtered and sorted page
+ * with selected fields, a search and one product. Requests carry tokens from
+ * {@link WarmupTokens} and a key known only to this run; they only read, and
+ * {@link WarmupFilter} rolls back their transactions all the same. Rounds stop at
+ * the iteration limit, at the timeout, or once a window of rounds is no
+ * longer noticeably faster than the one before. A failed request ends
+ * warm-up early but never startup.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class WarmupRunner implements ApplicationRunner {
+
+    static final String HEADER = "X-Warmup";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final WarmupProperties properties;
+    private final WarmupTokens tokens;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private volatile String key;
+
+    /**
+     * Whether the request was sent by the warm-up that is running now.
+     */
+    boolean isWarmupRequest(HttpServletRequest request) {
+        String current = key;
+        return current != null && current.equals(request.getHeader(HEADER));
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String port = environment.getProperty("local.server.port");
+        if (!properties.isEnabled() || port == null) {
+            return;
+        }
+        key = UUID.randomUUID().toString();
+        tokens.start();
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            warmUp(client, requests("http://127.0.0.1:" + port, client));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.warn("Warm-up stopped early: {}", ex.getMessage());
+        } finally {
+            key = null;
+            tokens.revoke();
+        }
+    }
+
+    private void warmUp(HttpClient client, List<HttpRequest> round) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        long deadline = started + properties.getTimeout().toNanos();
+        long[] window = new long[Math.max(properties.getWindow(), 1)];
+        long firstMedian = 0;
+        long lastMedian = 0;
+        int rounds = 0;
+        String reason = "iteration limit";
+        while (rounds < properties.getIterations()) {
+            if (System.nanoTime() > deadline) {
+                reason = "timeout";
+                break;
+            }
+            long roundStarted = System.nanoTime();
+            for (HttpRequest request : round) {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 300) {
+                    throw new IllegalStateException(request.method() + " " + request.uri() + " answered "
+                            + response.statusCode());
+                }
+            }
+            window[rounds % window.length] = System.nanoTime() - roundStarted;
+            rounds++;
+            if (rounds % window.length == 0) {
+                long median = median(window);
+                boolean stable = lastMedian > 0 && median > lastMedian * (1 - properties.getTolerance());
+                if (lastMedian == 0) {
+                    firstMedian = median;
+                }
+                lastMedian = median;
+                if (stable) {
+                    reason = "latency stable";
+                    break;
+                }
+            }
+        }
+        log.info("Warm-up finished ({}) after {} rounds in {} ms; median round {} us in the first window, {} us in the last",
+                reason, rounds, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started),
+                TimeUnit.NANOSECONDS.toMicros(firstMedian), TimeUnit.NANOSECONDS.toMicros(lastMedian));
+    }
+
+    private List<HttpRequest> requests(String baseUrl, HttpClient client) throws IOException, InterruptedException {
+        Duration lifetime = properties.getTimeout().plusMinutes(1);
+        String token = tokens.mint(UUID.randomUUID().toString(), "CLIENT", lifetime);
+        HttpRequest firstPage = request(baseUrl + "/api/products?page=0&size=50", token).GET().build();
+        List<HttpRequest> round = new ArrayList<>();
+        round.add(firstPage);
+        round.add(request(baseUrl + "/api/products?size=20&sort=price,desc&inStock=true&fields=id,name,price", token)
+                .GET().build());
+
+        // The search and the lookup use a product that exists, when there is one
+        HttpResponse<String> page = client.send(firstPage, HttpResponse.BodyHandlers.ofString());
+        JsonNode products = page.statusCode() == 200 ? objectMapper.readTree(page.body()) : null;
+        if (products != null && products.isArray() && !products.isEmpty()) {
+            JsonNode product = products.get(0);
+            String word = product.path("name").asText("").trim().split("\\s+")[0];
+            if (!word.isEmpty()) {
+                round.add(request(baseUrl + "/api/products/search?q=" + URLEncoder.encode(word, StandardCharsets.UTF_8),
+                        token).GET().build());
+            }
+            round.add(request(baseUrl + "/api/products/" + product.path("id").asText(), token).GET().build());
+        }
+        return round;
+    }
+
+    private HttpRequest.Builder request(String url, String token) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header(HEADER, key);
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.productservice.warmup;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Access tokens for the warm-up requests, shaped like Keycloak's and signed
+ * with a key generated for the purpose. The decoder accepts exactly the
+ * tokens minted here, and only until {@link #revoke}, which drops the key.
+ */
+public class WarmupTokens {
+
+    private final Set<String> issued = ConcurrentHashMap.newKeySet();
+    private volatile NimbusJwtEncoder encoder;
+    private volatile JwtDecoder localDecoder;
+
+    void start() {
+        try {
+            RSAKey key = new RSAKeyGenerator(2048).keyID("warmup").generate();
+            encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(key)));
+            localDecoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        } catch (JOSEException ex) {
+            throw new IllegalStateException("Cannot generate the warm-up signing key", ex);
+        }
+    }
+
+    /**
+     * @param role {@code CLIENT} or {@code ADMIN}
+     */
+    String mint(String subject, String role, Duration lifetime) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject(subject)
+                .claim("preferred_username", "warmup")
+                .claim("realm_access", Map.of("roles", List.of(role)))
+                .issuedAt(now)
+                .expiresAt(now.plus(lifetime))
+                .build();
+        JwsHeader header = JwsHeader.with(SignatureAlgorithm.RS256).keyId("warmup").build();
+        String token = encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+        issued.add(token);
+        return token;
+    }
+
+    void revoke() {
+        localDecoder = null;
+        encoder = null;
+        issued.clear();
+    }
+
+    /**
+     * Decodes warm-up tokens while the warm-up runs, and passes every other
+     * token to {@code delegate}.
+     */
+    public JwtDecoder decoder(JwtDecoder delegate) {
+        return token -> {
+            JwtDecoder local = localDecoder;
+            return local != null && issued.contains(token) ? local.decode(token) : delegate.decode(token);
+        };
+    }
+}
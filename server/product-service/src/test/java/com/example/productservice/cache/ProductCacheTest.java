@@ -0,0 +1,112 @@
+package com.example.productservice.cache;
+
+import com.example.productservice.dto.ProductQuery;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.Product;
+import com.example.productservice.services.ProductChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+
+    private final List<String> broadcasts = new ArrayList<>();
+    private ProductCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ProductCache(new ProductCacheProperties(), broadcasts::add, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void loadsOnceUntilTheProductChanges() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("p1", id -> product(id, "v" + loads.incrementAndGet()));
+        Product cached = cache.get("p1", id -> product(id, "v" + loads.incrementAndGet()));
+        assertThat(cached.getName()).isEqualTo("v1");
+
+        cache.onProductChanged(ProductChangedEvent.deleted("p1"));
+
+        assertThat(cache.get("p1", id -> product(id, "v" + loads.incrementAndGet())).getName()).isEqualTo("v2");
+        assertThat(broadcasts).containsExactly("p1");
+    }
+
+    @Test
+    void doesNotCacheMissingProducts() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("missing", id -> { loads.incrementAndGet(); return null; });
+        cache.get("missing", id -> { loads.incrementAndGet(); return null; });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void dropsEveryPageOnAnyChange() {
+        ProductQuery query = ProductQuery.builder().sortField("name").size(10).fields(ProductQuery.ALL_FIELDS).build();
+        AtomicInteger loads = new AtomicInteger();
+        cache.page(query, q -> { loads.incrementAndGet(); return new ProductSlice(List.of(), 0L, null); });
+        cache.page(query, q -> { loads.incrementAndGet(); return new ProductSlice(List.of(), 0L, null); });
+        assertThat(loads).hasValue(1);
+
+        cache.invalidateLocal("unrelated");
+
+        cache.page(query, q -> { loads.incrementAndGet(); return new ProductSlice(List.of(), 0L, null); });
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<Product>> readers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            readers.add(CompletableFuture.supplyAsync(() -> cache.get("hot", id -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return product(id, "hot");
+            })));
+        }
+        Thread.sleep(100);
+        release.countDown();
+        for (CompletableFuture<Product> reader : readers) {
+            assertThat(reader.get().getName()).isEqualTo("hot");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void bulkLoadInFlightDuringAChangeIsNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+        Map<String, Product> stale = cache.getAll(List.of("p1", "p2"), missing -> {
+            loads.incrementAndGet();
+            cache.invalidateLocal("p1");
+            return Map.of("p1", product("p1", "old"), "p2", product("p2", "old"));
+        });
+        assertThat(stale.keySet()).containsExactly("p1", "p2");
+
+        Map<String, Product> fresh = cache.getAll(List.of("p1", "p2"), missing -> {
+            loads.incrementAndGet();
+            return Map.of("p1", product("p1", "new"), "p2", product("p2", "new"));
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(fresh.get("p1").getName()).isEqualTo("new");
+        assertThat(cache.getAll(List.of("p1"), missing -> Map.of()).get("p1").getName()).isEqualTo("new");
+    }
+
+    private static Product product(String id, String name) {
+        return Product.builder().id(id).name(name).price(1.0).quantity(1).build();
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.productservice.changes;
+
+import com.example.productservice.entities.Product;
+import com.example.productservice.entities.ProductChange;
+import com.example.productservice.services.ProductChangedEvent;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Needs a real Postgres for the advisory lock: an embedded one, or the
+ * database given by {@code -Dtest.postgres.url} where embedded Postgres
+ * cannot start (e.g. as root).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ProductChangeLog.class, ProductChangeLogTest.Properties.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductChangeLogTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("test.postgres.url", "");
+    private static EmbeddedPostgres embedded;
+
+    @TestConfiguration
+    static class Properties {
+        @Bean
+        ProductChangeFeedProperties productChangeFeedProperties() {
+            return new ProductChangeFeedProperties();
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        if (EXTERNAL_URL.isBlank() && embedded == null) {
+            embedded = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url",
+                () -> EXTERNAL_URL.isBlank() ? embedded.getJdbcUrl("postgres", "postgres") : EXTERNAL_URL);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+            embedded = null;
+        }
+    }
+
+    @Autowired
+    private ProductChangeLog changeLog;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void writersDoNotWaitForEachOtherAndSequencesFollowVisibility() throws Exception {
+        changeLog.initialize();
+        long start = changeLog.lastSequence();
+        CountDownLatch queued = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> slowWriter = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    changeLog.onProductChanged(changed("slow"));
+                    // Runs after the change log has queued the entry
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            queued.countDown();
+                            await(commit);
+                        }
+                    });
+                }));
+        assertThat(queued.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // The slow writer has queued its change and holds its transaction open
+        CompletableFuture<Void> fastWriter = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> changeLog.onProductChanged(changed("fast"))));
+        fastWriter.get(5, TimeUnit.SECONDS);
+        assertThat(productIds(changeLog.changesSince(start, 10).changes())).containsExactly("fast");
+
+        commit.countDown();
+        slowWriter.get(5, TimeUnit.SECONDS);
+        assertThat(productIds(changeLog.changesSince(start, 10).changes())).containsExactly("fast", "slow");
+    }
+
+    private static ProductChangedEvent changed(String productId) {
+        Product product = Product.builder().id(productId).name(productId).price(1.0).quantity(1).build();
+        return new ProductChangedEvent(ProductChangedEvent.Type.UPDATED, productId, product);
+    }
+
+    private static List<String> productIds(List<ProductChange> changes) {
+        return changes.stream().map(ProductChange::getProductId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.productservice.datasource;
+
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.config.CacheConfig;
+import com.example.productservice.config.EntityCacheConfig;
+import com.example.productservice.dto.ProductRequestDTO;
+import com.example.productservice.inventory.InventoryService;
+import com.example.productservice.repositories.ProductRepository;
+import com.example.productservice.services.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import net.ttddyy.observation.boot.autoconfigure.DataSourceObservationAutoConfiguration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement counting through the datasource proxy, and the query budget
+ * assertions built on it.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "datasource.inspection.repeated-statement-threshold=3"})
+@ImportAutoConfiguration(DataSourceObservationAutoConfiguration.class)
+@Import({QueryInspector.class, EntityCacheConfig.class, CacheConfig.class, ProductCache.class, ProductService.class,
+        QueryInspectorTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QueryInspectorTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObservationRegistry observationRegistry() {
+            return ObservationRegistry.NOOP;
+        }
+    }
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<String> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            ids.add(productService.create(new ProductRequestDTO("Lamp " + i, "Desk lamp", 25.0, 10)).getId());
+        }
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void batchLookupStaysWithinItsBudget() {
+        try (QueryStats queries = QueryStats.start()) {
+            assertThat(productService.getByIds(ids)).hasSize(5);
+
+            queries.assertAtMost(1).assertNoStatementRepeatedMoreThan(1);
+            assertThat(queries.time()).isPositive();
+        }
+    }
+
+    @Test
+    void loadingOneByOneIsReportedAsRepeatedStatement() {
+        try (QueryStats queries = QueryStats.start()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    ids.forEach(id -> productRepository.findById(id).orElseThrow()));
+
+            assertThat(queries.count()).isEqualTo(5);
+            assertThat(queries.repeatedStatements()).isEqualTo(1);
+            assertThatThrownBy(() -> queries.assertNoStatementRepeatedMoreThan(3))
+                    .isInstanceOf(AssertionError.class)
+                    .hasMessageContaining("5 x select");
+        }
+    }
+
+    @Test
+    void nestedScopesBothCount() {
+        try (QueryStats outer = QueryStats.start()) {
+            try (QueryStats inner = QueryStats.start()) {
+                productService.getById(ids.get(0));
+                assertThat(inner.count()).isEqualTo(1);
+            }
+            productService.getById(ids.get(1));
+            assertThat(outer.count()).isEqualTo(2);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.productservice.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ReplicaLagMonitor lagMonitor = mock(ReplicaLagMonitor.class);
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        routing = new ReplicaRoutingDataSource(dataSource(), dataSource(), lagMonitor, Duration.ofMinutes(1), registry);
+        when(lagMonitor.isUsable()).thenReturn(true);
+        signIn("alice");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplica() throws SQLException {
+        read();
+
+        assertThat(reads("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void replicaBehindSendsReadsToThePrimary() throws SQLException {
+        when(lagMonitor.isUsable()).thenReturn(false);
+
+        read();
+
+        assertThat(reads("primary_replica_behind")).isEqualTo(1);
+        assertThat(reads("replica")).isZero();
+    }
+
+    @Test
+    void committedWriteSendsOnlyThatUsersReadsToThePrimary() throws SQLException {
+        write("UPDATE products SET quantity = quantity - 1 WHERE id = ?", true);
+
+        read();
+        signIn("bob");
+        read();
+
+        assertThat(reads("primary_own_write")).isEqualTo(1);
+        assertThat(reads("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void readWriteTransactionThatOnlyReadsIsNotRemembered() throws SQLException {
+        write("SELECT * FROM products WHERE id = ? FOR UPDATE", true);
+
+        read();
+
+        assertThat(reads("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void rolledBackWriteIsNotRemembered() throws SQLException {
+        write("INSERT INTO products (id) VALUES (?)", false);
+
+        read();
+
+        assertThat(reads("replica")).isEqualTo(1);
+    }
+
+    @Test
+    void classifiesStatements() {
+        assertThat(ReplicaRoutingDataSource.changesData("select p1_0.id from products p1_0")).isFalse();
+        assertThat(ReplicaRoutingDataSource.changesData("/* load */ (SELECT 1) UNION (SELECT 2)")).isFalse();
+        assertThat(ReplicaRoutingDataSource.changesData("WITH t AS (SELECT 1) SELECT * FROM t")).isFalse();
+        assertThat(ReplicaRoutingDataSource.changesData("  update products set name=? where id=?")).isTrue();
+        assertThat(ReplicaRoutingDataSource.changesData("WITH moved AS (DELETE FROM a RETURNING *) SELECT 1")).isTrue();
+        assertThat(ReplicaRoutingDataSource.changesData("CREATE TABLE t (id int)")).isTrue();
+    }
+
+    private void read() throws SQLException {
+        inTransaction(true, true, connection -> {
+        });
+    }
+
+    private void write(String sql, boolean commit) throws SQLException {
+        inTransaction(false, commit, connection -> connection.prepareStatement(sql).executeUpdate());
+    }
+
+    /**
+     * Runs the work the way a transaction manager would: synchronization on,
+     * connection fetched inside, commit or rollback callbacks at the end.
+     */
+    private void inTransaction(boolean readOnly, boolean commit, ConnectionWork work) throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+        try {
+            try (Connection connection = routing.getConnection()) {
+                work.run(connection);
+            }
+            if (commit) {
+                TransactionSynchronizationUtils.triggerAfterCommit();
+            }
+            TransactionSynchronizationUtils.triggerAfterCompletion(commit
+                    ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+    }
+
+    private double reads(String route) {
+        return registry.get("datasource.reads").tag("route", route).counter().count();
+    }
+
+    private static void signIn(String user) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(user, null, "ROLE_CLIENT"));
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+
+    private interface ConnectionWork {
+        void run(Connection connection) throws SQLException;
+    }
+}
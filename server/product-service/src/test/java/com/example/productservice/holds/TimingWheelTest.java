@@ -0,0 +1,110 @@
+package com.example.productservice.holds;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TimingWheelTest {
+
+    private static final long TICK = 100;
+    private static final long START = 1_000_000_037L;
+
+    private TimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TimingWheel<>(TICK, START);
+    }
+
+    @Test
+    void firesAtTheDeadlineAndNotBefore() {
+        wheel.schedule("a", START + 250);
+
+        assertThat(tasks(wheel.advance(START + 249))).isEmpty();
+        assertThat(tasks(wheel.advance(START + 263))).containsExactly("a");
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START + 10_000)).isEmpty();
+    }
+
+    @Test
+    void firesPastDeadlinesOnTheNextTick() {
+        wheel.schedule("late", START - 5_000);
+
+        assertThat(tasks(wheel.advance(START))).containsExactly("late");
+    }
+
+    @Test
+    void cascadesTimersDownFromEveryLevel() {
+        // Level 0, level 1, level 2, level 3 and beyond the wheel's span
+        long[] delays = {3, 64, 700, 4_096, 300_000, 16_000_000, 20_000_000};
+        Map<String, Long> deadlines = new HashMap<>();
+        for (long ticks : delays) {
+            deadlines.put("t" + ticks, START + ticks * TICK);
+            wheel.schedule("t" + ticks, START + ticks * TICK);
+        }
+
+        Map<String, Long> firedAt = runUntil(START + 20_000_001 * TICK);
+
+        assertThat(firedAt).containsOnlyKeys(deadlines.keySet());
+        deadlines.forEach((task, deadline) ->
+                assertThat(firedAt.get(task)).as(task).isBetween(deadline, deadline + 2 * TICK));
+    }
+
+    @Test
+    void cancelledTimersNeverFire() {
+        TimingWheel.Timeout<String> kept = wheel.schedule("kept", START + 10 * TICK);
+        TimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", START + 10_000 * TICK);
+
+        assertThat(cancelled.cancel()).isTrue();
+        assertThat(cancelled.cancel()).isFalse();
+        assertThat(wheel.size()).isEqualTo(1);
+
+        assertThat(tasks(wheel.advance(START + 20_000 * TICK))).containsExactly("kept");
+        assertThat(kept.cancel()).isFalse();
+    }
+
+    @Test
+    void firesManyRandomTimersOnTime() {
+        Random random = new Random(42);
+        Map<String, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long deadline = START + random.nextLong(2_000_000) * (random.nextBoolean() ? 1 : TICK);
+            deadlines.put("t" + i, deadline);
+            wheel.schedule("t" + i, deadline);
+        }
+        assertThat(wheel.size()).isEqualTo(20_000);
+
+        Map<String, Long> firedAt = runUntil(START + 2_000_001 * TICK);
+
+        assertThat(firedAt).hasSize(20_000);
+        deadlines.forEach((task, deadline) ->
+                assertThat(firedAt.get(task)).as(task).isBetween(deadline, deadline + 2 * TICK));
+    }
+
+    /**
+     * Advances one tick at a time, recording when each task fired. START is not
+     * on a tick boundary, so a timer may fire up to two ticks after its deadline.
+     */
+    private Map<String, Long> runUntil(long end) {
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = START; now <= end; now += TICK) {
+            for (TimingWheel.Timeout<String> timeout : wheel.advance(now)) {
+                firedAt.put(timeout.task(), now);
+            }
+        }
+        return firedAt;
+    }
+
+    private static List<String> tasks(List<TimingWheel.Timeout<String>> fired) {
+        List<String> tasks = new ArrayList<>();
+        fired.forEach(timeout -> tasks.add(timeout.task()));
+        return tasks;
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.productservice.inventory;
+
+import com.example.productservice.entities.Product;
+import com.example.productservice.exceptions.InsufficientStockException;
+import com.example.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Striped reservations run Postgres-only SQL (SKIP LOCKED, RETURNING), so this
+ * test needs a real server: an embedded one, or the database given by
+ * {@code -Dtest.postgres.url} where embedded Postgres cannot start (e.g. as root).
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({InventoryService.class, InventoryServiceTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryServiceTest {
+
+    private static final String EXTERNAL_URL = System.getProperty("test.postgres.url", "");
+    private static EmbeddedPostgres embedded;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException {
+        if (EXTERNAL_URL.isBlank() && embedded == null) {
+            embedded = EmbeddedPostgres.start();
+        }
+        registry.add("spring.datasource.url",
+                () -> EXTERNAL_URL.isBlank() ? embedded.getJdbcUrl("postgres", "postgres") : EXTERNAL_URL);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.jpa.properties.hibernate.cache.use_second_level_cache", () -> "false");
+    }
+
+    @AfterAll
+    static void stop() throws IOException {
+        if (embedded != null) {
+            embedded.close();
+            embedded = null;
+        }
+    }
+
+    @Autowired
+    private InventoryService inventoryService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = UUID.randomUUID().toString();
+        jdbcTemplate.update("INSERT INTO products (id, name, price, quantity, stock_stripes) VALUES (?, 'Lamp', 25.0, 10, 0)",
+                productId);
+    }
+
+    @Test
+    void reserveTakesFromSeveralStripesWhenNoSingleStripeSuffices() {
+        inventoryService.setStripes(productId, 4);
+        assertThat(stripes()).containsExactly(3, 3, 2, 2);
+
+        inventoryService.reserve(productId, 5);
+
+        assertThat(stripes().stream().mapToInt(Integer::intValue).sum()).isEqualTo(5);
+        assertThat(inventoryService.getStock(productId).quantity()).isEqualTo(5);
+    }
+
+    @Test
+    void reserveMoreThanAllStripesHoldFailsWithoutTakingStock() {
+        inventoryService.setStripes(productId, 4);
+
+        assertThatThrownBy(() -> inventoryService.reserve(productId, 11))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(stripes()).containsExactly(3, 3, 2, 2);
+    }
+
+    @Test
+    void releaseAddsToOneStripe() {
+        inventoryService.setStripes(productId, 4);
+
+        inventoryService.release(productId, 3);
+
+        assertThat(inventoryService.getStock(productId).quantity()).isEqualTo(13);
+    }
+
+    @Test
+    void reserveAndReleaseFallBackToTheProductRowOnceStripesAreGone() {
+        inventoryService.setStripes(productId, 4);
+        // Another instance switches the product back; this instance still assumes stripes
+        jdbcTemplate.update("DELETE FROM product_stock_stripes WHERE product_id = ?", productId);
+        jdbcTemplate.update("UPDATE products SET stock_stripes = 0, quantity = 10 WHERE id = ?", productId);
+
+        inventoryService.reserve(productId, 4);
+        inventoryService.release(productId, 1);
+
+        assertThat(inventoryService.getStock(productId).stripes()).isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, productId))
+                .isEqualTo(7);
+    }
+
+    @Test
+    void rebalanceEvensOutStripesAndPreservesTheTotal() {
+        jdbcTemplate.update("UPDATE products SET quantity = 100 WHERE id = ?", productId);
+        inventoryService.setStripes(productId, 4);
+        List<Integer> drained = List.of(70, 10, 0, 0);
+        for (int stripe = 0; stripe < drained.size(); stripe++) {
+            jdbcTemplate.update("UPDATE product_stock_stripes SET quantity = ? WHERE product_id = ? AND stripe = ?",
+                    drained.get(stripe), productId, stripe);
+        }
+
+        inventoryService.rebalance();
+
+        assertThat(stripes()).containsExactly(20, 20, 20, 20);
+        assertThat(jdbcTemplate.queryForObject("SELECT quantity FROM products WHERE id = ?", Integer.class, productId))
+                .isEqualTo(80);
+    }
+
+    @Test
+    void savingAStaleProductKeepsItsStripes() {
+        Product stale = productRepository.findById(productId).orElseThrow();
+        inventoryService.setStripes(productId, 4);
+
+        stale.setName("Desk lamp");
+        productRepository.saveAndFlush(stale);
+
+        assertThat(inventoryService.getStock(productId).stripes()).isEqualTo(4);
+        assertThat(stripes()).containsExactly(3, 3, 2, 2);
+    }
+
+    private List<Integer> stripes() {
+        return jdbcTemplate.queryForList("SELECT quantity FROM product_stock_stripes WHERE product_id = ? ORDER BY stripe",
+                Integer.class, productId);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.productservice.search;
+
+import com.example.productservice.dto.ProductSearchHit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.put("laptop", "Laptop Pro", "High-end workstation", 1500.0);
+        index.put("mouse", "Wireless Mouse", "Ergonomic 2.4GHz, pairs with any laptop", 25.0);
+        index.put("keyboard", "Mechanical Keyboard", "RGB Backlit Blue Switches", 80.0);
+        index.put("cafe", "Café Mug", "Ceramic", 9.0);
+    }
+
+    @Test
+    void tokenizesCaseAndAccentInsensitively() {
+        assertThat(ProductSearchIndex.tokenize("Café-Crème, 2.4GHz!")).containsExactly("cafe", "creme", "2", "4ghz");
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(ids(index.search("laptop", 10))).containsExactly("laptop", "mouse");
+    }
+
+    @Test
+    void matchesLastWordAsPrefix() {
+        assertThat(ids(index.search("key", 10))).containsExactly("keyboard");
+        assertThat(ids(index.search("wireless mou", 10))).containsExactly("mouse");
+        assertThat(ids(index.search("CAFE", 10))).containsExactly("cafe");
+    }
+
+    @Test
+    void requiresEveryWordToMatch() {
+        assertThat(index.search("wireless keyboard", 10)).isEmpty();
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        index.put("keyboard", "Membrane Keyboard", "Quiet keys", 30.0);
+        assertThat(index.search("mechanical", 10)).isEmpty();
+        assertThat(index.search("quiet", 10)).extracting(ProductSearchHit::price).containsExactly(30.0);
+
+        index.remove("laptop");
+        assertThat(ids(index.search("laptop", 10))).containsExactly("mouse");
+        assertThat(index.size()).isEqualTo(3);
+
+        // A freed document slot is reused by the next product
+        index.put("stand", "Laptop Stand", "Aluminum", 15.0);
+        assertThat(ids(index.search("laptop", 10))).containsExactly("stand", "mouse");
+    }
+
+    @Test
+    void returnsOnlyTheBestHits() {
+        for (int i = 0; i < 50; i++) {
+            index.put("cable-" + i, "USB cable " + i, i % 2 == 0 ? "usb usb usb" : "braided", 5.0);
+        }
+        List<ProductSearchHit> hits = index.search("usb", 5);
+        assertThat(hits).hasSize(5);
+        assertThat(hits).isSortedAccordingTo((a, b) -> Float.compare(b.score(), a.score()));
+        assertThat(hits).allMatch(hit -> Integer.parseInt(hit.id().substring(6)) % 2 == 0);
+    }
+
+    private static List<String> ids(List<ProductSearchHit> hits) {
+        return hits.stream().map(ProductSearchHit::id).toList();
+    }
+}
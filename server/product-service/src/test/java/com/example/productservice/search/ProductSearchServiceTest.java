@@ -0,0 +1,89 @@
+package com.example.productservice.search;
+
+import com.example.productservice.changes.ProductChangeLog;
+import com.example.productservice.dto.ProductChangePage;
+import com.example.productservice.dto.ProductSearchHit;
+import com.example.productservice.dto.ProductSlice;
+import com.example.productservice.entities.ProductChange;
+import com.example.productservice.exceptions.ChangeFeedExpiredException;
+import com.example.productservice.repositories.ProductRepository;
+import com.example.productservice.services.ProductChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchServiceTest {
+
+    private final ProductRepository repository = mock(ProductRepository.class);
+    private final ProductChangeLog changeLog = mock(ProductChangeLog.class);
+    private final ProductSearchService service = new ProductSearchService(repository, changeLog);
+
+    @Test
+    void changeDuringLoadWinsOverTheRowTheLoadRead() {
+        when(changeLog.lastSequence()).thenReturn(100L);
+        // The load reads the old rows; the update and the delete commit before they are indexed
+        when(repository.findSlice(any())).thenReturn(new ProductSlice(
+                List.of(row("p1", "Floor Lamp"), row("p2", "Table Lamp"), row("p3", "Wall Lamp")), null, null));
+        when(changeLog.changesSince(eq(100L), anyInt())).thenReturn(new ProductChangePage(
+                List.of(change(101, "p1", "Desk Lamp"), deleted(102, "p2")), 102, false));
+        when(changeLog.changesSince(eq(102L), anyInt())).thenReturn(new ProductChangePage(List.of(), 102, false));
+
+        service.loadIndex();
+
+        assertThat(service.search("lamp", 10)).extracting(ProductSearchHit::id).containsExactlyInAnyOrder("p1", "p3");
+        assertThat(service.search("desk", 10)).extracting(ProductSearchHit::id).containsExactly("p1");
+        assertThat(service.search("floor", 10)).isEmpty();
+    }
+
+    @Test
+    void changesMadeThroughAnotherInstanceAreApplied() {
+        when(changeLog.lastSequence()).thenReturn(7L);
+        when(repository.findSlice(any())).thenReturn(new ProductSlice(List.of(row("p1", "Floor Lamp")), null, null));
+        when(changeLog.changesSince(eq(7L), anyInt())).thenReturn(new ProductChangePage(List.of(), 7, false));
+        service.loadIndex();
+
+        when(changeLog.changesSince(eq(7L), anyInt())).thenReturn(new ProductChangePage(
+                List.of(change(8, "p1", "Desk Lamp")), 8, false));
+        service.followChangeLog();
+
+        assertThat(service.search("desk", 10)).extracting(ProductSearchHit::id).containsExactly("p1");
+        assertThat(service.search("floor", 10)).isEmpty();
+    }
+
+    @Test
+    void reloadsWhenChangesWereCompactedAway() {
+        when(changeLog.lastSequence()).thenReturn(7L);
+        when(repository.findSlice(any())).thenReturn(new ProductSlice(List.of(row("p1", "Floor Lamp")), null, null));
+        when(changeLog.changesSince(eq(7L), anyInt())).thenReturn(new ProductChangePage(List.of(), 7, false));
+        service.loadIndex();
+
+        when(changeLog.changesSince(eq(7L), anyInt())).thenThrow(new ChangeFeedExpiredException("expired"));
+        when(changeLog.lastSequence()).thenReturn(50L);
+        when(repository.findSlice(any())).thenReturn(new ProductSlice(List.of(row("p9", "Desk Lamp")), null, null));
+        when(changeLog.changesSince(eq(50L), anyInt())).thenReturn(new ProductChangePage(List.of(), 50, false));
+        service.onProductChanged(ProductChangedEvent.deleted("p1"));
+
+        assertThat(service.search("lamp", 10)).extracting(ProductSearchHit::id).containsExactly("p9");
+    }
+
+    private static Map<String, Object> row(String id, String name) {
+        return Map.of("id", id, "name", name, "description", "", "price", 10.0);
+    }
+
+    private static ProductChange change(long seq, String productId, String name) {
+        return ProductChange.builder().seq(seq).productId(productId).type(ProductChangedEvent.Type.UPDATED)
+                .name(name).price(30.0).build();
+    }
+
+    private static ProductChange deleted(long seq, String productId) {
+        return ProductChange.builder().seq(seq).productId(productId).type(ProductChangedEvent.Type.DELETED).build();
+    }
+}
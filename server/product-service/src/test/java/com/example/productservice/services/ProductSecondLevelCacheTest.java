@@ -0,0 +1,117 @@
+package com.example.productservice.services;
+
+import com.example.productservice.cache.ProductCache;
+import com.example.productservice.config.CacheConfig;
+import com.example.productservice.config.EntityCacheConfig;
+import com.example.productservice.dto.ProductRequestDTO;
+import com.example.productservice.entities.Product;
+import com.example.productservice.inventory.InventoryService;
+import com.example.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product loads by ID against the second-level cache. Each load runs in its
+ * own transaction, as it would in its own request.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import({EntityCacheConfig.class, CacheConfig.class, ProductCache.class, ProductService.class,
+        ProductSecondLevelCacheTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductSecondLevelCacheTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private Statistics statistics;
+    private String productId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        productId = productService.create(new ProductRequestDTO("Lamp", "Desk lamp", 25.0, 10)).getId();
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+    }
+
+    @Test
+    void repeatedLoadsByIdQueryTheDatabaseOnce() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(loadById().getName()).isEqualTo("Lamp");
+        }
+
+        CacheRegionStatistics region = statistics.getDomainDataRegionStatistics("products");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(region.getMissCount()).isEqualTo(1);
+        assertThat(region.getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    void updateIsSeenByLaterLoads() {
+        assertThat(productService.getById(productId).getName()).isEqualTo("Lamp");
+        assertThat(loadById().getName()).isEqualTo("Lamp");
+
+        productService.update(productId, new ProductRequestDTO("Floor lamp", "Desk lamp", 40.0, 10));
+
+        assertThat(productService.getById(productId).getName()).isEqualTo("Floor lamp");
+        assertThat(loadById().getPrice()).isEqualTo(40.0);
+    }
+
+    @Test
+    void stockWrittenWithSqlIsSeenByLaterLoads() {
+        assertThat(loadById().getQuantity()).isEqualTo(10);
+
+        // What InventoryService does: plain SQL, then a change event
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE products SET quantity = 7 WHERE id = ?", productId);
+            eventPublisher.publishEvent(new ProductChangedEvent(ProductChangedEvent.Type.STOCK_CHANGED, productId, null));
+        });
+
+        assertThat(loadById().getQuantity()).isEqualTo(7);
+        assertThat(productService.getById(productId).getQuantity()).isEqualTo(7);
+    }
+
+    private Product loadById() {
+        return transactionTemplate.execute(status -> productRepository.findById(productId).orElseThrow());
+    }
+}